@@ -0,0 +1,149 @@
+package springDB.jdbc.bench;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.connection.ConnectionConst;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * Connection 획득(checkout) + 반환(close) 비용 비교
+ * - driverManager : DriverManager.getConnection() 직접 호출
+ * - driverManagerDataSource : 스프링 DriverManagerDataSource (매번 새 con)
+ * - hikari : HikariDataSource (pool, maximumPoolSize = POOL_SIZE)
+ * + thread 수 1, 8, 64, 256 -> POOL_SIZE보다 thread가 많으면 pool 고갈로 대기 발생
+ * + holdMicros - con을 잡고 있는 시간(쿼리 실행 대용, parkNanos로 실제 시간만큼 대기), 0이면 순수 checkout / return 비용
+ * + AcquireCounters - getConnection() 에서 대기한 시간만 따로 집계 (pool 고갈 시 대기 시간)
+ *
+ * cf) ConnectionTest의 Thread.sleep(200) 대신, Trial 시작 전에 pool을 모두 채워두고 측정
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionBenchmark {
+
+    public static final int POOL_SIZE = 10;
+
+    @Param({"driverManager", "driverManagerDataSource", "hikari"})
+    public String strategy;
+
+    @Param({"0", "100"})
+    public long holdMicros;
+
+    private DataSource dataSource;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        System.setProperty(H2_MODE_PROPERTY, "mem");
+        ConnectionConst.bindMemSchema("conn_bench");
+        url = url();
+
+        if (strategy.equals("hikari")) {
+            HikariDataSource hikari = new HikariDataSource();
+            hikari.setJdbcUrl(url);
+            hikari.setUsername(USERNAME);
+            hikari.setPassword(PASSWORD);
+            hikari.setMaximumPoolSize(POOL_SIZE);
+            hikari.setMinimumIdle(POOL_SIZE);
+            hikari.setPoolName("BenchPool");
+            dataSource = hikari;
+            warmUpPool(hikari);
+        } else if (strategy.equals("driverManagerDataSource")) {
+            dataSource = new DriverManagerDataSource(url, USERNAME, PASSWORD);
+        }
+
+        // * mem DB는 마지막 con이 닫혀도 DB_CLOSE_DELAY=-1 이므로 유지됨
+        try (Connection ignored = DriverManager.getConnection(url, USERNAME, PASSWORD)) {
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+        ConnectionConst.clearMemSchema();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class AcquireCounters {
+        public long acquisitions;
+        public long acquireWaitMicros;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            acquisitions = 0;
+            acquireWaitMicros = 0;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void checkout_1(AcquireCounters counters, Blackhole bh) throws SQLException {
+        checkoutAndReturn(counters, bh);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void checkout_8(AcquireCounters counters, Blackhole bh) throws SQLException {
+        checkoutAndReturn(counters, bh);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void checkout_64(AcquireCounters counters, Blackhole bh) throws SQLException {
+        checkoutAndReturn(counters, bh);
+    }
+
+    @Benchmark
+    @Threads(256)
+    public void checkout_256(AcquireCounters counters, Blackhole bh) throws SQLException {
+        checkoutAndReturn(counters, bh);
+    }
+
+    private void checkoutAndReturn(AcquireCounters counters, Blackhole bh) throws SQLException {
+        long begin = System.nanoTime();
+        Connection con = getConnection();
+        counters.acquireWaitMicros += (System.nanoTime() - begin) / 1000;
+        counters.acquisitions++;
+
+        try {
+            bh.consume(con);
+            if (holdMicros > 0) {
+                // * 쿼리 실행 시간 대용 - DB 응답을 기다리는 것처럼 CPU를 쓰지 않고 holdMicros 동안 대기
+                // 이 동안 다른 thread는 pool에서 대기
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(holdMicros));
+            }
+        } finally {
+            con.close();
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (dataSource == null) {
+            return DriverManager.getConnection(url, USERNAME, PASSWORD);
+        }
+        return dataSource.getConnection();
+    }
+
+    // * pool filler thread가 minimumIdle 만큼 채울 때까지 대기 (sleep으로 추측하지 않음)
+    private void warmUpPool(HikariDataSource hikari) throws SQLException {
+        try (Connection ignored = hikari.getConnection()) {
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (hikari.getHikariPoolMXBean().getTotalConnections() < POOL_SIZE && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+}
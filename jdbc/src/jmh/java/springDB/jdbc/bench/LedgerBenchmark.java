@@ -0,0 +1,82 @@
+package springDB.jdbc.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springDB.jdbc.connection.ConnectionConst;
+import springDB.jdbc.ledger.LedgerEngine;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static springDB.jdbc.connection.ConnectionConst.H2_MODE_PROPERTY;
+
+/**
+ * ring buffer 원장의 이체 처리량 - 이체 1건 기준 (sequencer thread 1개 = 단일 core)
+ * - 호출마다 IN_FLIGHT건을 비동기로 제출하고 마지막 건의 완료(fsync 포함)까지 대기
+ * - ringSize가 작으면 producer가 gating에 걸려 대기 -> batch 크기와 fsync 횟수가 달라짐
+ * + H2 projection은 별도 thread에서 비동기로 진행 (측정에 포함되지 않음)
+ *
+ * 실행 : ./gradlew jmh -Pjmh.includes=LedgerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class LedgerBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int IN_FLIGHT = 4096;
+
+    @Param({"1024", "65536"})
+    public int ringSize;
+
+    private Path directory;
+    private LedgerEngine ledger;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        System.setProperty(H2_MODE_PROPERTY, "mem");
+        ConnectionConst.bindMemSchema("bench_ledger_" + ringSize);
+
+        DataSource ds = RepositoryBenchmark.createDataSource("driverManager");
+        new SchemaInitializer(ds).initialize();
+        JdbcTemplate template = new JdbcTemplate(ds);
+        template.update("delete from member");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            template.update("insert into member(member_id, money) values(?, ?)", "m" + i, 1_000_000);
+        }
+
+        directory = Files.createTempDirectory("ledger-bench");
+        ledger = LedgerEngine.open(directory, ds, ringSize, Duration.ofMillis(50));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ledger.close();
+        ConnectionConst.clearMemSchema();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_FLIGHT)
+    public void transfer() {
+        CompletableFuture<Void> last = null;
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            int from = index;
+            index = (index + 1) % ACCOUNTS;
+            last = ledger.submitTransfer("m" + from, "m" + index, 1);
+        }
+        last.join();
+    }
+}
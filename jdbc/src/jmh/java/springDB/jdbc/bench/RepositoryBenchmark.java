@@ -0,0 +1,195 @@
+package springDB.jdbc.bench;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.connection.ConnectionConst;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.*;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * Repository 세대별(V0 ~ V5) 비용 비교
+ * - V0 : DriverManager 직접 사용 (dataSource 파라미터와 무관)
+ * - V1 ~ V3 : DataSource + JdbcUtils / DataSourceUtils
+ * - V4_1, V4_2 : 예외 변환 (직접 변환 / SQLExceptionTranslator)
+ * - V5 : JdbcTemplate
+ * + dataSource - DriverManagerDataSource(매번 새 con) vs HikariDataSource(pool)
+ * + delete는 단독으로 측정하면 지울 row가 없으므로 saveAndDelete - save로 비용을 산출
+ *
+ * 실행 : ./gradlew jmh -> build/reports/jmh/results.json
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryBenchmark {
+
+    public static final String FIXTURE_ID = "fixture";
+
+    @Param({"V0", "V1", "V2", "V3", "V4_1", "V4_2", "V5"})
+    public String generation;
+
+    @Param({"driverManager", "hikari"})
+    public String dataSource;
+
+    private DataSource ds;
+    private Ops ops;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // * 외부 H2 서버 없이 측정 - benchmark 전용 in-memory DB
+        System.setProperty(H2_MODE_PROPERTY, "mem");
+        ConnectionConst.bindMemSchema("bench_" + generation + "_" + dataSource);
+
+        ds = createDataSource(dataSource);
+        ops = createOps(generation, ds);
+        new SchemaInitializer(ds).initialize();
+
+        JdbcTemplate template = new JdbcTemplate(ds);
+        template.update("delete from member");
+        template.update("insert into member(member_id, money) values(?, ?)", FIXTURE_ID, 10000);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        // * save로 쌓인 row 정리 - iteration마다 테이블 크기를 일정하게 유지
+        new JdbcTemplate(ds).update("delete from member where member_id <> ?", FIXTURE_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (ds instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+        ConnectionConst.clearMemSchema();
+    }
+
+    @Benchmark
+    public Member save() {
+        return ops.save(new Member(nextId(), 10000));
+    }
+
+    @Benchmark
+    public Member findById() {
+        return ops.findById(FIXTURE_ID);
+    }
+
+    @Benchmark
+    public void update() {
+        ops.update(FIXTURE_ID, ++sequence);
+    }
+
+    @Benchmark
+    public void saveAndDelete() {
+        String memberId = nextId();
+        ops.save(new Member(memberId, 10000));
+        ops.delete(memberId);
+    }
+
+    private String nextId() {
+        // member_id varchar(10) 범위 안에서 고유한 id
+        return "b" + (sequence++);
+    }
+
+    static DataSource createDataSource(String type) {
+        if (type.equals("hikari")) {
+            HikariDataSource hikari = new HikariDataSource();
+            hikari.setJdbcUrl(url());
+            hikari.setUsername(USERNAME);
+            hikari.setPassword(PASSWORD);
+            hikari.setMaximumPoolSize(10);
+            hikari.setPoolName("BenchPool");
+            return hikari;
+        }
+        return new DriverManagerDataSource(url(), USERNAME, PASSWORD);
+    }
+
+    static Ops createOps(String generation, DataSource ds) {
+        return switch (generation) {
+            case "V0" -> checked(new MemberRepositoryV0());
+            case "V1" -> checked(new MemberRepositoryV1(ds));
+            case "V2" -> checked(new MemberRepositoryV2(ds));
+            case "V3" -> checked(new MemberRepositoryV3(ds));
+            case "V4_1" -> unchecked(new MemberRepositoryV4_1(ds));
+            case "V4_2" -> unchecked(new MemberRepositoryV4_2(ds));
+            case "V5" -> unchecked(new MemberRepositoryV5(ds));
+            default -> throw new IllegalArgumentException("unknown generation = " + generation);
+        };
+    }
+
+    // * 세대마다 시그니처(Checked / Unchecked, 인터페이스 유무)가 다르므로 공통 형태로 맞춰서 호출
+    // - V0 ~ V2는 MemberRepositoryEx로 감싼 뒤, Checked Exception을 RuntimeException으로 전환
+    interface Ops {
+        Member save(Member member);
+
+        Member findById(String memberId);
+
+        void update(String memberId, int money);
+
+        void delete(String memberId);
+    }
+
+    private static Ops checked(MemberRepositoryV0 repository) {
+        return checked(new MemberRepositoryEx() {
+            public Member save(Member member) throws SQLException { return repository.save(member); }
+            public Member findById(String memberId) throws SQLException { return repository.findById(memberId); }
+            public void update(String memberId, int money) throws SQLException { repository.update(memberId, money); }
+            public void delete(String memberId) throws SQLException { repository.delete(memberId); }
+        });
+    }
+
+    private static Ops checked(MemberRepositoryV1 repository) {
+        return checked(new MemberRepositoryEx() {
+            public Member save(Member member) throws SQLException { return repository.save(member); }
+            public Member findById(String memberId) throws SQLException { return repository.findById(memberId); }
+            public void update(String memberId, int money) throws SQLException { repository.update(memberId, money); }
+            public void delete(String memberId) throws SQLException { repository.delete(memberId); }
+        });
+    }
+
+    private static Ops checked(MemberRepositoryV2 repository) {
+        return checked(new MemberRepositoryEx() {
+            public Member save(Member member) throws SQLException { return repository.save(member); }
+            public Member findById(String memberId) throws SQLException { return repository.findById(memberId); }
+            public void update(String memberId, int money) throws SQLException { repository.update(memberId, money); }
+            public void delete(String memberId) throws SQLException { repository.delete(memberId); }
+        });
+    }
+
+    private static Ops checked(MemberRepositoryEx repository) {
+        return new Ops() {
+            public Member save(Member member) {
+                try { return repository.save(member); } catch (SQLException e) { throw new IllegalStateException(e); }
+            }
+
+            public Member findById(String memberId) {
+                try { return repository.findById(memberId); } catch (SQLException e) { throw new IllegalStateException(e); }
+            }
+
+            public void update(String memberId, int money) {
+                try { repository.update(memberId, money); } catch (SQLException e) { throw new IllegalStateException(e); }
+            }
+
+            public void delete(String memberId) {
+                try { repository.delete(memberId); } catch (SQLException e) { throw new IllegalStateException(e); }
+            }
+        };
+    }
+
+    private static Ops unchecked(MemberRepository repository) {
+        return new Ops() {
+            public Member save(Member member) { return repository.save(member); }
+            public Member findById(String memberId) { return repository.findById(memberId); }
+            public void update(String memberId, int money) { repository.update(memberId, money); }
+            public void delete(String memberId) { repository.delete(memberId); }
+        };
+    }
+}
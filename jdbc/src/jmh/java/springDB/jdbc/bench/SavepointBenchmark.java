@@ -0,0 +1,95 @@
+package springDB.jdbc.bench;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.connection.ConnectionConst;
+import springDB.jdbc.repository.MemberRepository;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.SavepointTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+import static springDB.jdbc.connection.ConnectionConst.H2_MODE_PROPERTY;
+
+/**
+ * batch 처리 방식별 비용 - batchSize건의 update를 처리하는 데 걸리는 시간 (batch 1회 기준)
+ * - perItemTransaction : 건마다 transaction (commit batchSize회)
+ * - savepointPerItem : transaction 1개 + 건마다 savepoint 생성 / 해제
+ * - singleTransaction : transaction 1개, savepoint 없음 (하한선)
+ * + savepointPerItem - singleTransaction = savepoint 비용 x batchSize
+ *
+ * 실행 : ./gradlew jmh -Pjmh.includes=SavepointBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SavepointBenchmark {
+
+    private static final int MEMBERS = 1000;
+
+    @Param({"10", "100", "1000"})
+    public int batchSize;
+
+    @Param({"perItemTransaction", "savepointPerItem", "singleTransaction"})
+    public String mode;
+
+    private HikariDataSource ds;
+    private MemberRepository repository;
+    private TransactionTemplate txTemplate;
+    private int money;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty(H2_MODE_PROPERTY, "mem");
+        ConnectionConst.bindMemSchema("bench_savepoint_" + batchSize + "_" + mode);
+
+        ds = (HikariDataSource) RepositoryBenchmark.createDataSource("hikari");
+        new SchemaInitializer(ds).initialize();
+        JdbcTemplate template = new JdbcTemplate(ds);
+        template.update("delete from member");
+        for (int i = 0; i < MEMBERS; i++) {
+            template.update("insert into member(member_id, money) values(?, ?)", "m" + i, 10000);
+        }
+
+        repository = new MemberRepositoryV5(ds);
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(ds));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ds.close();
+        ConnectionConst.clearMemSchema();
+    }
+
+    @Benchmark
+    public void batch() {
+        switch (mode) {
+            case "perItemTransaction" -> {
+                for (int i = 0; i < batchSize; i++) {
+                    int index = i;
+                    txTemplate.executeWithoutResult(status -> updateOne(index));
+                }
+            }
+            case "savepointPerItem" -> txTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batchSize; i++) {
+                    int index = i;
+                    SavepointTemplate.execute(status, () -> updateOne(index));
+                }
+            });
+            case "singleTransaction" -> txTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batchSize; i++) {
+                    updateOne(i);
+                }
+            });
+            default -> throw new IllegalArgumentException("unknown mode = " + mode);
+        }
+    }
+
+    private void updateOne(int index) {
+        repository.update("m" + (index % MEMBERS), ++money);
+    }
+}
@@ -0,0 +1,45 @@
+package springDB.jdbc.bench;
+
+import org.openjdk.jmh.annotations.*;
+import springDB.jdbc.journal.TransferJournal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * journal append 처리량 - 단일 thread(단일 core) 기준 초당 100만 건 이상이 목표
+ * + segment roll / 압축 / group fsync가 모두 포함된 상태로 측정
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class TransferJournalBenchmark {
+
+    private Path directory;
+    private TransferJournal journal;
+    private int money;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-bench");
+        journal = TransferJournal.open(directory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long append() {
+        return journal.append("memberA", "memberB", ++money);
+    }
+}
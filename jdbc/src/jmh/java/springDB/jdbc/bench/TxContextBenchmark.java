@@ -0,0 +1,112 @@
+package springDB.jdbc.bench;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springDB.jdbc.connection.ConnectionConst;
+import springDB.jdbc.context.ContextMemberRepository;
+import springDB.jdbc.context.ContextMemberService;
+import springDB.jdbc.context.TxContextMode;
+import springDB.jdbc.context.TxContextTemplate;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 요청 실행 방식 x transaction context 모드별 이체 1건당 처리량 / 할당량(gc.alloc.rate.norm)
+ * - executor
+ *   - platformPool : 고정 크기 platform thread pool (thread 재사용 -> ThreadLocal map도 재사용)
+ *   - threadPerRequest : 요청마다 새 platform thread
+ *   - virtual : 요청마다 virtual thread - JDK 21 이상 필요, 기본 @Param에서 제외 (opt-in)
+ *     ./gradlew jmh -Pjmh.includes=TxContextBenchmark -Pjmh.benchmarkParameters=executor=platformPool,threadPerRequest,virtual
+ * - mode : THREAD_LOCAL(TransactionSynchronizationManager) / EXPLICIT(TxContext 전달)
+ * + 한 번의 호출에서 REQUESTS건을 동시에 제출 -> 결과는 요청 1건 기준 (@OperationsPerInvocation)
+ * + 요청마다 서로 다른 계좌 쌍을 사용해서 row lock 경합은 제외
+ *
+ * 실행 : ./gradlew jmh -Pjmh.includes=TxContextBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TxContextBenchmark {
+
+    private static final int REQUESTS = 256;
+    private static final int PLATFORM_THREADS = 32;
+    private static final int POOL_SIZE = 16;
+
+    // * "virtual"은 JDK 21 이상에서 jmh.benchmarkParameters로 지정할 때만 실행
+    @Param({"platformPool", "threadPerRequest"})
+    public String executor;
+
+    @Param({"THREAD_LOCAL", "EXPLICIT"})
+    public TxContextMode mode;
+
+    private HikariDataSource ds;
+    private ExecutorService executorService;
+    private ContextMemberService memberService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty(H2_MODE_PROPERTY, "mem");
+        ConnectionConst.bindMemSchema("bench_txContext_" + executor + "_" + mode);
+
+        ds = (HikariDataSource) RepositoryBenchmark.createDataSource("hikari");
+        ds.setMaximumPoolSize(POOL_SIZE);
+        new SchemaInitializer(ds).initialize();
+        JdbcTemplate template = new JdbcTemplate(ds);
+        template.update("delete from member");
+        for (int i = 0; i < REQUESTS * 2; i++) {
+            template.update("insert into member(member_id, money) values(?, ?)", "m" + i, 1_000_000);
+        }
+
+        executorService = createExecutor(executor);
+        memberService = new ContextMemberService(new ContextMemberRepository(ds), new TxContextTemplate(ds, mode));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorService.shutdown();
+        ds.close();
+        ConnectionConst.clearMemSchema();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void transfer() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            String fromId = "m" + (2 * i);
+            String toId = "m" + (2 * i + 1);
+            futures[i] = CompletableFuture.runAsync(() -> memberService.accountTransfer(fromId, toId, 1), executorService);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static ExecutorService createExecutor(String type) {
+        return switch (type) {
+            case "platformPool" -> Executors.newFixedThreadPool(PLATFORM_THREADS);
+            // keepAlive 0 - 작업이 끝난 thread는 바로 종료되므로 요청마다 새 thread
+            case "threadPerRequest" -> new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS,
+                    new SynchronousQueue<>());
+            case "virtual" -> virtualThreadExecutor();
+            default -> throw new IllegalArgumentException("unknown executor = " + type);
+        };
+    }
+
+    // * Java 17로 compile - JDK 21 이상에서 실행할 때만 reflection으로 virtual thread executor 생성
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("virtual threads require JDK 21+, running on "
+                    + Runtime.version(), e);
+        }
+    }
+}
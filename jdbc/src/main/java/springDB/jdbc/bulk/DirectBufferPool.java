@@ -0,0 +1,38 @@
+package springDB.jdbc.bulk;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 재사용하는 direct ByteBuffer pool
+ * - direct buffer는 생성 비용이 크고 GC 대상이 아니므로, 미리 만들어 두고 돌려씀
+ * - pool이 비어있으면 반환될 때까지 대기 -> 메모리 사용량 = 버퍼 크기 x 개수로 고정
+ */
+public class DirectBufferPool {
+
+    private final BlockingQueue<ByteBuffer> buffers;
+    private final int bufferSize;
+
+    public DirectBufferPool(int count, int bufferSize) {
+        this.buffers = new ArrayBlockingQueue<>(count);
+        this.bufferSize = bufferSize;
+        for (int i = 0; i < count; i++) {
+            buffers.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+
+    public ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer buffer = buffers.take();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffers.offer(buffer);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,36 @@
+package springDB.jdbc.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * export 결과 - row 수, 파일 크기, 처리 시간, row당 heap 할당량
+ */
+@Getter
+@ToString
+public class ExportReport {
+
+    private final long rows;
+    private final long bytes;
+    private final long elapsedMillis;
+    private final long allocatedBytes;
+
+    public ExportReport(long rows, long bytes, long elapsedMillis, long allocatedBytes) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedMillis = elapsedMillis;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+
+    // 측정할 수 없는 JVM이면 음수
+    public double allocatedBytesPerRow() {
+        if (allocatedBytes < 0) {
+            return -1;
+        }
+        return rows == 0 ? 0 : (double) allocatedBytes / rows;
+    }
+}
@@ -0,0 +1,30 @@
+package springDB.jdbc.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * import 결과 - 저장된 row 수, 중복으로 건너뛴 row 수, chunk 수, 처리 시간
+ */
+@Getter
+@ToString
+public class ImportReport {
+
+    private final long rows;
+    private final long duplicates;
+    private final int chunks;
+    private final int resumedChunks;
+    private final long elapsedMillis;
+
+    public ImportReport(long rows, long duplicates, int chunks, int resumedChunks, long elapsedMillis) {
+        this.rows = rows;
+        this.duplicates = duplicates;
+        this.chunks = chunks;
+        this.resumedChunks = resumedChunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+}
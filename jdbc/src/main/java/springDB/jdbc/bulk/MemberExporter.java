@@ -0,0 +1,234 @@
+package springDB.jdbc.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import springDB.jdbc.repository.ex.MyDbException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * member 테이블 전체 export
+ * 1. fetchSize를 크게 잡은 forward-only cursor로 스트리밍 조회
+ * 2. 각 row를 Member 객체나 문자열 결합 없이 pool에서 빌린 direct ByteBuffer에 바로 인코딩
+ * 3. 버퍼가 GATHER_BUFFERS개 차면 FileChannel gather write 한 번으로 기록 후 pool에 반환
+ * + 포맷은 MemberImporter와 동일 -> export한 파일을 그대로 import 가능
+ *   (CSV : header + member_id,money / BINARY : 15 byte 고정 record)
+ */
+@Slf4j
+public class MemberExporter {
+
+    public static final int FETCH_SIZE = 10_000;
+    public static final int BUFFER_SIZE = 256 * 1024;
+    public static final int GATHER_BUFFERS = 4;
+
+    private static final byte[] CSV_HEADER = "member_id,money\n".getBytes(StandardCharsets.US_ASCII);
+
+    // row 하나의 최대 크기 - CSV 기준 id 10 + ',' + int 11 + '\n'
+    private static final int MAX_ROW_BYTES = 32;
+
+    private final DataSource dataSource;
+    private final DirectBufferPool bufferPool;
+
+    public MemberExporter(DataSource dataSource) {
+        this(dataSource, new DirectBufferPool(GATHER_BUFFERS * 2, BUFFER_SIZE));
+    }
+
+    public MemberExporter(DataSource dataSource, DirectBufferPool bufferPool) {
+        this.dataSource = dataSource;
+        this.bufferPool = bufferPool;
+    }
+
+    public ExportReport export(Path target, MemberImporter.Format format) throws IOException, InterruptedException {
+        long startedAt = System.currentTimeMillis();
+        long allocatedBefore = allocatedBytes();
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        GatherWriter writer = null;
+
+        try (FileChannel channel = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            con = dataSource.getConnection();
+            // * cursor 유지를 위해 하나의 transaction 안에서 읽음
+            con.setAutoCommit(false);
+            con.setReadOnly(true);
+
+            pstmt = con.prepareStatement("select member_id, money from member",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(FETCH_SIZE);
+            rs = pstmt.executeQuery();
+
+            writer = new GatherWriter(channel);
+            if (format == MemberImporter.Format.CSV) {
+                writer.current().put(CSV_HEADER);
+            }
+
+            long rows = 0;
+            while (rs.next()) {
+                ByteBuffer buffer = writer.ensure(MAX_ROW_BYTES);
+                String memberId = rs.getString(1);
+                int money = rs.getInt(2);
+
+                if (format == MemberImporter.Format.CSV) {
+                    putAscii(buffer, memberId);
+                    buffer.put((byte) ',');
+                    putInt(buffer, money);
+                    buffer.put((byte) '\n');
+                } else {
+                    buffer.put((byte) memberId.length());
+                    putAscii(buffer, memberId);
+                    for (int i = memberId.length(); i < 10; i++) {
+                        buffer.put((byte) 0);
+                    }
+                    buffer.putInt(money);
+                }
+                rows++;
+            }
+            long bytes = writer.finish();
+            con.commit();
+
+            long allocatedAfter = allocatedBytes();
+            ExportReport report = new ExportReport(rows, bytes, System.currentTimeMillis() - startedAt,
+                    allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+            log.info("export report = {}, rows/s = {}, allocated bytes/row = {}",
+                    report, report.rowsPerSecond(), report.allocatedBytesPerRow());
+            return report;
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            if (writer != null) {
+                writer.releaseAll();
+            }
+            JdbcUtils.closeResultSet(rs);
+            JdbcUtils.closeStatement(pstmt);
+            release(con);
+        }
+    }
+
+    private void putAscii(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+
+    // * Integer.toString() 없이 자릿수를 직접 기록
+    private void putInt(ByteBuffer buffer, int value) {
+        if (value == Integer.MIN_VALUE) {
+            putAscii(buffer, "-2147483648");
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    // 현재 thread가 지금까지 할당한 heap byte - 지원하지 않으면 -1
+    private long allocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean sunThreadMXBean
+                && sunThreadMXBean.isThreadAllocatedMemorySupported()) {
+            return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private void release(Connection con) {
+        if (con == null) {
+            return;
+        }
+        try {
+            con.rollback();
+            con.setReadOnly(false);
+            con.setAutoCommit(true);
+            con.close();
+        } catch (Exception e) {
+            log.info("error", e);
+        }
+    }
+
+    // * 채워진 버퍼를 모아두었다가 gather write
+    private class GatherWriter {
+        private final FileChannel channel;
+        private final ByteBuffer[] pending = new ByteBuffer[GATHER_BUFFERS];
+        private int pendingCount;
+        private ByteBuffer current;
+        private long written;
+
+        GatherWriter(FileChannel channel) throws InterruptedException {
+            this.channel = channel;
+            this.current = bufferPool.acquire();
+        }
+
+        ByteBuffer current() {
+            return current;
+        }
+
+        ByteBuffer ensure(int bytes) throws IOException, InterruptedException {
+            if (current.remaining() < bytes) {
+                pending[pendingCount++] = current;
+                if (pendingCount == GATHER_BUFFERS) {
+                    flush();
+                }
+                current = bufferPool.acquire();
+            }
+            return current;
+        }
+
+        long finish() throws IOException {
+            pending[pendingCount++] = current;
+            current = null;
+            flush();
+            return written;
+        }
+
+        // * 실패 시에도 빌린 버퍼는 모두 pool에 반환
+        void releaseAll() {
+            for (int i = 0; i < pendingCount; i++) {
+                bufferPool.release(pending[i]);
+                pending[i] = null;
+            }
+            pendingCount = 0;
+            if (current != null) {
+                bufferPool.release(current);
+                current = null;
+            }
+        }
+
+        private void flush() throws IOException {
+            for (int i = 0; i < pendingCount; i++) {
+                pending[i].flip();
+            }
+            while (pending[pendingCount - 1].hasRemaining()) {
+                written += channel.write(pending, 0, pendingCount);
+            }
+            for (int i = 0; i < pendingCount; i++) {
+                bufferPool.release(pending[i]);
+                pending[i] = null;
+            }
+            pendingCount = 0;
+        }
+    }
+}
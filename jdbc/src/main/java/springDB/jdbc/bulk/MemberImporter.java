@@ -0,0 +1,383 @@
+package springDB.jdbc.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import springDB.jdbc.repository.ex.MyDbException;
+import springDB.jdbc.repository.ex.MyDuplicateKeyException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 대량 회원 import
+ * 1. 파일을 chunk(byte 구간) 단위로 나눔 - CSV는 줄바꿈, BINARY는 record 경계에 맞춤
+ * 2. chunk마다 NIO로 읽어서 파싱 -> 한 번에 메모리에 올라가는 양은 chunk 크기 x 병렬도
+ * 3. 병렬도만큼의 thread가 각자 pool에서 con을 얻어 JDBC batch insert
+ * 4. chunk 데이터와 import_progress 기록을 같은 transaction으로 commit -> 재시작 시 이어서 진행
+ * + 중복 member_id - batch 실패 시 해당 chunk만 row 단위로 다시 저장하면서
+ *   MyDuplicateKeyException으로 변환된 row는 건너뛰고 개수만 집계 (전체 import는 계속 진행)
+ *
+ * CSV : member_id,money (첫 줄이 member_id로 시작하면 header로 간주)
+ * BINARY : 15 byte 고정 record = id 길이(1) + id(10, ASCII) + money(4, big-endian)
+ */
+@Slf4j
+public class MemberImporter {
+
+    public enum Format {CSV, BINARY}
+
+    public static final int BINARY_RECORD_SIZE = 15;
+    public static final int DEFAULT_CHUNK_BYTES = 4 << 20;
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    // H2 primary key 중복
+    private static final int DUPLICATE_KEY_ERROR_CODE = 23505;
+
+    private static final String INSERT_SQL = "insert into member(member_id, money) values(?, ?)";
+
+    private final DataSource dataSource;
+    private final int parallelism;
+    private final int chunkBytes;
+    private final int batchSize;
+
+    public MemberImporter(DataSource dataSource, int parallelism) {
+        this(dataSource, parallelism, DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberImporter(DataSource dataSource, int parallelism, int chunkBytes, int batchSize) {
+        this.dataSource = dataSource;
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importFile(Path file, Format format) throws IOException, InterruptedException {
+        long startedAt = System.currentTimeMillis();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<long[]> chunks = split(channel, format);
+            String fileKey = file.getFileName() + ":" + channel.size() + ":" + chunkBytes;
+            Set<Integer> done = completedChunks(fileKey);
+
+            AtomicLong rows = new AtomicLong();
+            AtomicLong duplicates = new AtomicLong();
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < chunks.size(); i++) {
+                    if (done.contains(i)) {
+                        continue;
+                    }
+                    int chunkIndex = i;
+                    long[] range = chunks.get(i);
+                    futures.add(executor.submit(() -> {
+                        ChunkResult result = importChunk(channel, format, fileKey, chunkIndex, range[0], range[1]);
+                        rows.addAndGet(result.rows);
+                        duplicates.addAndGet(result.duplicates);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                // 실패한 chunk는 commit되지 않았으므로 다시 실행하면 그 chunk부터 이어서 진행
+                throw new MyDbException("import 실패 - 재실행 시 commit된 chunk 이후부터 진행", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+
+            ImportReport report = new ImportReport(rows.get(), duplicates.get(), chunks.size(), done.size(),
+                    System.currentTimeMillis() - startedAt);
+            log.info("import report = {}, rows/s = {}", report, report.rowsPerSecond());
+            return report;
+        }
+    }
+
+    // * chunk 경계 계산 - [start, end) 목록
+    private List<long[]> split(FileChannel channel, Format format) throws IOException {
+        long size = channel.size();
+        List<long[]> chunks = new ArrayList<>();
+
+        long start = format == Format.CSV ? skipHeader(channel) : 0;
+        while (start < size) {
+            long end;
+            if (format == Format.BINARY) {
+                long records = Math.max(1, chunkBytes / BINARY_RECORD_SIZE);
+                end = Math.min(size, start + records * BINARY_RECORD_SIZE);
+            } else {
+                end = nextLineStart(channel, Math.min(size, start + chunkBytes), size);
+            }
+            chunks.add(new long[]{start, end});
+            start = end;
+        }
+        return chunks;
+    }
+
+    private long skipHeader(FileChannel channel) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(9);
+        channel.read(head, 0);
+        if (new String(head.array(), 0, head.position(), StandardCharsets.US_ASCII).equals("member_id")) {
+            return nextLineStart(channel, 0, channel.size());
+        }
+        return 0;
+    }
+
+    // position 이후 첫 줄바꿈 다음 위치
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(256);
+        long offset = position;
+        while (offset < size) {
+            window.clear();
+            int read = channel.read(window, offset);
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private ChunkResult importChunk(FileChannel channel, Format format, String fileKey, int chunkIndex,
+                                    long start, long end) throws IOException, SQLException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+
+        List<String> ids = new ArrayList<>();
+        int[] moneys = format == Format.CSV ? parseCsv(buffer, ids) : parseBinary(buffer, ids);
+
+        Connection con = dataSource.getConnection();
+        try {
+            con.setAutoCommit(false);
+
+            ChunkResult result;
+            try {
+                result = new ChunkResult(insertBatch(con, ids, moneys), 0);
+            } catch (SQLException e) {
+                if (!isDuplicateKey(e)) {
+                    throw e;
+                }
+                // * 중복이 있는 chunk - rollback 후 row 단위로 다시 저장
+                con.rollback();
+                result = insertRowByRow(con, ids, moneys);
+            }
+
+            markDone(con, fileKey, chunkIndex, result);
+            con.commit();
+            log.debug("chunk {} committed. rows = {}, duplicates = {}", chunkIndex, result.rows, result.duplicates);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            release(con);
+        }
+    }
+
+    private int insertBatch(Connection con, List<String> ids, int[] moneys) throws SQLException {
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = con.prepareStatement(INSERT_SQL);
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setString(1, ids.get(i));
+                pstmt.setInt(2, moneys[i]);
+                pstmt.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+            return ids.size();
+        } finally {
+            JdbcUtils.closeStatement(pstmt);
+        }
+    }
+
+    private ChunkResult insertRowByRow(Connection con, List<String> ids, int[] moneys) throws SQLException {
+        int rows = 0;
+        int duplicates = 0;
+
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = con.prepareStatement(INSERT_SQL);
+            for (int i = 0; i < ids.size(); i++) {
+                Savepoint savepoint = con.setSavepoint();
+                try {
+                    insertRow(pstmt, ids.get(i), moneys[i]);
+                    con.releaseSavepoint(savepoint);
+                    rows++;
+                } catch (MyDuplicateKeyException e) {
+                    con.rollback(savepoint);
+                    duplicates++;
+                    log.debug("duplicate memberId = {}", ids.get(i));
+                }
+            }
+        } finally {
+            JdbcUtils.closeStatement(pstmt);
+        }
+        return new ChunkResult(rows, duplicates);
+    }
+
+    // * ExTranslatorV1Test의 Repository처럼 errorCode로 직접 정의한 예외로 변환
+    private void insertRow(PreparedStatement pstmt, String memberId, int money) throws SQLException {
+        try {
+            pstmt.setString(1, memberId);
+            pstmt.setInt(2, money);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            if (isDuplicateKey(e)) {
+                throw new MyDuplicateKeyException(e);
+            }
+            throw e;
+        }
+    }
+
+    private boolean isDuplicateKey(SQLException e) {
+        for (SQLException cause = e; cause != null; cause = cause.getNextException()) {
+            if (cause.getErrorCode() == DUPLICATE_KEY_ERROR_CODE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markDone(Connection con, String fileKey, int chunkIndex, ChunkResult result) throws SQLException {
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = con.prepareStatement(
+                    "insert into import_progress(file_key, chunk_index, row_count, duplicate_count) values(?, ?, ?, ?)");
+            pstmt.setString(1, fileKey);
+            pstmt.setInt(2, chunkIndex);
+            pstmt.setInt(3, result.rows);
+            pstmt.setInt(4, result.duplicates);
+            pstmt.executeUpdate();
+        } finally {
+            JdbcUtils.closeStatement(pstmt);
+        }
+    }
+
+    private Set<Integer> completedChunks(String fileKey) {
+        Set<Integer> done = new HashSet<>();
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = dataSource.getConnection();
+            pstmt = con.prepareStatement("select chunk_index from import_progress where file_key = ?");
+            pstmt.setString(1, fileKey);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                done.add(rs.getInt(1));
+            }
+            return done;
+        } catch (SQLException e) {
+            throw new MyDbException(e);
+        } finally {
+            JdbcUtils.closeResultSet(rs);
+            JdbcUtils.closeStatement(pstmt);
+            JdbcUtils.closeConnection(con);
+        }
+    }
+
+    // * member_id,money 한 줄씩 - money는 byte에서 직접 숫자로 변환
+    private int[] parseCsv(ByteBuffer buffer, List<String> ids) {
+        int[] moneys = new int[64];
+        int count = 0;
+        byte[] bytes = buffer.array();
+        int limit = buffer.limit();
+
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int comma = -1;
+            int lineEnd = lineStart;
+            while (lineEnd < limit && bytes[lineEnd] != '\n') {
+                if (bytes[lineEnd] == ',' && comma < 0) {
+                    comma = lineEnd;
+                }
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+
+            if (contentEnd > lineStart) {
+                if (comma < 0) {
+                    throw new IllegalArgumentException("잘못된 CSV 형식 = "
+                            + new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8));
+                }
+                if (count == moneys.length) {
+                    moneys = Arrays.copyOf(moneys, count * 2);
+                }
+                ids.add(new String(bytes, lineStart, comma - lineStart, StandardCharsets.UTF_8));
+                moneys[count++] = parseInt(bytes, comma + 1, contentEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return Arrays.copyOf(moneys, count);
+    }
+
+    private int[] parseBinary(ByteBuffer buffer, List<String> ids) {
+        int records = buffer.remaining() / BINARY_RECORD_SIZE;
+        int[] moneys = new int[records];
+        byte[] bytes = buffer.array();
+
+        for (int i = 0; i < records; i++) {
+            int offset = i * BINARY_RECORD_SIZE;
+            int length = bytes[offset];
+            ids.add(new String(bytes, offset + 1, length, StandardCharsets.US_ASCII));
+            moneys[i] = buffer.getInt(offset + 11);
+        }
+        return moneys;
+    }
+
+    private int parseInt(byte[] bytes, int from, int to) {
+        boolean negative = bytes[from] == '-';
+        int value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("잘못된 money 형식 = " + new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), digit);
+        }
+        return negative ? -value : value;
+    }
+
+    // * MemberServiceV2.release()와 동일 - pool에 반환하기 전 autoCommit 복구
+    private void release(Connection con) {
+        try {
+            con.setAutoCommit(true);
+            con.close();
+        } catch (Exception e) {
+            log.info("error", e);
+        }
+    }
+
+    private static class ChunkResult {
+        private final int rows;
+        private final int duplicates;
+
+        ChunkResult(int rows, int duplicates) {
+            this.rows = rows;
+            this.duplicates = duplicates;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package springDB.jdbc.change;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRangeRepository;
+import springDB.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * member 변경 시 member_changes에 이력을 남기는 Repository (Decorator)
+ * - 변경과 이력 기록을 같은 transaction으로 처리 -> rollback되면 이력도 남지 않음
+ * - 이미 transaction이 있으면 참여, 없으면 메서드 단위로 새 transaction
+ */
+@Slf4j
+public class ChangeCapturingMemberRepository implements MemberRangeRepository {
+
+    private static final String INSERT_CHANGE_SQL =
+            "insert into member_changes(member_id, op, money, changed_at) values(?, ?, ?, ?)";
+
+    private final MemberRangeRepository delegate;
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+
+    public ChangeCapturingMemberRepository(DataSource dataSource) {
+        this(new MemberRepositoryV5(dataSource), dataSource);
+    }
+
+    public ChangeCapturingMemberRepository(MemberRangeRepository delegate, DataSource dataSource) {
+        this.delegate = delegate;
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public Member save(Member member) {
+        return txTemplate.execute(status -> {
+            Member saved = delegate.save(member);
+            capture(member.getMemberId(), MemberChange.INSERT, member.getMoney());
+            return saved;
+        });
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        txTemplate.executeWithoutResult(status -> {
+            delegate.update(memberId, money);
+            capture(memberId, MemberChange.UPDATE, money);
+        });
+    }
+
+    @Override
+    public void delete(String memberId) {
+        txTemplate.executeWithoutResult(status -> {
+            delegate.delete(memberId);
+            capture(memberId, MemberChange.DELETE, null);
+        });
+    }
+
+    @Override
+    public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+        return delegate.findByMoneyBetween(min, max, after, limit);
+    }
+
+    @Override
+    public Stream<Member> streamByMoneyBetween(int min, int max) {
+        return delegate.streamByMoneyBetween(min, max);
+    }
+
+    private void capture(String memberId, char op, Integer money) {
+        template.update(INSERT_CHANGE_SQL, memberId, String.valueOf(op), money, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,98 @@
+package springDB.jdbc.change;
+
+import lombok.extern.slf4j.Slf4j;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+
+/**
+ * JVM 로컬 member cache - change feed를 구독해서 변경된 member를 무효화
+ * 1. findById : cache hit이면 DB 조회 없이 반환, miss면 delegate 조회 후 저장
+ * 2. onNext : 변경된 memberId를 cache에서 제거 -> 다음 조회에서 최신 값을 다시 읽음
+ * 3. 무효화 지연(invalidation lag) = 무효화 시각 - 변경 기록 시각, 최근 LAG_SAMPLES개를 보관해서 백분위 계산
+ * + request(1)씩 요청 -> 처리한 만큼만 받음 (poller 쪽 buffer가 차면 poller가 대기)
+ */
+@Slf4j
+public class InvalidatingMemberCache implements Flow.Subscriber<List<MemberChange>> {
+
+    private static final int LAG_SAMPLES = 1 << 16;
+
+    private final MemberRepository delegate;
+    private final Map<String, Member> cache = new ConcurrentHashMap<>();
+
+    private final long[] lagMillis = new long[LAG_SAMPLES];
+    private long lagCount;
+    private long invalidations;
+
+    private Flow.Subscription subscription;
+
+    public InvalidatingMemberCache(MemberRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    public Member findById(String memberId) {
+        return cache.computeIfAbsent(memberId, delegate::findById);
+    }
+
+    public boolean isCached(String memberId) {
+        return cache.containsKey(memberId);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<MemberChange> changes) {
+        long now = System.currentTimeMillis();
+        for (MemberChange change : changes) {
+            cache.remove(change.getMemberId());
+            recordLag(now - change.getChangedAt());
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // * 변경을 놓쳤을 수 있음 -> 전부 비워서 stale 데이터를 반환하지 않도록
+        log.error("member change feed failed, clear cache", throwable);
+        cache.clear();
+    }
+
+    @Override
+    public void onComplete() {
+        log.info("member change feed completed. invalidations = {}", invalidations());
+    }
+
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    // * p : 0.5, 0.99 ... 최근 LAG_SAMPLES개 기준
+    public long lagPercentileMillis(double p) {
+        long[] sorted;
+        synchronized (this) {
+            int size = (int) Math.min(lagCount, LAG_SAMPLES);
+            sorted = Arrays.copyOf(lagMillis, size);
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private synchronized void recordLag(long lag) {
+        lagMillis[(int) (lagCount % LAG_SAMPLES)] = Math.max(0, lag);
+        lagCount++;
+        invalidations++;
+    }
+}
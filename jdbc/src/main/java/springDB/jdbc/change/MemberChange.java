@@ -0,0 +1,33 @@
+package springDB.jdbc.change;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * member 변경 이벤트 - member_changes의 row 하나
+ * op : I(save), U(update), D(delete)
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class MemberChange {
+
+    public static final char INSERT = 'I';
+    public static final char UPDATE = 'U';
+    public static final char DELETE = 'D';
+
+    private final long seq;
+    private final String memberId;
+    private final char op;
+    private final Integer money;
+    private final long changedAt;
+
+    public MemberChange(long seq, String memberId, char op, Integer money, long changedAt) {
+        this.seq = seq;
+        this.memberId = memberId;
+        this.op = op;
+        this.money = money;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,274 @@
+package springDB.jdbc.change;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * member_changes polling -> 구독자(in-process)에게 batch 단위로 전달
+ * 1. pollInterval마다 마지막으로 본 seq 이후의 변경을 batchSize만큼 읽음
+ * 2. 구독자별 buffer(bufferCapacity)가 가득 차면 submit()이 block -> polling 자체가 느려짐 (backpressure)
+ * 3. seq 구멍(gap) 처리
+ *    - identity는 insert 시점에 발급, 노출은 commit 시점 -> 작은 seq가 나중에 보일 수 있음
+ *    - 구멍은 gapTimeout 동안 다시 조회, 그래도 안 보이면 rollback된 것으로 보고 건너뜀
+ *    - 건너뛴 seq도 gapTimeout x LATE_FACTOR 동안은 계속 확인 -> 느린 transaction이 그 사이에 commit하면 늦게라도 전달
+ *      (lateChanges()로 집계 + 경고 log, 그보다 늦은 commit은 놓칠 수 있으므로 cache 전체 무효화 등으로 대응)
+ *    - 따라서 전달 순서는 seq 순서를 보장하지 않음 (cache 무효화처럼 멱등인 용도 전제)
+ * + watermark : 이 seq 이하는 모두 전달했거나 건너뛴 상태
+ * + purge는 아직 늦은 commit을 기다리는 seq 앞까지만 삭제
+ */
+@Slf4j
+public class MemberChangePoller implements Closeable {
+
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(100);
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final int DEFAULT_BUFFER_CAPACITY = Flow.defaultBufferSize();
+    public static final Duration DEFAULT_GAP_TIMEOUT = Duration.ofSeconds(5);
+
+    // * 한 번에 추적할 수 있는 최대 구멍 수 (identity cache 등으로 크게 건너뛴 경우 방어)
+    private static final int MAX_GAPS = 10_000;
+    private static final int GAP_QUERY_LIMIT = 1000;
+    // * 건너뛴 구멍을 계속 확인하는 기간 = gapTimeout x LATE_FACTOR
+    private static final int LATE_FACTOR = 12;
+
+    private static final String SELECT_SQL =
+            "select seq, member_id, op, money, changed_at from member_changes";
+
+    private final JdbcTemplate template;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final long gapTimeoutMillis;
+    private final long lateTimeoutMillis;
+
+    private final ExecutorService deliveryExecutor;
+    private final SubmissionPublisher<List<MemberChange>> publisher;
+    private final ScheduledExecutorService scheduler;
+
+    // * 아래 상태는 poll thread만 접근
+    private long highestSeen;
+    private final TreeMap<Long, Long> gaps = new TreeMap<>(); // seq -> 처음 발견한 시각
+    private final TreeMap<Long, Long> skipped = new TreeMap<>(); // seq -> 건너뛴 시각
+    private volatile long oldestSkipped = Long.MAX_VALUE;
+    private volatile long watermark;
+    private volatile long published;
+    private volatile long skippedGaps;
+    private volatile long lateChanges;
+
+    public MemberChangePoller(DataSource dataSource) {
+        this(dataSource, DEFAULT_POLL_INTERVAL, DEFAULT_BATCH_SIZE, DEFAULT_BUFFER_CAPACITY, DEFAULT_GAP_TIMEOUT);
+    }
+
+    public MemberChangePoller(DataSource dataSource, Duration pollInterval, int batchSize,
+                              int bufferCapacity, Duration gapTimeout) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.template = new JdbcTemplate(dataSource);
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.gapTimeoutMillis = gapTimeout.toMillis();
+        this.lateTimeoutMillis = gapTimeoutMillis * LATE_FACTOR;
+
+        // * 구독자마다 전달 thread가 필요 -> 구독자 수만큼 늘어나는 daemon pool
+        this.deliveryExecutor = Executors.newCachedThreadPool(r -> daemon(r, "member-change-delivery"));
+        this.publisher = new SubmissionPublisher<>(deliveryExecutor, bufferCapacity);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "member-change-poller"));
+    }
+
+    public void subscribe(Flow.Subscriber<List<MemberChange>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    // * 이미 쌓여 있는 변경은 건너뛰고 지금부터의 변경만 전달
+    public void startFromLatest() {
+        Long max = template.queryForObject("select coalesce(max(seq), 0) from member_changes", Long.class);
+        start(max == null ? 0 : max);
+    }
+
+    public void start(long fromSequence) {
+        highestSeen = fromSequence;
+        watermark = fromSequence;
+        long millis = pollInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::pollSafely, 0, millis, TimeUnit.MILLISECONDS);
+        log.info("member change poller started. from = {}, interval = {}ms, batchSize = {}",
+                fromSequence, millis, batchSize);
+    }
+
+    // * 한 번 polling - 전달한 변경 수 반환 (start() 없이 수동으로 구동할 때 사용)
+    public synchronized int poll() {
+        long now = System.currentTimeMillis();
+        int delivered = retryGaps(now);
+        delivered += retryLate(now);
+
+        List<MemberChange> changes = template.query(
+                SELECT_SQL + " where seq > ? order by seq limit ?", changeRowMapper(), highestSeen, batchSize);
+        for (MemberChange change : changes) {
+            trackGaps(change.getSeq(), now);
+            highestSeen = change.getSeq();
+        }
+        delivered += deliver(changes);
+
+        watermark = gaps.isEmpty() ? highestSeen : gaps.firstKey() - 1;
+        return delivered;
+    }
+
+    // * watermark 이하의 이력 삭제 - 이미 모든 구독자에게 전달된 구간만 정리
+    public int purge(long upToSequence) {
+        long limit = Math.min(Math.min(upToSequence, watermark), oldestSkipped - 1);
+        return template.update("delete from member_changes where seq <= ?", limit);
+    }
+
+    public long watermark() {
+        return watermark;
+    }
+
+    public long published() {
+        return published;
+    }
+
+    public long skippedGaps() {
+        return skippedGaps;
+    }
+
+    // * 건너뛴 뒤에 commit되어 늦게 전달된 변경 수 - 0이 아니면 gapTimeout이 가장 긴 transaction보다 짧음
+    public long lateChanges() {
+        return lateChanges;
+    }
+
+    // * 구독자 중 가장 밀린 buffer 크기 - backpressure 상태 모니터링용
+    public int maxLag() {
+        return publisher.estimateMaximumLag();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        publisher.close();
+        deliveryExecutor.shutdown();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            // * 예외가 밖으로 나가면 scheduler가 이후 실행을 멈춤 -> 다음 주기에 재시도
+            log.warn("member change poll failed", e);
+        }
+    }
+
+    private int retryGaps(long now) {
+        if (gaps.isEmpty()) {
+            return 0;
+        }
+        String in = gaps.keySet().stream()
+                .limit(GAP_QUERY_LIMIT)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        List<MemberChange> found = template.query(
+                SELECT_SQL + " where seq in (" + in + ") order by seq", changeRowMapper());
+        found.forEach(change -> gaps.remove(change.getSeq()));
+
+        // * 오래된 구멍은 rollback된 transaction으로 간주
+        var iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Long> gap = iterator.next();
+            if (now - gap.getValue() < gapTimeoutMillis) {
+                continue;
+            }
+            iterator.remove();
+            skippedGaps++;
+            skipped.put(gap.getKey(), now);
+            log.debug("skip member change gap. seq = {}", gap.getKey());
+        }
+        return deliver(found);
+    }
+
+    // * 건너뛴 구멍이 나중에 commit된 경우 - 늦게라도 전달
+    private int retryLate(long now) {
+        if (skipped.isEmpty()) {
+            return 0;
+        }
+        String in = skipped.keySet().stream()
+                .limit(GAP_QUERY_LIMIT)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        List<MemberChange> found = template.query(
+                SELECT_SQL + " where seq in (" + in + ") order by seq", changeRowMapper());
+        for (MemberChange change : found) {
+            skipped.remove(change.getSeq());
+            lateChanges++;
+            log.warn("member change committed after gapTimeout. seq = {}, memberId = {}",
+                    change.getSeq(), change.getMemberId());
+        }
+
+        skipped.values().removeIf(skippedAt -> now - skippedAt >= lateTimeoutMillis);
+        while (skipped.size() > MAX_GAPS) {
+            skipped.pollFirstEntry();
+        }
+        oldestSkipped = skipped.isEmpty() ? Long.MAX_VALUE : skipped.firstKey();
+        return deliver(found);
+    }
+
+    private void trackGaps(long seq, long now) {
+        long missing = seq - highestSeen - 1;
+        if (missing <= 0) {
+            return;
+        }
+        if (gaps.size() + missing > MAX_GAPS) {
+            log.warn("too many member change gaps, skip. from = {}, to = {}", highestSeen + 1, seq - 1);
+            skippedGaps += missing;
+            return;
+        }
+        for (long s = highestSeen + 1; s < seq; s++) {
+            gaps.put(s, now);
+        }
+    }
+
+    private int deliver(List<MemberChange> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        // * 구독자 buffer가 가득 차면 여기서 block
+        publisher.submit(List.copyOf(changes));
+        published += changes.size();
+        return changes.size();
+    }
+
+    private RowMapper<MemberChange> changeRowMapper() {
+        return (rs, rowNum) -> {
+            int money = rs.getInt("money");
+            Integer nullableMoney = rs.wasNull() ? null : money; // * delete는 money가 null
+            return new MemberChange(
+                    rs.getLong("seq"),
+                    rs.getString("member_id"),
+                    rs.getString("op").charAt(0),
+                    nullableMoney,
+                    rs.getLong("changed_at"));
+        };
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
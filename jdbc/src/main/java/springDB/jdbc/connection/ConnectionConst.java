@@ -4,4 +4,44 @@ public abstract class ConnectionConst { //추상클래스로 객체 생성 방
     public static final String URL = "jdbc:h2:tcp://localhost/~/test2";
     public static final String USERNAME = "sa";
     public static final String PASSWORD = "";
+
+    // * H2 실행 모드 - 기본값 tcp (외부 H2 서버)
+    // + -Dspringdb.h2.mode=mem 일 경우, 외부 서버 없이 in-process 메모리 DB 사용
+    public static final String H2_MODE_PROPERTY = "springdb.h2.mode";
+    public static final String MEM_URL_PREFIX = "jdbc:h2:mem:";
+    public static final String MEM_URL_OPTIONS = ";DB_CLOSE_DELAY=-1";
+
+    public static final String DEFAULT_MEM_SCHEMA = "test2";
+
+    // * url()이 사용할 mem DB 이름 - 한 process에서 순서대로 실행하는 도구(benchmark 등)용
+    // + thread에 묶지 않음 -> 병렬 테스트는 url(Class)로 클래스별 DB를 직접 지정
+    private static volatile String defaultMemSchema = DEFAULT_MEM_SCHEMA;
+
+    public static boolean isMemMode() {
+        return "mem".equals(System.getProperty(H2_MODE_PROPERTY));
+    }
+
+    public static String url() {
+        return url(defaultMemSchema);
+    }
+
+    // * mem 모드에서 owner 클래스 전용 DB - 테스트 클래스마다 별도의 DB (tcp 모드는 URL 그대로)
+    public static String url(Class<?> owner) {
+        return url(owner.getSimpleName());
+    }
+
+    public static String url(String memSchema) {
+        if (!isMemMode()) {
+            return URL;
+        }
+        return MEM_URL_PREFIX + memSchema + MEM_URL_OPTIONS;
+    }
+
+    public static void bindMemSchema(String schema) {
+        defaultMemSchema = schema;
+    }
+
+    public static void clearMemSchema() {
+        defaultMemSchema = DEFAULT_MEM_SCHEMA;
+    }
 }
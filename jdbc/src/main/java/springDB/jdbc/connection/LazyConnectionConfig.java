@@ -0,0 +1,43 @@
+package springDB.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * transaction 안의 con 획득을 첫 statement 실행 시점으로 미루는 모드
+ * - springdb.datasource.lazy-connection=true 이면 Hikari pool 위에 LazyConnectionDataSourceProxy를 @Primary로 등록
+ *   -> DataSource를 주입받는 TransactionManager, Repository 모두 같은 proxy를 받음 (같은 con을 공유하려면 필수)
+ *   -> pool은 hikariDataSource bean으로 그대로 남음 - 종료 시 close, HikariDataSource 타입 주입 / MXBean 조회 가능
+ * - @Transactional 진입 시에는 proxy con만 받고, autoCommit / readOnly / 격리수준 설정은 proxy가 기억
+ *   -> 첫 statement 실행 시점에 pool에서 실제 con을 꺼내고 기억한 설정을 적용 (기본값과 같은 설정은 생략)
+ * - 검증 실패, cache hit 등으로 SQL을 실행하지 않은 transaction은 pool의 con을 점유하지 않음
+ * + DataSource bean을 직접 등록하면 자동 등록이 빠지므로 Hikari pool도 여기서 spring.datasource.* 설정으로 생성
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "springdb.datasource.lazy-connection", havingValue = "true")
+public class LazyConnectionConfig {
+
+    // * 자동 등록과 같은 방식 - spring.datasource.url 등 + spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource hikariDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource hikariDataSource) {
+        log.info("lazy connection mode. dataSource = {}", hikariDataSource);
+        return new LazyConnectionDataSourceProxy(hikariDataSource);
+    }
+}
@@ -0,0 +1,78 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * readOnly transaction용 TransactionManager
+ * 1. readOnly + 격리수준 DEFAULT인 transaction은 readIsolation으로 낮춰서 시작
+ *    - 단, con의 기본 격리수준이 이미 readIsolation 이하면 그대로 둠 -> 불필요한 set / reset 호출 없음
+ * 2. DataSource는 LazyConnectionDataSourceProxy로 감싼 것을 사용
+ *    - setReadOnly / setTransactionIsolation을 proxy가 기억해두었다가 첫 statement 실행 시점에만 적용
+ *    - 기본값과 같은 설정은 적용하지 않고, statement 없이 끝난 transaction은 con을 아예 획득하지 않음
+ *    - Repository도 같은 proxy를 사용해야 같은 con(transaction)을 공유
+ * + enforceReadOnly(SET TRANSACTION READ ONLY)는 statement 1회가 추가되므로 사용하지 않음 -> con.setReadOnly()만 전달
+ * + ReplicationRoutingDataSource.lazy()와 함께 사용하면 readOnly transaction은 replica로 라우팅
+ */
+@Slf4j
+public class ReadOnlyAwareTransactionManager extends DataSourceTransactionManager {
+
+    private final int readIsolation;
+    private volatile Integer defaultIsolation;
+
+    public ReadOnlyAwareTransactionManager(DataSource dataSource) {
+        this(dataSource, Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    public ReadOnlyAwareTransactionManager(DataSource dataSource, int readIsolation) {
+        super(dataSource);
+        this.readIsolation = readIsolation;
+        if (!(dataSource instanceof LazyConnectionDataSourceProxy)) {
+            log.warn("dataSource is not lazy, readOnly / isolation flags are applied on every transaction. dataSource = {}",
+                    dataSource);
+        }
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, adjust(definition));
+    }
+
+    private TransactionDefinition adjust(TransactionDefinition definition) {
+        if (!definition.isReadOnly() || definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT) {
+            return definition;
+        }
+        if (defaultIsolation() <= readIsolation) {
+            return definition;
+        }
+        return new DelegatingTransactionDefinition(definition) {
+            @Override
+            public int getIsolationLevel() {
+                return readIsolation;
+            }
+        };
+    }
+
+    // * con의 기본 격리수준 - 최초 1회만 확인 (lazy proxy라면 proxy가 알고 있는 기본값)
+    private int defaultIsolation() {
+        Integer isolation = defaultIsolation;
+        if (isolation == null) {
+            try (Connection con = obtainDataSource().getConnection()) {
+                isolation = con.getTransactionIsolation();
+            } catch (SQLException e) {
+                throw new CannotGetJdbcConnectionException("Failed to read default isolation level", e);
+            }
+            defaultIsolation = isolation;
+            log.info("default isolation = {}, readIsolation = {}", isolation, readIsolation);
+        }
+        return isolation;
+    }
+}
@@ -0,0 +1,67 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read / Write 분리 - Primary, Replica DataSource 라우팅
+ * 1. @Transactional(readOnly = true) -> replica
+ * 2. 그 외(read-write transaction, transaction 밖의 조회 / 변경) -> primary
+ * + DataSource는 SQL을 보지 않으므로 transaction 밖에서는 조회인지 변경인지 알 수 없음
+ *   -> replica에서 읽으려면 조회를 readOnly transaction으로 감쌈 (MemberQueryService)
+ *   -> Repository는 lazy() 하나만 주입받고 replica를 직접 알지 않음
+ */
+@Slf4j
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    public ReplicationRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targetDataSources.put(REPLICA, replica);
+
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // *** 라우팅 결정 시점 = 실제 con 획득 시점
+    // + TransactionManager의 doBegin()은 readOnly 플래그를 동기화하기 '전에' con을 획득함
+    // -> 반드시 lazy()로 감싸서 첫 statement 실행 시점까지 con 획득을 미뤄야 readOnly 여부를 정확히 판단 가능
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            log.debug("route to {}", REPLICA);
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+
+    public DataSource primary() {
+        return primary;
+    }
+
+    public DataSource replica() {
+        return replica;
+    }
+
+    // * TransactionManager, Repository에는 이 proxy를 DataSource로 등록해서 사용
+    public DataSource lazy() {
+        return new LazyConnectionDataSourceProxy(this);
+    }
+}
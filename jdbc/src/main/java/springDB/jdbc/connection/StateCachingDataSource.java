@@ -0,0 +1,184 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * con 상태(autoCommit, readOnly, 격리수준, schema)를 기억해서 실제로 바뀌는 경우에만 driver로 전달
+ * - MemberServiceV2.release()의 setAutoCommit(true), TransactionManager의 autoCommit / readOnly / 격리수준 토글 등
+ *   이미 같은 값이면 driver 호출(= 서버 왕복)을 생략
+ * - get*()도 알고 있는 값이면 driver 호출 없이 반환
+ * - 모든 상태는 모르는 값으로 시작해서 처음 조회 / 설정 시점에 기억
+ *   (autoCommit도 포함 - pool이 auto-commit=false로 설정한 con을 넘겨줄 수 있음)
+ * + 사용 위치
+ *   - DriverManagerDataSource 위 : con마다 새로 기억
+ *   - HikariDataSource.setDataSource()로 pool 아래에 두면 물리 con의 수명 동안 기억 (pool 반환 시의 reset도 생략 대상)
+ * + SQL로 상태를 바꾸는 경우(SET ...) 기억한 값을 모두 버림
+ */
+@Slf4j
+public class StateCachingDataSource extends DelegatingDataSource {
+
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+
+    public StateCachingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // * driver로 전달한 상태 변경 / 조회 수
+    public long forwarded() {
+        return forwarded.sum();
+    }
+
+    // * 생략한 driver 호출 수
+    public long saved() {
+        return saved.sum();
+    }
+
+    // * autoCommit true -> false 전환 수 (= 시작된 transaction 수)
+    public long transactions() {
+        return transactions.sum();
+    }
+
+    public double savedPerTransaction() {
+        long count = transactions();
+        return count == 0 ? 0 : (double) saved() / count;
+    }
+
+    private Connection wrap(Connection con) {
+        ConnectionState state = new ConnectionState();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "setAutoCommit" -> {
+                        boolean autoCommit = (Boolean) args[0];
+                        if (!skip(state.autoCommit, autoCommit)) {
+                            if (!autoCommit) {
+                                transactions.increment();
+                            }
+                            state.autoCommit = null; // 실패하면 실제 상태를 알 수 없음
+                            invoke(con, method, args);
+                            state.autoCommit = autoCommit;
+                        }
+                        yield null;
+                    }
+                    case "getAutoCommit" -> state.autoCommit = get(con, method, state.autoCommit);
+                    case "setReadOnly" -> {
+                        boolean readOnly = (Boolean) args[0];
+                        if (!skip(state.readOnly, readOnly)) {
+                            state.readOnly = null;
+                            invoke(con, method, args);
+                            state.readOnly = readOnly;
+                        }
+                        yield null;
+                    }
+                    case "isReadOnly" -> state.readOnly = get(con, method, state.readOnly);
+                    case "setTransactionIsolation" -> {
+                        int isolation = (Integer) args[0];
+                        if (!skip(state.isolation, isolation)) {
+                            state.isolation = null;
+                            invoke(con, method, args);
+                            state.isolation = isolation;
+                        }
+                        yield null;
+                    }
+                    case "getTransactionIsolation" -> state.isolation = get(con, method, state.isolation);
+                    case "setSchema" -> {
+                        String schema = (String) args[0];
+                        if (!skip(state.schema, schema)) {
+                            state.schema = null;
+                            invoke(con, method, args);
+                            state.schema = schema;
+                        }
+                        yield null;
+                    }
+                    case "getSchema" -> state.schema = get(con, method, state.schema);
+                    case "prepareStatement", "prepareCall" -> {
+                        state.invalidateIfStateChange((String) args[0]);
+                        yield invoke(con, method, args);
+                    }
+                    case "createStatement" -> wrap((Statement) invoke(con, method, args), state);
+                    default -> invoke(con, method, args);
+                });
+    }
+
+    // * createStatement()는 SQL을 실행 시점에 받으므로 statement도 감싸서 확인
+    private Statement wrap(Statement statement, ConnectionState state) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute") || method.getName().equals("addBatch")) {
+                        if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                            state.invalidateIfStateChange(sql);
+                        }
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    // * 이미 같은 값이면 생략
+    private boolean skip(Object known, Object value) {
+        if (value != null && value.equals(known)) {
+            saved.increment();
+            return true;
+        }
+        forwarded.increment();
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Connection con, Method method, T known) throws Throwable {
+        if (known != null) {
+            saved.increment();
+            return known;
+        }
+        forwarded.increment();
+        return (T) invoke(con, method, null);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * con 하나의 알고 있는 상태 - null이면 모름 (다음 조회 / 설정은 driver로 전달)
+     */
+    private static class ConnectionState {
+
+        private Boolean autoCommit;
+        private Boolean readOnly;
+        private Integer isolation;
+        private String schema;
+
+        private void invalidateIfStateChange(String sql) {
+            if (sql.stripLeading().regionMatches(true, 0, "set ", 0, 4)) {
+                autoCommit = null;
+                readOnly = null;
+                isolation = null;
+                schema = null;
+            }
+        }
+    }
+}
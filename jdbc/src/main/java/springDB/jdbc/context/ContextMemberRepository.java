@@ -0,0 +1,138 @@
+package springDB.jdbc.context;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
+import org.springframework.jdbc.support.SQLExceptionTranslator;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+
+/**
+ * TxContext를 인자로 받는 Repository - MemberRepositoryV4_2와 같은 SQL / 예외 변환
+ * - con 조회 / 반환은 TxConnections -> context가 있으면 context의 con, 없으면 DataSourceUtils
+ * - MemberRepository 메서드는 context 없이(null) 호출 -> 기존 ThreadLocal 방식과 동일하게 동작
+ */
+@Slf4j
+public class ContextMemberRepository implements MemberRepository {
+
+    private final DataSource dataSource;
+    private final SQLExceptionTranslator exTranslator;
+
+    public ContextMemberRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.exTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
+    }
+
+    @Override
+    public Member save(Member member) {
+        return save(null, member);
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        return findById(null, memberId);
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        update(null, memberId, money);
+    }
+
+    @Override
+    public void delete(String memberId) {
+        delete(null, memberId);
+    }
+
+    public Member save(TxContext tx, Member member) {
+        String sql = "insert into member(member_id, money) values(?, ?)";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        try {
+            con = TxConnections.getConnection(dataSource, tx);
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, member.getMemberId());
+            pstmt.setInt(2, member.getMoney());
+            pstmt.executeUpdate();
+            return member;
+        } catch (SQLException e) {
+            throw exTranslator.translate("save", sql, e);
+        } finally {
+            close(tx, con, pstmt, null);
+        }
+    }
+
+    public Member findById(TxContext tx, String memberId) {
+        String sql = "select * from member where member_id = ?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            con = TxConnections.getConnection(dataSource, tx);
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, memberId);
+
+            rs = pstmt.executeQuery();
+            if (rs.next()) {
+                return new Member(rs.getString("member_id"), rs.getInt("money"));
+            }
+            throw new NoSuchElementException("member not found. memberId = " + memberId);
+        } catch (SQLException e) {
+            throw exTranslator.translate("findById", sql, e);
+        } finally {
+            close(tx, con, pstmt, rs);
+        }
+    }
+
+    public void update(TxContext tx, String memberId, int money) {
+        String sql = "update member set money=? where member_id=?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        try {
+            con = TxConnections.getConnection(dataSource, tx);
+            pstmt = con.prepareStatement(sql);
+            pstmt.setInt(1, money);
+            pstmt.setString(2, memberId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw exTranslator.translate("update", sql, e);
+        } finally {
+            close(tx, con, pstmt, null);
+        }
+    }
+
+    public void delete(TxContext tx, String memberId) {
+        String sql = "delete from member where member_id=?";
+
+        Connection con = null;
+        PreparedStatement pstmt = null;
+        try {
+            con = TxConnections.getConnection(dataSource, tx);
+            pstmt = con.prepareStatement(sql);
+            pstmt.setString(1, memberId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw exTranslator.translate("delete", sql, e);
+        } finally {
+            close(tx, con, pstmt, null);
+        }
+    }
+
+    private void close(TxContext tx, Connection con, Statement stmt, ResultSet rs) {
+        JdbcUtils.closeResultSet(rs);
+        JdbcUtils.closeStatement(stmt);
+        if (con != null) {
+            TxConnections.releaseConnection(con, dataSource, tx);
+        }
+    }
+}
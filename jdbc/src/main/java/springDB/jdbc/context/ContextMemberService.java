@@ -0,0 +1,42 @@
+package springDB.jdbc.context;
+
+import lombok.extern.slf4j.Slf4j;
+import springDB.jdbc.domain.Member;
+
+/**
+ * MemberServiceV4와 같은 이체 로직 - transaction context를 명시적으로 전달
+ * - TxContextTemplate의 모드에 따라 ThreadLocal 바인딩 / 명시적 context 중 하나로 실행
+ * - 하위 작업을 다른 thread에서 실행해도 tx를 넘기면 같은 transaction에 참여
+ */
+@Slf4j
+public class ContextMemberService {
+
+    private final ContextMemberRepository memberRepository;
+    private final TxContextTemplate txTemplate;
+
+    public ContextMemberService(ContextMemberRepository memberRepository, TxContextTemplate txTemplate) {
+        this.memberRepository = memberRepository;
+        this.txTemplate = txTemplate;
+    }
+
+    public void accountTransfer(String fromId, String toId, int money) {
+        txTemplate.executeWithoutResult(tx -> bizLogic(tx, fromId, toId, money));
+    }
+
+    private void bizLogic(TxContext tx, String fromId, String toId, int money) {
+        Member fromMember = memberRepository.findById(tx, fromId);
+        Member toMember = memberRepository.findById(tx, toId);
+
+        memberRepository.update(tx, fromId, fromMember.getMoney() - money);
+        validation(toMember);
+        memberRepository.update(tx, toId, toMember.getMoney() + money);
+    }
+
+    private void validation(Member toMember) {
+        //예시를 위한 고의적인 예외 발생
+        if (toMember.getMemberId().equals("ex")) {
+            log.info("validation error");
+            throw new IllegalStateException("이체중 예외 발생");
+        }
+    }
+}
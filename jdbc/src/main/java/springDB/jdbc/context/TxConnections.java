@@ -0,0 +1,36 @@
+package springDB.jdbc.context;
+
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSourceUtils와 같은 역할의 con 조회 / 반환 - TxContext를 먼저 확인
+ * - context가 해당 DataSource를 관리하면 context의 con (반환은 context가 담당)
+ * - context가 없으면(null) DataSourceUtils로 위임 -> THREAD_LOCAL 모드 / transaction 밖의 호출은 기존과 동일
+ */
+public final class TxConnections {
+
+    private TxConnections() {
+    }
+
+    public static Connection getConnection(DataSource dataSource, TxContext tx) {
+        if (tx == null || !tx.isFor(dataSource)) {
+            return DataSourceUtils.getConnection(dataSource);
+        }
+        try {
+            return tx.connection();
+        } catch (SQLException e) {
+            throw new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection", e);
+        }
+    }
+
+    public static void releaseConnection(Connection con, DataSource dataSource, TxContext tx) {
+        if (tx == null || !tx.isFor(dataSource)) {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+}
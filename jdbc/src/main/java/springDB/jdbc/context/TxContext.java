@@ -0,0 +1,114 @@
+package springDB.jdbc.context;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 명시적으로 전달하는 transaction context - ThreadLocal 대신 호출 인자로 con을 넘김
+ * - con은 처음 조회하는 시점에 꺼내고 autoCommit을 끔 (SQL이 없는 transaction은 con을 점유하지 않음)
+ * - 어느 thread에서 조회하든 같은 con -> 다른 thread에서 실행하는 하위 작업에도 그대로 전달 가능
+ *   + con 자체는 동시 사용에 안전하지 않으므로 하위 작업의 SQL은 순서대로 실행해야 함
+ * - commit / rollback / 반환은 TxContextTemplate이 담당
+ * + pool 대기, driver I/O를 하는 동안 잡는 lock은 synchronized 대신 ReentrantLock
+ *   -> virtual thread가 synchronized 안에서 block되면 carrier thread까지 묶임(pinning, JDK 21)
+ */
+@Slf4j
+public final class TxContext {
+
+    private final DataSource dataSource;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection con;
+    private volatile boolean rollbackOnly;
+
+    TxContext(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // * 이 context가 관리하는 DataSource인지 - 다른 DataSource 조회는 context와 무관
+    public boolean isFor(DataSource dataSource) {
+        return this.dataSource == dataSource;
+    }
+
+    public Connection connection() throws SQLException {
+        lock.lock();
+        try {
+            if (con == null) {
+                Connection acquired = dataSource.getConnection();
+                try {
+                    acquired.setAutoCommit(false);
+                } catch (SQLException e) {
+                    JdbcUtils.closeConnection(acquired);
+                    throw e;
+                }
+                con = acquired;
+            }
+            return con;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasConnection() {
+        lock.lock();
+        try {
+            return con != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // * 예외 없이 끝나도 rollback
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    void commit() throws SQLException {
+        lock.lock();
+        try {
+            if (con != null) {
+                con.commit();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void rollback() throws SQLException {
+        lock.lock();
+        try {
+            if (con != null) {
+                con.rollback();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // * autoCommit을 되돌리고 pool에 반환
+    void release() {
+        lock.lock();
+        try {
+            if (con == null) {
+                return;
+            }
+            try {
+                con.setAutoCommit(true);
+            } catch (SQLException e) {
+                log.warn("failed to reset autoCommit", e);
+            }
+            JdbcUtils.closeConnection(con);
+            con = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
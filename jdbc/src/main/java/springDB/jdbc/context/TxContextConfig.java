@@ -0,0 +1,26 @@
+package springDB.jdbc.context;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * transaction context 모드 선택
+ * - springdb.tx.context-mode=THREAD_LOCAL(기본) | EXPLICIT
+ */
+@Configuration
+public class TxContextConfig {
+
+    @Bean
+    TxContextTemplate txContextTemplate(DataSource dataSource,
+                                        @Value("${springdb.tx.context-mode:THREAD_LOCAL}") TxContextMode mode) {
+        return new TxContextTemplate(dataSource, mode);
+    }
+
+    @Bean
+    ContextMemberService contextMemberService(DataSource dataSource, TxContextTemplate txContextTemplate) {
+        return new ContextMemberService(new ContextMemberRepository(dataSource), txContextTemplate);
+    }
+}
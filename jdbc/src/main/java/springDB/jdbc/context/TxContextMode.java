@@ -0,0 +1,11 @@
+package springDB.jdbc.context;
+
+/**
+ * transaction 자원(con) 보관 방식
+ * - THREAD_LOCAL : Spring 기본 - TransactionSynchronizationManager가 thread에 con을 묶음 (DataSourceUtils로 조회)
+ * - EXPLICIT : TxContext 객체에 con을 담아 호출 인자로 전달 - thread에 아무것도 묶지 않음
+ */
+public enum TxContextMode {
+    THREAD_LOCAL,
+    EXPLICIT
+}
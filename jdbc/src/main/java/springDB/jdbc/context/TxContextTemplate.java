@@ -0,0 +1,92 @@
+package springDB.jdbc.context;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 모드에 따라 transaction을 시작하고 action에 context를 넘겨주는 template
+ * - THREAD_LOCAL : TransactionTemplate으로 실행, action에는 null 전달 (repository는 DataSourceUtils로 조회)
+ * - EXPLICIT : TxContext를 만들어 전달, 끝나면 commit / rollback 후 con 반환
+ *   + TransactionSynchronizationManager를 사용하지 않으므로 afterCommit 같은 synchronization은 없음
+ * + action은 두 모드 모두 같은 코드 -> 모드만 바꿔서 비교 가능
+ */
+@Slf4j
+public class TxContextTemplate {
+
+    private final DataSource dataSource;
+    @Getter
+    private final TxContextMode mode;
+    private final TransactionTemplate txTemplate;
+
+    public TxContextTemplate(DataSource dataSource, TxContextMode mode) {
+        this.dataSource = dataSource;
+        this.mode = mode;
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public <T> T execute(Function<TxContext, T> action) {
+        if (mode == TxContextMode.THREAD_LOCAL) {
+            return txTemplate.execute(status -> action.apply(null));
+        }
+
+        TxContext tx = new TxContext(dataSource);
+        try {
+            T result;
+            try {
+                result = action.apply(tx);
+            } catch (RuntimeException | Error e) {
+                rollbackOnException(tx, e);
+                throw e;
+            }
+            if (tx.isRollbackOnly()) {
+                rollback(tx);
+            } else {
+                commit(tx);
+            }
+            return result;
+        } finally {
+            tx.release();
+        }
+    }
+
+    public void executeWithoutResult(Consumer<TxContext> action) {
+        execute(tx -> {
+            action.accept(tx);
+            return null;
+        });
+    }
+
+    private void commit(TxContext tx) {
+        try {
+            tx.commit();
+        } catch (SQLException e) {
+            rollbackOnException(tx, e);
+            throw new TransactionSystemException("Could not commit JDBC transaction", e);
+        }
+    }
+
+    private void rollback(TxContext tx) {
+        try {
+            tx.rollback();
+        } catch (SQLException e) {
+            throw new TransactionSystemException("Could not roll back JDBC transaction", e);
+        }
+    }
+
+    // * rollback 실패는 기록만 하고 원래 예외를 전달
+    private void rollbackOnException(TxContext tx, Throwable cause) {
+        try {
+            tx.rollback();
+        } catch (SQLException e) {
+            log.error("rollback failed after {}", cause.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package springDB.jdbc.deadline;
+
+import java.time.Duration;
+
+/**
+ * 호출 1건에 허용된 시간 예산 - 절대 시각(nanoTime) 기준
+ * - 하위 호출로 전달되면서 남은 시간만 줄어듦 (각 단계가 제한시간을 새로 주지 않음)
+ */
+public final class Deadline {
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, remainingNanos() / 1_000_000);
+    }
+
+    // * Statement.setQueryTimeout / transaction timeout 용 - 초 단위 올림, 최소 1초 (0은 무제한이므로)
+    public int remainingSeconds() {
+        long nanos = remainingNanos();
+        if (nanos <= 0) {
+            return 1;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    // * 이미 지났으면 바로 실패 - con 획득, statement 실행 전에 호출
+    public void check(String operation) {
+        long nanos = remainingNanos();
+        if (nanos <= 0) {
+            throw new DeadlineExceededException(operation + ": deadline exceeded by " + (-nanos / 1_000_000) + "ms");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline[remaining=" + remainingMillis() + "ms]";
+    }
+}
@@ -0,0 +1,44 @@
+package springDB.jdbc.deadline;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 thread의 deadline 보관
+ * - DeadlineContext.call(deadline, () -> memberService.accountTransfer(...)) 형태로 호출 단위에 부착
+ * - DeadlineDataSource, DeadlineTransactionManager가 꺼내서 query timeout / transaction timeout으로 변환
+ * + 중첩 호출 시 더 이른 deadline이 적용되고, 끝나면 바깥 deadline으로 복원
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T call(Deadline deadline, Supplier<T> action) {
+        Deadline outer = CURRENT.get();
+        Deadline effective = outer != null && outer.remainingNanos() < deadline.remainingNanos() ? outer : deadline;
+        CURRENT.set(effective);
+        try {
+            effective.check("call");
+            return action.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    public static void run(Deadline deadline, Runnable action) {
+        call(deadline, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,155 @@
+package springDB.jdbc.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * deadline을 JDBC 호출에 적용하는 DataSource
+ * 1. getConnection() - deadline이 이미 지났으면 pool에서 con을 꺼내지 않고 바로 실패
+ * 2. statement 생성 - 남은 시간으로 setQueryTimeout, 이후의 setQueryTimeout도 남은 시간 이하로 제한
+ * 3. statement 실행 - deadline 시각에 Statement.cancel() 예약, 실행이 끝나면 예약 취소
+ *    - query timeout은 초 단위라 deadline보다 늦게 끝날 수 있음 -> cancel로 ms 단위까지 맞춤
+ *    - lock 대기처럼 query timeout이 적용되지 않는 구간도 cancel로 중단
+ * + deadline이 없는 호출은 그대로 통과
+ * + 취소된 실행은 DeadlineExceededException으로 변환
+ */
+@Slf4j
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    private static final ScheduledThreadPoolExecutor CANCELLER = canceller();
+
+    private final LongAdder fastFails = new LongAdder();
+    private final LongAdder cancels = new LongAdder();
+
+    public DeadlineDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        failFast("getConnection");
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        failFast("getConnection");
+        return wrap(super.getConnection(username, password));
+    }
+
+    // * deadline이 지나서 con 없이 실패한 횟수
+    public long fastFails() {
+        return fastFails.sum();
+    }
+
+    // * deadline에 걸려 Statement.cancel()을 호출한 횟수
+    public long cancels() {
+        return cancels.sum();
+    }
+
+    private void failFast(String operation) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null && deadline.isExpired()) {
+            fastFails.increment();
+            deadline.check(operation);
+        }
+    }
+
+    private Connection wrap(Connection con) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(con, method, args);
+                    if (result instanceof Statement statement) {
+                        return wrap(statement);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement) throws SQLException {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null) {
+            statement.setQueryTimeout(deadline.remainingSeconds());
+        }
+
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Deadline current = DeadlineContext.current();
+                    if (current == null) {
+                        return invoke(statement, method, args);
+                    }
+                    String name = method.getName();
+                    if (name.equals("setQueryTimeout")) {
+                        int requested = (Integer) args[0];
+                        int remaining = current.remainingSeconds();
+                        statement.setQueryTimeout(requested == 0 ? remaining : Math.min(requested, remaining));
+                        return null;
+                    }
+                    if (name.startsWith("execute")) {
+                        return execute(statement, method, args, current);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args, Deadline deadline) throws Throwable {
+        deadline.check(method.getName());
+        ScheduledFuture<?> cancel = CANCELLER.schedule(() -> cancel(statement),
+                deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        try {
+            return invoke(statement, method, args);
+        } catch (SQLException e) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException(method.getName() + ": deadline exceeded", e);
+            }
+            throw e;
+        } finally {
+            cancel.cancel(false);
+        }
+    }
+
+    private void cancel(Statement statement) {
+        try {
+            cancels.increment();
+            statement.cancel();
+        } catch (SQLException e) {
+            log.warn("statement cancel failed", e);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor canceller() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "deadline-canceller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // * 실행이 끝나 취소된 예약은 바로 queue에서 제거
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
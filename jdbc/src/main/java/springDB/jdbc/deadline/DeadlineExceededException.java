@@ -0,0 +1,18 @@
+package springDB.jdbc.deadline;
+
+import org.springframework.dao.QueryTimeoutException;
+
+/**
+ * 호출의 deadline이 지남 - con 획득 전 / statement 취소 모두 이 예외로 통일
+ * + Spring의 QueryTimeoutException(TransientDataAccessException) 계층 -> 재시도 가능한 예외로 분류
+ */
+public class DeadlineExceededException extends QueryTimeoutException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
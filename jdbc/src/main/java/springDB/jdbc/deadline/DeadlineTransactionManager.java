@@ -0,0 +1,43 @@
+package springDB.jdbc.deadline;
+
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+
+import javax.sql.DataSource;
+
+/**
+ * deadline -> transaction timeout 변환
+ * 1. transaction 시작(con 획득) 전에 deadline 확인 -> 이미 지났으면 con 없이 실패
+ * 2. 남은 시간이 설정된 timeout보다 짧으면 남은 시간을 timeout으로 사용
+ *    -> ConnectionHolder에 기록되고, JdbcTemplate이 statement마다 남은 시간으로 query timeout 설정
+ */
+public class DeadlineTransactionManager extends DataSourceTransactionManager {
+
+    public DeadlineTransactionManager(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+        deadline.check("begin transaction");
+
+        int remaining = deadline.remainingSeconds();
+        int timeout = determineTimeout(definition);
+        if (timeout != TransactionDefinition.TIMEOUT_DEFAULT && timeout <= remaining) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+        super.doBegin(transaction, new DelegatingTransactionDefinition(definition) {
+            @Override
+            public int getTimeout() {
+                return remaining;
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package springDB.jdbc.domain;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+
+/**
+ * 회원 집계 - 회원 수, 잔액 합계, 잔액 구간별 회원 수(histogram)
+ */
+@Getter
+@ToString
+public class MemberSummary {
+
+    private final long memberCount;
+    private final long totalMoney;
+    private final long[] histogram;
+
+    public MemberSummary(long memberCount, long totalMoney, long[] histogram) {
+        this.memberCount = memberCount;
+        this.totalMoney = totalMoney;
+        this.histogram = histogram;
+    }
+
+    public long[] getHistogram() {
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+}
@@ -0,0 +1,94 @@
+package springDB.jdbc.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 복구 후 member 잔액 재구성 - checkpoint(snapshot) + 이후 journal(delta) 재생
+ * 1. checkpoint(sequence) : 현재 member 잔액을 member_snapshot에 복사하고 sequence 기록
+ *    - 호출 시점의 member가 journal의 sequence까지 반영된 상태여야 함 (이체가 멈춘 상태 등)
+ * 2. rebuild() : snapshot + sequence 이후 이벤트를 재생한 결과를 batch update로 member에 기록
+ *
+ * + journal에는 이체만 있음 (save / update / delete는 기록되지 않음) -> checkpoint에 있던 회원만 재구성
+ *   - checkpoint 이후 save된 회원 : 기준 잔액을 알 수 없으므로 건드리지 않음
+ *   - checkpoint 이후 delete된 회원 : member에 row가 없으므로 다시 만들지 않음
+ *   - checkpoint 이후 update(잔액 직접 수정)는 반영되지 않음 -> save / update / delete 후에는 checkpoint를 다시 잡아야 함
+ */
+@Slf4j
+public class BalanceRebuilder {
+
+    public static final int BATCH_SIZE = 1000;
+    private static final int CHECKPOINT_ID = 1;
+
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+    private final TransferJournalReader reader;
+    private final BalanceReplayEngine engine;
+
+    public BalanceRebuilder(DataSource dataSource, TransferJournalReader reader, BalanceReplayEngine engine) {
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.reader = reader;
+        this.engine = engine;
+    }
+
+    public void checkpoint(long sequence) {
+        txTemplate.executeWithoutResult(status -> {
+            template.update("delete from member_snapshot");
+            template.update("insert into member_snapshot(member_id, money) select member_id, money from member");
+            template.update("merge into replay_checkpoint(id, sequence) key(id) values(?, ?)", CHECKPOINT_ID, sequence);
+        });
+        log.info("checkpoint sequence = {}", sequence);
+    }
+
+    public long checkpointSequence() {
+        List<Long> sequences = template.queryForList("select sequence from replay_checkpoint where id = ?", Long.class, CHECKPOINT_ID);
+        return sequences.isEmpty() ? 0 : sequences.get(0);
+    }
+
+    // * 재구성된 회원 수 반환
+    public int rebuild() {
+        long sequence = checkpointSequence();
+
+        Map<String, Long> snapshot = new HashMap<>();
+        template.query("select member_id, money from member_snapshot",
+                rs -> { snapshot.put(rs.getString(1), rs.getLong(2)); });
+
+        Map<String, Long> balances = engine.replay(snapshot, reader, sequence + 1);
+        int replayed = balances.size();
+        balances.keySet().retainAll(snapshot.keySet());
+        if (balances.size() < replayed) {
+            log.warn("checkpoint 이후 save된 회원은 재구성하지 않음. skipped = {}", replayed - balances.size());
+        }
+        return update(balances);
+    }
+
+    // * 존재하는 회원만 갱신 - checkpoint 이후 삭제된 회원은 다시 만들지 않음
+    private int update(Map<String, Long> balances) {
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        balances.forEach((memberId, money) -> rows.add(new Object[]{memberId, Math.toIntExact(money)}));
+
+        int[][] counts = txTemplate.execute(status ->
+                template.batchUpdate("update member set money = ? where member_id = ?", rows, BATCH_SIZE,
+                        (ps, row) -> {
+                            ps.setInt(1, (Integer) row[1]);
+                            ps.setString(2, (String) row[0]);
+                        }));
+        int updated = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                updated += count;
+            }
+        }
+        log.info("rebuilt members = {}, missing = {}", updated, rows.size() - updated);
+        return updated;
+    }
+}
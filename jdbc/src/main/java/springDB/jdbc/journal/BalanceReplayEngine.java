@@ -0,0 +1,131 @@
+package springDB.jdbc.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * journal 재생으로 잔액 계산
+ * 1. journal을 순차로 읽으면서 (계좌, 증감) 쌍을 계좌 hash로 partition에 분배
+ * 2. foldBatch개의 이벤트마다 partition별 buffer를 partition의 계좌별 합계에 fold -> fork/join으로 병렬 처리
+ *    - partition끼리는 계좌가 겹치지 않으므로 lock 불필요
+ *    - 메모리는 이벤트 수가 아닌 계좌 수 + foldBatch에 비례
+ * 3. 기준 잔액(snapshot) + 증감 = 재생 결과
+ *
+ * + MemberServiceV4.accountTransfer 의미와 동일한 결과
+ *   - journal에는 commit된 이체만 있고, 이체는 from -money / to +money 이므로 순서와 무관하게 합산 가능
+ *   - 단, from == to 인 경우 두 회원을 먼저 조회한 뒤 각각 update하므로 결과적으로 +money
+ */
+@Slf4j
+public class BalanceReplayEngine {
+
+    public static final int DEFAULT_FOLD_BATCH = 1 << 16;
+
+    private final int partitions;
+    private final ForkJoinPool pool;
+    private final int foldBatch;
+
+    public BalanceReplayEngine() {
+        this(Runtime.getRuntime().availableProcessors() * 4, ForkJoinPool.commonPool());
+    }
+
+    public BalanceReplayEngine(int partitions, ForkJoinPool pool) {
+        this(partitions, pool, DEFAULT_FOLD_BATCH);
+    }
+
+    public BalanceReplayEngine(int partitions, ForkJoinPool pool, int foldBatch) {
+        this.partitions = partitions;
+        this.pool = pool;
+        this.foldBatch = foldBatch;
+    }
+
+    // * base + fromSequence 이상의 이벤트 반영 결과
+    public Map<String, Long> replay(Map<String, Long> base, TransferJournalReader reader, long fromSequence) {
+        Partition[] buffers = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            buffers[i] = new Partition();
+        }
+
+        int[] pending = new int[1];
+        long events = reader.forEach(fromSequence, event -> {
+            if (event.getFromId().equals(event.getToId())) {
+                route(buffers, event.getToId(), event.getMoney());
+            } else {
+                route(buffers, event.getFromId(), -event.getMoney());
+                route(buffers, event.getToId(), event.getMoney());
+            }
+
+            if (++pending[0] == foldBatch) {
+                pool.invoke(new FoldTask(buffers, 0, partitions));
+                pending[0] = 0;
+            }
+        });
+        pool.invoke(new FoldTask(buffers, 0, partitions));
+
+        Map<String, Long> result = new HashMap<>(base);
+        int changed = 0;
+        for (Partition partition : buffers) {
+            partition.sums.forEach((memberId, delta) -> result.merge(memberId, delta, Long::sum));
+            changed += partition.sums.size();
+        }
+        log.info("replayed events = {}, accounts changed = {}", events, changed);
+        return result;
+    }
+
+    private void route(Partition[] buffers, String memberId, long delta) {
+        buffers[Math.floorMod(memberId.hashCode(), buffers.length)].add(memberId, delta);
+    }
+
+    private static class Partition {
+        // fold 전 buffer - 최대 foldBatch x 2 개
+        private String[] memberIds = new String[256];
+        private long[] deltas = new long[256];
+        private int size;
+        // 계좌별 누적 증감
+        private final Map<String, Long> sums = new HashMap<>();
+
+        void add(String memberId, long delta) {
+            if (size == memberIds.length) {
+                memberIds = Arrays.copyOf(memberIds, size * 2);
+                deltas = Arrays.copyOf(deltas, size * 2);
+            }
+            memberIds[size] = memberId;
+            deltas[size] = delta;
+            size++;
+        }
+
+        void fold() {
+            for (int i = 0; i < size; i++) {
+                sums.merge(memberIds[i], deltas[i], Long::sum);
+                memberIds[i] = null;
+            }
+            size = 0;
+        }
+    }
+
+    private static class FoldTask extends RecursiveAction {
+        private final Partition[] buffers;
+        private final int from;
+        private final int to;
+
+        FoldTask(Partition[] buffers, int from, int to) {
+            this.buffers = buffers;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                buffers[from].fold();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FoldTask(buffers, from, mid), new FoldTask(buffers, mid, to));
+        }
+    }
+}
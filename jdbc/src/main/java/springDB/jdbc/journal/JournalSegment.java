@@ -0,0 +1,78 @@
+package springDB.jdbc.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static springDB.jdbc.journal.TransferRecordCodec.RECORD_SIZE;
+
+/**
+ * journal segment 파일 하나 - 고정 크기로 미리 할당하고 통째로 memory-map
+ * + 파일 이름 = 첫 record의 sequence -> 이름 순서 = sequence 순서
+ */
+class JournalSegment {
+
+    static final String SUFFIX = ".seg";
+    static final String COMPRESSED_SUFFIX = ".seg.gz";
+
+    final Path path;
+    final long firstSequence;
+    final int capacity;
+    final MappedByteBuffer buffer;
+    private final FileChannel channel;
+
+    // 다음에 기록할 record index (append thread만 변경)
+    int position;
+    private boolean closed;
+
+    private JournalSegment(Path path, long firstSequence, int capacity, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment open(Path directory, long firstSequence, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(firstSequence));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        return new JournalSegment(path, firstSequence, capacity, channel, buffer);
+    }
+
+    static String fileName(long firstSequence) {
+        return String.format("journal-%020d", firstSequence) + SUFFIX;
+    }
+
+    static long firstSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring("journal-".length(), "journal-".length() + 20));
+    }
+
+    boolean isFull() {
+        return position >= capacity;
+    }
+
+    // * 이미 기록된 record 뒤를 이어서 쓰기 위한 복구 - 비어있거나 손상된 첫 record 위치
+    void recoverPosition() {
+        position = 0;
+        while (position < capacity && TransferRecordCodec.decode(buffer, position * RECORD_SIZE) != null) {
+            position++;
+        }
+    }
+
+    // * group fsync와 seal이 동시에 호출할 수 있음 - close 된 segment는 seal이 이미 force 한 상태
+    synchronized void force() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    synchronized void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+}
@@ -0,0 +1,28 @@
+package springDB.jdbc.journal;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 이체 이벤트 - journal의 record 하나
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class TransferEvent {
+
+    private final long sequence;
+    private final long timestamp;
+    private final String fromId;
+    private final String toId;
+    private final int money;
+
+    public TransferEvent(long sequence, long timestamp, String fromId, String toId, int money) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.money = money;
+    }
+}
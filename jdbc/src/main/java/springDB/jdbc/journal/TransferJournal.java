@@ -0,0 +1,322 @@
+package springDB.jdbc.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static springDB.jdbc.journal.TransferRecordCodec.RECORD_SIZE;
+
+/**
+ * 이체 이벤트 append-only journal
+ * 1. 고정 길이 record를 memory-map된 segment에 기록 -> append는 buffer에 쓰는 비용뿐
+ * 2. group fsync - 별도 thread가 flushInterval마다 force(), 그때까지 기록된 sequence가 durable
+ * 3. segment가 가득 차면 미리 할당해둔 다음 segment로 교체(roll)
+ *    - 이전 segment의 force / 압축(gzip)은 background에서 처리
+ *    - seal이 끝나기 전까지는 group fsync가 이전 segment도 함께 force -> durableSequence가 앞서가지 않음
+ * + hot path에서 잡는 lock은 record 인코딩 동안만 유지, 파일 생성 / fsync / 압축은 모두 background
+ *   (다음 segment가 아직 준비되지 않은 경우에만 append thread가 직접 파일을 생성)
+ */
+@Slf4j
+public class TransferJournal implements Closeable {
+
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20; // 48MB
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private JournalSegment current;
+    private volatile JournalSegment next;
+    private long nextSequence;
+    // roll 됐지만 아직 seal(force)되지 않은 segment
+    private final List<JournalSegment> unsealed = new ArrayList<>();
+
+    private final AtomicLong durableSequence = new AtomicLong();
+    private final AtomicLong rolls = new AtomicLong();
+    private volatile boolean closed;
+
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService background;
+
+    private TransferJournal(Path directory, int recordsPerSegment, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "journal-flusher"));
+        this.background = Executors.newSingleThreadExecutor(r -> daemon(r, "journal-background"));
+
+        // recover 중에 시작된 seal이 unsealed를 함께 변경
+        lock.lock();
+        try {
+            recover();
+        } finally {
+            lock.unlock();
+        }
+        preallocateNext();
+        flusher.scheduleWithFixedDelay(this::groupFlush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static TransferJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public static TransferJournal open(Path directory, int recordsPerSegment, long flushIntervalMillis) throws IOException {
+        Files.createDirectories(directory);
+        return new TransferJournal(directory, recordsPerSegment, flushIntervalMillis);
+    }
+
+    // * 기록된 이벤트의 sequence 반환
+    public long append(String fromId, String toId, int money) {
+        TransferRecordCodec.validateId(fromId);
+        TransferRecordCodec.validateId(toId);
+        long timestamp = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("journal closed");
+            }
+            if (current.isFull()) {
+                roll();
+            }
+
+            long sequence = nextSequence++;
+            TransferRecordCodec.encode(current.buffer, current.position * RECORD_SIZE,
+                    sequence, timestamp, fromId, toId, money);
+            current.position++;
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // * group fsync 이후 durable이 보장된 마지막 sequence
+    public long durableSequence() {
+        return durableSequence.get();
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rolls() {
+        return rolls.get();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    // * 즉시 fsync - 종료, 테스트 등에서 사용
+    public void flush() {
+        groupFlush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+
+        flusher.shutdown();
+        groupFlush();
+        background.shutdown();
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        current.close();
+        JournalSegment preallocated = next;
+        if (preallocated != null) {
+            preallocated.close();
+        }
+    }
+
+    // lock 안에서 호출
+    private void roll() {
+        JournalSegment full = current;
+        long firstSequence = full.firstSequence + full.capacity;
+
+        JournalSegment prepared = next;
+        next = null;
+        if (prepared == null || prepared.firstSequence != firstSequence) {
+            // background가 아직 준비하지 못한 경우 - 이때만 hot path에서 파일 생성
+            log.warn("next segment not ready. firstSequence = {}", firstSequence);
+            prepared = openSegment(firstSequence);
+        }
+        unsealed.add(full);
+        current = prepared;
+        rolls.incrementAndGet();
+
+        background.execute(() -> {
+            seal(full);
+            preallocateNext();
+        });
+    }
+
+    private void groupFlush() {
+        JournalSegment segment;
+        List<JournalSegment> rolled;
+        long sequence;
+        lock.lock();
+        try {
+            segment = current;
+            rolled = unsealed.isEmpty() ? List.of() : List.copyOf(unsealed);
+            sequence = nextSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+
+        // * force는 lock 밖에서 - append는 계속 진행
+        // sequence까지의 record는 아직 seal 되지 않은 이전 segment에도 있을 수 있음 -> 모두 force 한 뒤에 durable
+        for (JournalSegment full : rolled) {
+            full.force();
+        }
+        segment.force();
+        durableSequence.accumulateAndGet(sequence, Math::max);
+    }
+
+    // * 가득 찬 segment - force 후 gzip 압축, 원본 삭제
+    private void seal(JournalSegment segment) {
+        try {
+            segment.force();
+            lock.lock();
+            try {
+                unsealed.remove(segment);
+            } finally {
+                lock.unlock();
+            }
+            segment.close();
+            compress(segment.path);
+        } catch (IOException e) {
+            log.error("segment seal failed. path = {}", segment.path, e);
+        }
+    }
+
+    private void compress(Path path) throws IOException {
+        Path target = path.resolveSibling(path.getFileName().toString().replace(JournalSegment.SUFFIX, JournalSegment.COMPRESSED_SUFFIX));
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (InputStream in = Files.newInputStream(path);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+            in.transferTo(out);
+        }
+        // * 압축이 끝난 뒤에만 교체 -> 중간에 중단돼도 원본 또는 완성된 압축본 중 하나는 존재
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        Files.delete(path);
+        log.info("segment compressed = {}", target.getFileName());
+    }
+
+    private void preallocateNext() {
+        long firstSequence;
+        lock.lock();
+        try {
+            if (closed || next != null) {
+                return;
+            }
+            firstSequence = current.firstSequence + current.capacity;
+        } finally {
+            lock.unlock();
+        }
+
+        JournalSegment segment = openSegment(firstSequence);
+        lock.lock();
+        try {
+            if (next == null && current.firstSequence < firstSequence) {
+                next = segment;
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        // 그 사이에 hot path가 직접 생성해서 roll 한 경우
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("segment close failed", e);
+        }
+    }
+
+    private JournalSegment openSegment(long firstSequence) {
+        try {
+            return JournalSegment.open(directory, firstSequence, recordsPerSegment);
+        } catch (IOException e) {
+            throw new IllegalStateException("segment open failed. firstSequence = " + firstSequence, e);
+        }
+    }
+
+    // * 재시작 시 마지막으로 기록된 record 다음부터 이어서 기록
+    private void recover() throws IOException {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(p -> p.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        JournalSegment writable = null;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            JournalSegment segment = JournalSegment.open(directory, JournalSegment.firstSequenceOf(segments.get(i)), recordsPerSegment);
+            segment.recoverPosition();
+
+            if (writable == null && (segment.position > 0 || i == 0)) {
+                writable = segment;
+            } else if (writable == null) {
+                // 기록이 없는 미리 할당된 segment - 앞 segment부터 다시 확인
+                segment.close();
+                Files.delete(segment.path);
+            } else {
+                // 압축되지 못한 이전 segment
+                JournalSegment sealed = segment;
+                unsealed.add(sealed);
+                background.execute(() -> seal(sealed));
+            }
+        }
+
+        if (writable == null) {
+            // 남은 .seg가 없음 (모두 압축됨) -> 마지막 압축 segment 다음부터
+            writable = openSegment(new TransferJournalReader(directory).lastCompressedSequence() + 1);
+        }
+        current = writable;
+        nextSequence = writable.firstSequence + writable.position;
+        if (current.isFull()) {
+            roll();
+        }
+        // * 이전 process가 force하지 못한 record가 있을 수 있음 -> force 후에 durable
+        groupFlush();
+        log.info("journal opened. directory = {}, nextSequence = {}", directory, nextSequence);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
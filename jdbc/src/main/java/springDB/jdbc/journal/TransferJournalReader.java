@@ -0,0 +1,112 @@
+package springDB.jdbc.journal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static springDB.jdbc.journal.TransferRecordCodec.RECORD_SIZE;
+
+/**
+ * journal 순차 읽기 - 압축된 segment(.seg.gz)와 기록 중인 segment(.seg)를 sequence 순서대로
+ * + segment 안에서 비어있거나 손상된 record를 만나면 해당 segment는 거기까지만 읽음
+ */
+public class TransferJournalReader {
+
+    private static final int BATCH_RECORDS = 1024;
+
+    private final Path directory;
+
+    public TransferJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    // * fromSequence 이상의 이벤트를 순서대로 전달, 전달한 이벤트 수 반환
+    public long forEach(long fromSequence, Consumer<TransferEvent> consumer) {
+        long count = 0;
+        for (Path segment : segments().values()) {
+            count += readSegment(segment, fromSequence, consumer);
+        }
+        return count;
+    }
+
+    public long forEach(Consumer<TransferEvent> consumer) {
+        return forEach(1, consumer);
+    }
+
+    // * 마지막 압축 segment의 마지막 sequence - 가장 높은 firstSequence의 .seg.gz 하나만 압축 해제
+    //   (segment 크기가 실행마다 다를 수 있으므로 파일명 + recordsPerSegment로 계산하지 않음)
+    long lastCompressedSequence() {
+        Path last = null;
+        for (Path segment : segments().descendingMap().values()) {
+            if (segment.getFileName().toString().endsWith(JournalSegment.COMPRESSED_SUFFIX)) {
+                last = segment;
+                break;
+            }
+        }
+        if (last == null) {
+            return 0;
+        }
+        long[] max = {JournalSegment.firstSequenceOf(last) - 1};
+        readSegment(last, 1, event -> max[0] = event.getSequence());
+        return max[0];
+    }
+
+    // firstSequence -> 파일, 같은 segment의 .seg와 .seg.gz가 모두 있으면(압축 중) 원본 사용
+    private TreeMap<Long, Path> segments() {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.endsWith(JournalSegment.SUFFIX)) {
+                    segments.put(JournalSegment.firstSequenceOf(path), path);
+                } else if (name.endsWith(JournalSegment.COMPRESSED_SUFFIX)) {
+                    segments.putIfAbsent(JournalSegment.firstSequenceOf(path), path);
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException("journal 조회 실패. directory = " + directory, e);
+        }
+        return segments;
+    }
+
+    private long readSegment(Path segment, long fromSequence, Consumer<TransferEvent> consumer) {
+        boolean compressed = segment.getFileName().toString().endsWith(JournalSegment.COMPRESSED_SUFFIX);
+
+        try (InputStream raw = Files.newInputStream(segment);
+             InputStream in = compressed ? new GZIPInputStream(raw, 1 << 16) : raw) {
+
+            byte[] bytes = new byte[BATCH_RECORDS * RECORD_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long count = 0;
+
+            while (true) {
+                int read = in.readNBytes(bytes, 0, bytes.length);
+                int records = read / RECORD_SIZE;
+                for (int i = 0; i < records; i++) {
+                    TransferEvent event = TransferRecordCodec.decode(buffer, i * RECORD_SIZE);
+                    if (event == null) {
+                        return count;
+                    }
+                    if (event.getSequence() >= fromSequence) {
+                        consumer.accept(event);
+                        count++;
+                    }
+                }
+                if (read < bytes.length) {
+                    return count;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("segment 읽기 실패. segment = " + segment, e);
+        }
+    }
+}
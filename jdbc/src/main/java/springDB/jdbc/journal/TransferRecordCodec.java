@@ -0,0 +1,98 @@
+package springDB.jdbc.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * 고정 길이(48 byte) record 인코딩 / 디코딩
+ *
+ *  0 sequence   long
+ *  8 timestamp  long
+ * 16 money      int
+ * 20 fromLen    byte, 21 fromId 10 byte (ASCII)
+ * 31 toLen      byte, 32 toId   10 byte (ASCII)
+ * 42 padding    2 byte
+ * 44 crc32c     int (0 ~ 43 byte)
+ *
+ * + sequence 0 = 비어있는 record (sequence는 1부터 시작)
+ * + crc 불일치 = 쓰다가 중단된(torn) record -> 그 뒤는 읽지 않음
+ */
+public abstract class TransferRecordCodec {
+
+    public static final int RECORD_SIZE = 48;
+    public static final int MAX_ID_LENGTH = 10;
+
+    private static final int CRC_OFFSET = 44;
+
+    // * CRC32C와 복사용 byte[]는 thread마다 하나를 재사용 -> record마다 객체를 만들지 않음
+    private static final ThreadLocal<Checksum> CHECKSUM = ThreadLocal.withInitial(Checksum::new);
+
+    // * hot path - 객체 생성 없이 buffer에 직접 기록 (absolute put)
+    public static void encode(ByteBuffer buffer, int offset, long sequence, long timestamp,
+                              String fromId, String toId, int money) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putInt(offset + 16, money);
+        putId(buffer, offset + 20, fromId);
+        putId(buffer, offset + 31, toId);
+        buffer.putShort(offset + 42, (short) 0);
+
+        buffer.putInt(offset + CRC_OFFSET, CHECKSUM.get().of(buffer, offset));
+    }
+
+    // 비어있거나 손상된 record는 null
+    public static TransferEvent decode(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset);
+        if (sequence == 0) {
+            return null;
+        }
+
+        if (CHECKSUM.get().of(buffer, offset) != buffer.getInt(offset + CRC_OFFSET)) {
+            return null;
+        }
+
+        return new TransferEvent(sequence, buffer.getLong(offset + 8),
+                getId(buffer, offset + 20), getId(buffer, offset + 31), buffer.getInt(offset + 16));
+    }
+
+    public static void validateId(String id) {
+        if (id == null || id.length() > MAX_ID_LENGTH) {
+            throw new IllegalArgumentException("memberId는 " + MAX_ID_LENGTH + "자 이하 = " + id);
+        }
+        for (int i = 0; i < id.length(); i++) {
+            if (id.charAt(i) > 0x7F) {
+                throw new IllegalArgumentException("memberId는 ASCII만 허용 = " + id);
+            }
+        }
+    }
+
+    private static void putId(ByteBuffer buffer, int offset, String id) {
+        buffer.put(offset, (byte) id.length());
+        for (int i = 0; i < MAX_ID_LENGTH; i++) {
+            buffer.put(offset + 1 + i, i < id.length() ? (byte) id.charAt(i) : 0);
+        }
+    }
+
+    private static String getId(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) buffer.get(offset + 1 + i);
+        }
+        return new String(chars);
+    }
+
+    private static final class Checksum {
+
+        private final CRC32C crc = new CRC32C();
+        private final byte[] bytes = new byte[CRC_OFFSET];
+
+        // absolute bulk get -> buffer의 position은 건드리지 않음
+        int of(ByteBuffer buffer, int offset) {
+            buffer.get(offset, bytes);
+            crc.reset();
+            crc.update(bytes, 0, CRC_OFFSET);
+            return (int) crc.getValue();
+        }
+    }
+}
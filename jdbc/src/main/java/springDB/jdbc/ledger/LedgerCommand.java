@@ -0,0 +1,54 @@
+package springDB.jdbc.ledger;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ring buffer의 slot - 미리 할당해두고 sequence가 돌아올 때마다 재사용
+ * - 요청 필드 : producer가 채움
+ * - 결과 필드 : sequencer가 채우고 acknowledger가 읽은 뒤 비움
+ */
+final class LedgerCommand {
+
+    enum Type {
+        SAVE, FIND, UPDATE, DELETE, TRANSFER
+    }
+
+    // 요청
+    Type type;
+    String memberId;
+    String fromId;
+    String toId;
+    int money;
+    CompletableFuture<Object> future;
+
+    // 결과
+    Object value;
+    RuntimeException error;
+    long journalSequence;
+    String changedId1;
+    long changedBalance1;
+    String changedId2;
+    long changedBalance2;
+
+    void changed(String memberId, long balance) {
+        if (changedId1 == null) {
+            changedId1 = memberId;
+            changedBalance1 = balance;
+        } else {
+            changedId2 = memberId;
+            changedBalance2 = balance;
+        }
+    }
+
+    void clear() {
+        memberId = null;
+        fromId = null;
+        toId = null;
+        future = null;
+        value = null;
+        error = null;
+        journalSequence = 0;
+        changedId1 = null;
+        changedId2 = null;
+    }
+}
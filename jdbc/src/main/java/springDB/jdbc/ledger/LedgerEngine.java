@@ -0,0 +1,539 @@
+package springDB.jdbc.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.journal.TransferEvent;
+import springDB.jdbc.journal.TransferJournal;
+import springDB.jdbc.journal.TransferJournalReader;
+import springDB.jdbc.journal.TransferRecordCodec;
+import springDB.jdbc.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메모리 잔액 + 단일 sequencer thread 원장 (LMAX 방식)
+ * 1. 모든 명령(이체, save / findById / update / delete)은 ring buffer를 거쳐 sequencer thread 하나가 순서대로 처리
+ *    -> 잔액은 sequencer만 변경하므로 lock 없음, 연속해서 publish된 명령은 한 번에 batch로 처리
+ * 2. write-ahead - 검증이 끝난 명령을 journal(TransferJournal)에 먼저 기록한 뒤 메모리 잔액 변경
+ * 3. acknowledger thread - batch의 마지막 journal sequence까지 fsync(group) 된 뒤에 명령 완료 처리
+ *    -> fsync 1회로 batch 전체가 durable, sequencer는 fsync를 기다리지 않고 다음 batch 진행
+ *    -> 조회(findById)도 같은 순서로 완료되므로 durable하지 않은 잔액은 외부에 보이지 않음
+ * 4. durable해진 변경은 H2 member에 비동기로 반영(LedgerProjection)
+ * 5. snapshotInterval개의 journal 기록마다, 그리고 종료 시 메모리 잔액을 snapshot(LedgerSnapshot)으로 저장
+ *    -> 재시작 시 snapshot을 읽고 journal은 snapshot 이후의 기록만 재생해서 메모리 잔액 복구
+ *    -> journal이 비어 있으면 member 테이블에서 초기 잔액을 가져옴
+ *
+ * + journal record 형식은 이체(from, to, money) 하나 -> 나머지 명령은 빈 id("")로 표현
+ *   - ("", id, money) : 계좌가 없으면 생성(save), 있으면 money만큼 증감(update)
+ *   - (id, "", money) : 계좌 삭제(delete)
+ * + update / delete는 MemberRepositoryV5와 같이 없는 회원이면 아무것도 하지 않음
+ * + 자기 자신에게 이체는 거절 (MemberServiceV4는 +money가 되는 동작)
+ * + journal fsync가 FLUSH_ATTEMPTS번 연속 실패하면 engine은 실패 상태로 닫힘
+ *   - durable하지 않은 batch와 이후의 모든 명령은 예외로 완료, 새 명령은 거절, 종료 snapshot은 쓰지 않음
+ *   - 메모리 잔액을 믿을 수 없으므로 재시작해서 journal로 복구해야 함
+ * + 명령 완료 callback은 acknowledger thread에서 실행 -> 오래 걸리는 작업은 다른 executor로 넘겨야 함
+ */
+@Slf4j
+public class LedgerEngine implements MemberRepository, Closeable {
+
+    public static final int DEFAULT_RING_SIZE = 1 << 16;
+    public static final Duration DEFAULT_PROJECTION_INTERVAL = Duration.ofMillis(50);
+    public static final long DEFAULT_SNAPSHOT_INTERVAL = 1 << 20;
+
+    private static final String NONE = "";
+    private static final int FLUSH_ATTEMPTS = 3;
+
+    private final LedgerRingBuffer ring;
+    private final TransferJournal journal;
+    private final LedgerProjection projection;
+    private final LedgerSnapshot snapshot;
+    private final long snapshotInterval;
+    private final Map<String, Account> accounts = new HashMap<>();
+
+    private final AtomicLong sequencerCursor = new AtomicLong(-1);
+    private final AtomicLong ackCursor = new AtomicLong(-1);
+    private final Thread sequencer;
+    private final Thread acknowledger;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final long recoveredEvents;
+    private long snapshotSequence;
+    private volatile long acknowledgedJournalSequence;
+    private volatile boolean sequencerRunning = true;
+    private volatile boolean acknowledgerRunning = true;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+
+    private LedgerEngine(Path directory, DataSource dataSource, int ringSize, Duration projectionInterval,
+                         long snapshotInterval) throws IOException {
+        this.ring = new LedgerRingBuffer(ringSize);
+        this.ring.gateOn(ackCursor);
+        this.projection = new LedgerProjection(dataSource, projectionInterval.toMillis());
+        this.snapshot = new LedgerSnapshot(dataSource);
+        this.snapshotInterval = snapshotInterval;
+
+        // * snapshot 이후의 기록만 재생
+        long checkpoint = snapshot.load((memberId, money) -> accounts.put(memberId, new Account(money)));
+        long events = new TransferJournalReader(directory).forEach(checkpoint + 1, this::replay);
+        this.journal = TransferJournal.open(directory);
+        if (journal.lastSequence() < checkpoint) {
+            // snapshot이 이 journal보다 앞서 있음 (다른 디렉토리, 삭제된 journal) -> 버리고 journal 전체 재생
+            log.warn("ledger snapshot ahead of journal. checkpoint = {}, journal = {}", checkpoint, journal.lastSequence());
+            accounts.clear();
+            checkpoint = 0;
+            events = new TransferJournalReader(directory).forEach(this::replay);
+        }
+        if (journal.lastSequence() == 0) {
+            seed(dataSource);
+        }
+        this.recoveredEvents = events;
+        this.snapshotSequence = checkpoint;
+        log.info("ledger recovered. checkpoint = {}, events = {}, accounts = {}", checkpoint, events, accounts.size());
+
+        // * 복구한 잔액 전체를 H2에 다시 반영 - 마지막 projection 이후의 변경 포함
+        accounts.forEach((memberId, account) -> projection.offer(memberId, account.money));
+        acknowledgedJournalSequence = journal.lastSequence();
+        projection.offered(acknowledgedJournalSequence);
+
+        this.sequencer = daemon(this::sequence, "ledger-sequencer");
+        this.acknowledger = daemon(this::acknowledge, "ledger-acknowledger");
+        projection.start();
+    }
+
+    public static LedgerEngine open(Path directory, DataSource dataSource) throws IOException {
+        return open(directory, dataSource, DEFAULT_RING_SIZE, DEFAULT_PROJECTION_INTERVAL);
+    }
+
+    public static LedgerEngine open(Path directory, DataSource dataSource, int ringSize, Duration projectionInterval)
+            throws IOException {
+        return open(directory, dataSource, ringSize, projectionInterval, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public static LedgerEngine open(Path directory, DataSource dataSource, int ringSize, Duration projectionInterval,
+                                    long snapshotInterval) throws IOException {
+        return new LedgerEngine(directory, dataSource, ringSize, projectionInterval, snapshotInterval);
+    }
+
+    // * 비동기 이체 - journal fsync 후 완료
+    public CompletableFuture<Void> submitTransfer(String fromId, String toId, int money) {
+        validateId(fromId);
+        validateId(toId);
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("자기 자신에게 이체할 수 없음 = " + fromId);
+        }
+        return submit(LedgerCommand.Type.TRANSFER, null, fromId, toId, money).thenApply(ignored -> null);
+    }
+
+    // * 동기 이체 - MemberServiceV4.accountTransfer()와 같은 형태로 사용
+    public void transfer(String fromId, String toId, int money) {
+        join(submitTransfer(fromId, toId, money));
+    }
+
+    @Override
+    public Member save(Member member) {
+        validateId(member.getMemberId());
+        return (Member) join(submit(LedgerCommand.Type.SAVE, member.getMemberId(), null, null, member.getMoney()));
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        validateId(memberId);
+        return (Member) join(submit(LedgerCommand.Type.FIND, memberId, null, null, 0));
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        validateId(memberId);
+        join(submit(LedgerCommand.Type.UPDATE, memberId, null, null, money));
+    }
+
+    @Override
+    public void delete(String memberId) {
+        validateId(memberId);
+        join(submit(LedgerCommand.Type.DELETE, memberId, null, null, 0));
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public double averageBatchSize() {
+        long count = batches();
+        return count == 0 ? 0 : (double) commands.sum() / count;
+    }
+
+    public long durableSequence() {
+        return journal.durableSequence();
+    }
+
+    public long projectedSequence() {
+        return projection.projectedSequence();
+    }
+
+    // * 시작 시 재생한 journal 기록 수 (snapshot 이후만)
+    public long recoveredEvents() {
+        return recoveredEvents;
+    }
+
+    // * 지금까지 완료된 명령이 H2 member에 반영될 때까지 대기 (테스트, 종료 시 사용)
+    public void awaitProjection() throws InterruptedException {
+        long target = acknowledgedJournalSequence;
+        while (projection.projectedSequence() < target) {
+            Thread.sleep(10);
+        }
+    }
+
+    // * 새 명령은 거절하고, 이미 publish된 명령을 모두 완료한 뒤 종료
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        int idle = 0;
+        while (ackCursor.get() < ring.claimedSequence()) {
+            idle = LedgerRingBuffer.idle(idle);
+        }
+        // sequencer가 끝난 뒤에 acknowledger 종료 -> 마지막 batch까지 완료 처리
+        sequencerRunning = false;
+        awaitThread(sequencer);
+        acknowledgerRunning = false;
+        awaitThread(acknowledger);
+        snapshot.close();
+        if (failure != null) {
+            projection.close();
+            journal.close();
+            return;
+        }
+        try {
+            // * 마지막 snapshot - 다음 시작 시 재생할 journal 없음
+            journal.flush();
+            snapshot.write(journal.lastSequence(), balances());
+        } catch (RuntimeException e) {
+            log.warn("ledger snapshot on close failed - journal 재생으로 복구", e);
+        }
+        projection.close();
+        journal.close();
+    }
+
+    private CompletableFuture<Object> submit(LedgerCommand.Type type, String memberId, String fromId, String toId, int money) {
+        if (failure != null) {
+            throw failed();
+        }
+        if (closed) {
+            throw new IllegalStateException("ledger closed");
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        long sequence = ring.claim();
+        LedgerCommand command = ring.slot(sequence);
+        command.type = type;
+        command.memberId = memberId;
+        command.fromId = fromId;
+        command.toId = toId;
+        command.money = money;
+        command.future = future;
+        ring.publish(sequence);
+        return future;
+    }
+
+    // ===== sequencer thread =====
+
+    private void sequence() {
+        long next = 0;
+        int idle = 0;
+        while (sequencerRunning || next <= ring.claimedSequence()) {
+            long available = ring.highestPublished(next);
+            if (available < next) {
+                idle = LedgerRingBuffer.idle(idle);
+                continue;
+            }
+            idle = 0;
+            for (long sequence = next; sequence <= available; sequence++) {
+                process(ring.slot(sequence));
+            }
+            batches.increment();
+            commands.add(available - next + 1);
+            sequencerCursor.set(available);
+            next = available + 1;
+            if (failure == null) {
+                snapshotIfDue();
+            }
+        }
+    }
+
+    // * 잔액 복사는 sequencer thread에서 (batch 사이라 일관된 시점), 저장은 LedgerSnapshot이 background로
+    private void snapshotIfDue() {
+        long last = journal.lastSequence();
+        if (last - snapshotSequence >= snapshotInterval && snapshot.offer(last, this::balances, journal)) {
+            snapshotSequence = last;
+        }
+    }
+
+    private Map<String, Integer> balances() {
+        Map<String, Integer> balances = new HashMap<>(accounts.size() * 2);
+        accounts.forEach((memberId, account) -> balances.put(memberId, account.money));
+        return balances;
+    }
+
+    private void process(LedgerCommand command) {
+        if (failure != null) {
+            // 이미 durable하지 않은 변경이 있음 -> 더 이상 journal / 잔액을 바꾸지 않음
+            command.error = failed();
+            return;
+        }
+        try {
+            switch (command.type) {
+                case SAVE -> applySave(command);
+                case FIND -> applyFind(command);
+                case UPDATE -> applyUpdate(command);
+                case DELETE -> applyDelete(command);
+                case TRANSFER -> applyTransfer(command);
+            }
+        } catch (RuntimeException e) {
+            command.error = e;
+        }
+    }
+
+    // * 검증 -> journal 기록 -> 메모리 변경 순서 (기록에 실패하면 변경 없음)
+    private void applySave(LedgerCommand command) {
+        if (accounts.containsKey(command.memberId)) {
+            throw new DuplicateKeyException("member already exists. memberId = " + command.memberId);
+        }
+        command.journalSequence = journal.append(NONE, command.memberId, command.money);
+        accounts.put(command.memberId, new Account(command.money));
+        command.changed(command.memberId, command.money);
+        command.value = new Member(command.memberId, command.money);
+    }
+
+    private void applyFind(LedgerCommand command) {
+        command.value = new Member(command.memberId, account(command.memberId).money);
+    }
+
+    private void applyUpdate(LedgerCommand command) {
+        Account account = accounts.get(command.memberId);
+        if (account == null) {
+            return;
+        }
+        int delta = Math.subtractExact(command.money, account.money);
+        if (delta == 0) {
+            return;
+        }
+        command.journalSequence = journal.append(NONE, command.memberId, delta);
+        account.money = command.money;
+        command.changed(command.memberId, command.money);
+    }
+
+    private void applyDelete(LedgerCommand command) {
+        Account account = accounts.get(command.memberId);
+        if (account == null) {
+            return;
+        }
+        command.journalSequence = journal.append(command.memberId, NONE, account.money);
+        accounts.remove(command.memberId);
+        command.changed(command.memberId, LedgerProjection.DELETED);
+    }
+
+    private void applyTransfer(LedgerCommand command) {
+        Account from = account(command.fromId);
+        Account to = account(command.toId);
+        int fromMoney = Math.subtractExact(from.money, command.money);
+        int toMoney = Math.addExact(to.money, command.money);
+
+        command.journalSequence = journal.append(command.fromId, command.toId, command.money);
+        from.money = fromMoney;
+        to.money = toMoney;
+        command.changed(command.fromId, fromMoney);
+        command.changed(command.toId, toMoney);
+    }
+
+    private Account account(String memberId) {
+        Account account = accounts.get(memberId);
+        if (account == null) {
+            throw new NoSuchElementException("member not found. memberId = " + memberId);
+        }
+        return account;
+    }
+
+    // ===== acknowledger thread =====
+
+    private void acknowledge() {
+        long next = 0;
+        int idle = 0;
+        while (acknowledgerRunning || next <= sequencerCursor.get()) {
+            long available = sequencerCursor.get();
+            if (available < next) {
+                idle = LedgerRingBuffer.idle(idle);
+                continue;
+            }
+            idle = 0;
+
+            // * group fsync - batch의 마지막 기록까지 한 번에
+            long lastJournal = 0;
+            for (long sequence = next; sequence <= available; sequence++) {
+                lastJournal = Math.max(lastJournal, ring.slot(sequence).journalSequence);
+            }
+            // durableSequence()로 건너뛰지 않음 - 항상 flush를 거쳐야 이번 batch까지 fsync가 끝난 것이 보장됨
+            if (lastJournal > 0 && failure == null) {
+                flushOrFail();
+            }
+
+            if (failure != null) {
+                // * fsync 실패 이후의 batch - 완료로 보고하지 않음 (thread가 죽으면 future가 영원히 대기)
+                for (long sequence = next; sequence <= available; sequence++) {
+                    fail(ring.slot(sequence));
+                }
+                ackCursor.set(available);
+                next = available + 1;
+                continue;
+            }
+
+            for (long sequence = next; sequence <= available; sequence++) {
+                complete(ring.slot(sequence));
+            }
+            if (lastJournal > 0) {
+                acknowledgedJournalSequence = lastJournal;
+                projection.offered(lastJournal);
+            }
+            ackCursor.set(available);
+            next = available + 1;
+        }
+    }
+
+    private void flushOrFail() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                journal.flush();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= FLUSH_ATTEMPTS) {
+                    log.error("journal flush failed, ledger closed. attempts = {}", attempt, e);
+                    failure = e;
+                    closed = true;
+                    return;
+                }
+                log.warn("journal flush failed, retry. attempt = {}", attempt, e);
+            }
+        }
+    }
+
+    private void fail(LedgerCommand command) {
+        CompletableFuture<Object> future = command.future;
+        command.clear();
+        future.completeExceptionally(failed());
+    }
+
+    private IllegalStateException failed() {
+        return new IllegalStateException("ledger failed - journal flush", failure);
+    }
+
+    private void complete(LedgerCommand command) {
+        if (command.changedId1 != null) {
+            projection.offer(command.changedId1, command.changedBalance1);
+        }
+        if (command.changedId2 != null) {
+            projection.offer(command.changedId2, command.changedBalance2);
+        }
+
+        CompletableFuture<Object> future = command.future;
+        RuntimeException error = command.error;
+        Object value = command.value;
+        command.clear();
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(value);
+        }
+    }
+
+    // ===== recovery =====
+
+    private void replay(TransferEvent event) {
+        String fromId = event.getFromId();
+        String toId = event.getToId();
+        if (fromId.isEmpty()) {
+            Account account = accounts.get(toId);
+            if (account == null) {
+                accounts.put(toId, new Account(event.getMoney()));
+            } else {
+                account.money += event.getMoney();
+            }
+        } else if (toId.isEmpty()) {
+            accounts.remove(fromId);
+        } else {
+            replayed(fromId, event).money -= event.getMoney();
+            replayed(toId, event).money += event.getMoney();
+        }
+    }
+
+    private Account replayed(String memberId, TransferEvent event) {
+        Account account = accounts.get(memberId);
+        if (account == null) {
+            throw new IllegalStateException("journal 재생 실패 - 없는 계좌. event = " + event);
+        }
+        return account;
+    }
+
+    private void seed(DataSource dataSource) {
+        new JdbcTemplate(dataSource).query("select member_id, money from member", rs -> {
+            String memberId = rs.getString(1);
+            int money = rs.getInt(2);
+            validateId(memberId);
+            journal.append(NONE, memberId, money);
+            accounts.put(memberId, new Account(money));
+        });
+        journal.flush();
+    }
+
+    private static void validateId(String memberId) {
+        TransferRecordCodec.validateId(memberId);
+        if (memberId.isEmpty()) {
+            throw new IllegalArgumentException("memberId는 비어 있을 수 없음");
+        }
+    }
+
+    private static Object join(CompletableFuture<?> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void awaitThread(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static final class Account {
+
+        private int money;
+
+        private Account(int money) {
+            this.money = money;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package springDB.jdbc.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리 잔액 -> H2 member 비동기 반영(projection)
+ * - durable해진 변경만 전달받아 계좌별 최신 잔액만 보관 (같은 계좌의 여러 변경은 마지막 값 하나로 합쳐짐)
+ * - interval마다 모아둔 변경을 transaction 1개로 batch merge / delete
+ * - 실패하면 다음 주기에 다시 시도 (그 사이 더 새로운 값이 들어왔으면 새 값 유지)
+ * + member 테이블은 조회용 사본 - 기준 데이터는 journal과 메모리 잔액
+ */
+@Slf4j
+class LedgerProjection implements Closeable {
+
+    static final long DELETED = Long.MIN_VALUE;
+
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+    private final long intervalMillis;
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private volatile long offered;
+    private volatile long projected;
+    private volatile boolean running = true;
+
+    LedgerProjection(DataSource dataSource, long intervalMillis) {
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.intervalMillis = intervalMillis;
+        this.thread = new Thread(this::loop, "ledger-projection");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // * acknowledger thread에서 호출 - balance가 DELETED이면 삭제
+    void offer(String memberId, long balance) {
+        pending.put(memberId, balance);
+    }
+
+    // * sequence까지의 변경을 모두 offer한 뒤 호출
+    void offered(long sequence) {
+        offered = sequence;
+    }
+
+    // * H2에 반영이 끝난 마지막 journal sequence
+    long projectedSequence() {
+        return projected;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        project();
+    }
+
+    private void loop() {
+        while (running) {
+            project();
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void project() {
+        long upTo = offered;
+        if (pending.isEmpty()) {
+            projected = upTo;
+            return;
+        }
+
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        Map<String, Long> drained = new HashMap<>();
+        for (String memberId : pending.keySet()) {
+            Long balance = pending.remove(memberId);
+            if (balance == null) {
+                continue;
+            }
+            drained.put(memberId, balance);
+            if (balance == DELETED) {
+                deletes.add(new Object[]{memberId});
+            } else {
+                upserts.add(new Object[]{memberId, Math.toIntExact(balance)});
+            }
+        }
+
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                if (!upserts.isEmpty()) {
+                    template.batchUpdate("merge into member(member_id, money) key(member_id) values(?, ?)", upserts);
+                }
+                if (!deletes.isEmpty()) {
+                    template.batchUpdate("delete from member where member_id = ?", deletes);
+                }
+            });
+            projected = upTo;
+        } catch (RuntimeException e) {
+            log.warn("projection failed, retry. accounts = {}", drained.size(), e);
+            drained.forEach(pending::putIfAbsent);
+        }
+    }
+}
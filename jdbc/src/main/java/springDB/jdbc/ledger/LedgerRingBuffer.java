@@ -0,0 +1,91 @@
+package springDB.jdbc.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 미리 할당된 slot 배열 + sequence 기반 ring buffer (LMAX Disruptor 방식)
+ * 1. producer : claim()으로 sequence 확보 -> slot 채움 -> publish()
+ *    - 여러 producer가 동시에 claim 가능 (CAS 재시도 없이 incrementAndGet 한 번)
+ *    - 마지막 consumer(gating)가 아직 처리하지 않은 slot까지 돌아오면 대기
+ * 2. consumer : highestPublished()로 연속해서 publish된 마지막 sequence까지 한 번에 처리(batch)
+ * + slot 재사용 -> 명령마다 buffer / queue node를 할당하지 않음
+ */
+final class LedgerRingBuffer {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    private final LedgerCommand[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private AtomicLong gating;
+
+    LedgerRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity는 2의 거듭제곱 = " + capacity);
+        }
+        this.slots = new LedgerCommand[capacity];
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LedgerCommand();
+            published.set(i, -1);
+        }
+    }
+
+    // * 마지막 consumer의 처리 sequence - 이 sequence 이전의 slot만 재사용
+    void gateOn(AtomicLong gating) {
+        this.gating = gating;
+    }
+
+    long claim() {
+        long sequence = claimed.incrementAndGet();
+        int idle = 0;
+        while (sequence - slots.length > gating.get()) {
+            idle = idle(idle);
+        }
+        return sequence;
+    }
+
+    LedgerCommand slot(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        published.set((int) (sequence & mask), sequence);
+    }
+
+    // * next부터 연속해서 publish된 마지막 sequence (없으면 next - 1)
+    long highestPublished(long next) {
+        long limit = claimed.get();
+        long sequence = next;
+        while (sequence <= limit && published.get((int) (sequence & mask)) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    long claimedSequence() {
+        return claimed.get();
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    // * 대기 전략 - 짧게 spin -> yield -> park (처리할 것이 없을 때 core를 계속 점유하지 않음)
+    static int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        return idle + 1;
+    }
+}
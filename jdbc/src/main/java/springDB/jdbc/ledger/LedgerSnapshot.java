@@ -0,0 +1,105 @@
+package springDB.jdbc.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.journal.TransferJournal;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 메모리 잔액 snapshot - 재시작 시 journal 전체 대신 snapshot 이후의 기록만 재생
+ * - sequencer thread가 잔액을 복사한 시점의 journal sequence가 기준점
+ * - background thread가 기준점까지 journal을 fsync한 뒤 ledger_snapshot + replay_checkpoint를 transaction 1개로 교체
+ *   -> checkpoint가 가리키는 기록은 항상 durable
+ * - 이전 snapshot을 아직 쓰는 중이면 이번 요청은 건너뜀 (복사본이 쌓이지 않음)
+ * + replay_checkpoint는 BalanceRebuilder와 같은 테이블, id만 다름
+ */
+@Slf4j
+class LedgerSnapshot implements Closeable {
+
+    static final int CHECKPOINT_ID = 2;
+
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+    private final ExecutorService writer;
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    LedgerSnapshot(DataSource dataSource) {
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ledger-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // * 마지막 snapshot의 잔액을 전달하고 기준 sequence 반환 (snapshot이 없으면 0)
+    long load(BiConsumer<String, Integer> consumer) {
+        List<Long> sequences = template.queryForList(
+                "select sequence from replay_checkpoint where id = ?", Long.class, CHECKPOINT_ID);
+        if (sequences.isEmpty()) {
+            return 0;
+        }
+        template.query("select member_id, money from ledger_snapshot",
+                rs -> { consumer.accept(rs.getString(1), rs.getInt(2)); });
+        return sequences.get(0);
+    }
+
+    // * sequencer thread에서 호출 - 복사는 호출 thread에서, fsync / 기록은 background
+    boolean offer(long sequence, Supplier<Map<String, Integer>> copy, TransferJournal journal) {
+        if (!writing.compareAndSet(false, true)) {
+            return false;
+        }
+        Map<String, Integer> balances = copy.get();
+        writer.execute(() -> {
+            try {
+                journal.flush();
+                write(sequence, balances);
+            } catch (RuntimeException e) {
+                log.warn("ledger snapshot failed. sequence = {}", sequence, e);
+            } finally {
+                writing.set(false);
+            }
+        });
+        return true;
+    }
+
+    // * 호출 전에 sequence까지 journal이 durable해야 함
+    void write(long sequence, Map<String, Integer> balances) {
+        List<Object[]> rows = new ArrayList<>(balances.size());
+        balances.forEach((memberId, money) -> rows.add(new Object[]{memberId, money}));
+
+        txTemplate.executeWithoutResult(status -> {
+            template.update("delete from ledger_snapshot");
+            if (!rows.isEmpty()) {
+                template.batchUpdate("insert into ledger_snapshot(member_id, money) values(?, ?)", rows);
+            }
+            template.update("merge into replay_checkpoint(id, sequence) key(id) values(?, ?)", CHECKPOINT_ID, sequence);
+        });
+        log.info("ledger snapshot. sequence = {}, accounts = {}", sequence, rows.size());
+    }
+
+    // * 진행 중인 snapshot이 끝날 때까지 대기
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
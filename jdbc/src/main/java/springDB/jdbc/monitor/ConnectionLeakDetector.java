@@ -0,0 +1,264 @@
+package springDB.jdbc.monitor;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * con 누수 / 장기 점유 감지 - 수동으로 con을 관리하는 코드(MemberServiceV2, MemberRepositoryV1 등)용
+ * 1. getConnection() 시점의 호출 위치(call site)를 기록
+ *    - 기본은 StackWalker로 framework 밖의 첫 frame 하나만 (전체 stack 생성 없음)
+ *    - 전체 stack은 stackSampleRate 중 1건만 수집 -> call site별 대표 stack으로 보관
+ * 2. close() 시점에 점유 시간 집계, longHoldThreshold를 넘으면 장기 점유로 count
+ * 3. 아직 반환되지 않은 con은 주기적으로 검사해서 longHoldThreshold를 넘으면 경고 (반환 전에도 감지)
+ * 4. close() 없이 proxy가 GC되면 누수로 count + 실제 con을 닫아서 pool에 돌려줌
+ * + DataSource를 감싸는 방식이라 HikariDataSource, DriverManagerDataSource 모두 사용 가능
+ */
+@Slf4j
+public class ConnectionLeakDetector extends DelegatingDataSource implements Closeable {
+
+    public static final Duration DEFAULT_LONG_HOLD_THRESHOLD = Duration.ofSeconds(2);
+    public static final int DEFAULT_STACK_SAMPLE_RATE = 100;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final int MAX_WALK_DEPTH = 32;
+
+    private final long longHoldNanos;
+    private final int stackSampleRate;
+    private final Set<Checkout> outstanding = ConcurrentHashMap.newKeySet();
+    private final Map<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scanner;
+
+    public ConnectionLeakDetector(DataSource targetDataSource) {
+        this(targetDataSource, DEFAULT_LONG_HOLD_THRESHOLD, DEFAULT_STACK_SAMPLE_RATE);
+    }
+
+    public ConnectionLeakDetector(DataSource targetDataSource, Duration longHoldThreshold, int stackSampleRate) {
+        super(targetDataSource);
+        this.longHoldNanos = longHoldThreshold.toNanos();
+        this.stackSampleRate = Math.max(1, stackSampleRate);
+
+        this.scanner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-leak-scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, longHoldThreshold.toMillis() / 2);
+        scanner.scheduleWithFixedDelay(this::scan, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // * 아직 반환되지 않은 con 수
+    public int outstanding() {
+        return outstanding.size();
+    }
+
+    public Map<String, Long> leaksBySite() {
+        return countsBySite(SiteStats::getLeaks);
+    }
+
+    public Map<String, Long> longHoldsBySite() {
+        return countsBySite(SiteStats::getLongHolds);
+    }
+
+    public Optional<SiteStats> site(String callSite) {
+        return Optional.ofNullable(sites.get(callSite));
+    }
+
+    public void report() {
+        sites.forEach((site, stats) -> {
+            if (stats.getLeaks() > 0 || stats.getLongHolds() > 0) {
+                log.warn("connection site = {}, {}\n{}", site, stats, stats.getSampledStack());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        scanner.shutdown();
+    }
+
+    private Map<String, Long> countsBySite(ToLongFunction<SiteStats> counter) {
+        return sites.entrySet().stream()
+                .filter(e -> counter.applyAsLong(e.getValue()) > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> counter.applyAsLong(e.getValue())));
+    }
+
+    private Connection track(Connection con) {
+        String callSite = callSite();
+        SiteStats stats = sites.computeIfAbsent(callSite, key -> new SiteStats());
+        stats.checkouts.incrementAndGet();
+        if (stats.sampledStack == null || ThreadLocalRandom.current().nextInt(stackSampleRate) == 0) {
+            stats.sampledStack = stackTrace();
+        }
+
+        Checkout checkout = new Checkout(con, callSite, stats);
+        outstanding.add(checkout);
+
+        Connection proxy = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (p, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        checkout.release();
+                    }
+                    try {
+                        return method.invoke(con, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+        // * proxy만 대상으로 등록 - checkout은 proxy를 참조하지 않아야 GC 가능
+        CLEANER.register(proxy, checkout::leaked);
+        return proxy;
+    }
+
+    private void scan() {
+        long now = System.nanoTime();
+        for (Checkout checkout : outstanding) {
+            long held = now - checkout.acquiredAt;
+            if (held >= longHoldNanos && checkout.reported.compareAndSet(false, true)) {
+                checkout.stats.longHolds.incrementAndGet();
+                log.warn("connection held for {}ms, not returned yet. site = {}", held / 1_000_000, checkout.callSite);
+            }
+        }
+    }
+
+    // * framework / JDK / DataSource 래퍼를 제외한 첫 frame
+    private static String callSite() {
+        return WALKER.walk(frames -> frames
+                .limit(MAX_WALK_DEPTH)
+                .filter(frame -> isApplicationFrame(frame.getDeclaringClass()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    // + 다른 DataSource 래퍼(SlowQueryLog, DeadlineDataSource 등)와 겹쳐 써도 래퍼가 call site로 잡히지 않도록 제외
+    private static boolean isApplicationFrame(Class<?> type) {
+        String className = type.getName();
+        return !DataSource.class.isAssignableFrom(type)
+                && !className.startsWith("java.")
+                && !className.startsWith("jdk.")
+                && !className.startsWith("javax.")
+                && !className.startsWith("org.springframework.")
+                && !className.startsWith("com.zaxxer.")
+                && type != ConnectionLeakDetector.class
+                && !className.startsWith(ConnectionLeakDetector.class.getName() + "$")
+                && !Proxy.isProxyClass(type);
+    }
+
+    private static String stackTrace() {
+        return WALKER.walk(frames -> frames
+                .skip(3)
+                .map(StackWalker.StackFrame::toString)
+                .collect(Collectors.joining("\n\tat ", "\tat ", "")));
+    }
+
+    /**
+     * call site별 집계
+     */
+    @Getter
+    public static class SiteStats {
+
+        private final AtomicLong checkouts = new AtomicLong();
+        private final AtomicLong longHolds = new AtomicLong();
+        private final AtomicLong leaks = new AtomicLong();
+        private final AtomicLong maxHoldNanos = new AtomicLong();
+        private volatile String sampledStack;
+
+        public long getCheckouts() {
+            return checkouts.get();
+        }
+
+        public long getLongHolds() {
+            return longHolds.get();
+        }
+
+        public long getLeaks() {
+            return leaks.get();
+        }
+
+        public long getMaxHoldNanos() {
+            return maxHoldNanos.get();
+        }
+
+        @Override
+        public String toString() {
+            return "checkouts = " + getCheckouts() + ", longHolds = " + getLongHolds() + ", leaks = " + getLeaks()
+                    + ", maxHold = " + getMaxHoldNanos() / 1_000_000 + "ms";
+        }
+    }
+
+    private final class Checkout {
+
+        private final Connection con;
+        private final String callSite;
+        private final SiteStats stats;
+        private final long acquiredAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final AtomicBoolean reported = new AtomicBoolean();
+
+        private Checkout(Connection con, String callSite, SiteStats stats) {
+            this.con = con;
+            this.callSite = callSite;
+            this.stats = stats;
+        }
+
+        private void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            outstanding.remove(this);
+            long held = System.nanoTime() - acquiredAt;
+            stats.maxHoldNanos.accumulateAndGet(held, Math::max);
+            if (held >= longHoldNanos && reported.compareAndSet(false, true)) {
+                stats.longHolds.incrementAndGet();
+            }
+        }
+
+        // * Cleaner thread에서 호출 - close() 없이 proxy가 GC됨
+        private void leaked() {
+            if (released.get()) {
+                return;
+            }
+            release();
+            stats.leaks.incrementAndGet();
+            log.error("connection leaked (not closed). site = {}", callSite);
+            try {
+                con.close();
+            } catch (SQLException e) {
+                log.warn("failed to close leaked connection", e);
+            }
+        }
+    }
+}
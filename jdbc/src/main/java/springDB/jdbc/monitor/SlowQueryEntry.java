@@ -0,0 +1,59 @@
+package springDB.jdbc.monitor;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * SQL 형태(정규화된 SQL + 파라미터 타입)별 느린 실행 집계
+ * - plan : 처음 느렸던 실행의 실행 계획 (select는 EXPLAIN ANALYZE, 그 외와 select ... for update는 EXPLAIN / 비동기로 채워짐, 실패하면 오류 메시지)
+ */
+@Getter
+public class SlowQueryEntry {
+
+    private final String sql;
+    private final List<String> parameterShapes;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastSeenMillis;
+    private volatile String plan;
+
+    SlowQueryEntry(String sql, List<String> parameterShapes) {
+        this.sql = sql;
+        this.parameterShapes = parameterShapes;
+    }
+
+    synchronized void record(long elapsedNanos) {
+        count++;
+        totalNanos += elapsedNanos;
+        maxNanos = Math.max(maxNanos, elapsedNanos);
+        lastSeenMillis = System.currentTimeMillis();
+    }
+
+    void plan(String plan) {
+        this.plan = plan;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public synchronized long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public synchronized long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SlowQueryEntry[sql=" + sql + ", params=" + parameterShapes + ", count=" + count
+                + ", totalMs=" + totalNanos / 1_000_000 + ", maxMs=" + maxNanos / 1_000_000 + "]";
+    }
+}
@@ -0,0 +1,242 @@
+package springDB.jdbc.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 느린 query 기록 - statement 실행 시간이 threshold를 넘으면 SQL 형태별로 집계하고 실행 계획을 남김
+ * 1. DataSource를 감싸서 con -> statement를 proxy로 반환 (V4_2의 PreparedStatement, V5의 JdbcTemplate 모두 통과)
+ * 2. 정규화 - 공백 정리, 소문자, 리터럴(숫자 / 문자열)은 ?로 치환 -> 값만 다른 SQL은 같은 항목
+ *    + 파라미터는 값이 아닌 형태(String, Int, Null ...)만 기록
+ * 3. 처음 느렸던 형태만 실행 계획을 비동기로 capture
+ *    - 요청 thread를 더 늦추지 않도록 별도 thread + 별도 con(side connection)
+ *    - select만 EXPLAIN ANALYZE(실제 실행), 그 외(update / delete / insert, select ... for update)는 실행하지 않는 EXPLAIN
+ *      -> DML을 다시 실행하거나 row lock을 기다리지 않음, trigger가 동작하지 않음
+ *    - 그래도 side con은 autoCommit을 끄고 끝나면 rollback
+ *    - 대기 중인 capture가 쌓이면 버림 (실패해도 요청에는 영향 없음)
+ * 4. 항목 수는 maxEntries로 제한 - 넘치면 누적 시간이 가장 작은 항목을 제거
+ */
+@Slf4j
+public class SlowQueryLog extends DelegatingDataSource {
+
+    public static final Duration DEFAULT_THRESHOLD = Duration.ofMillis(100);
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final int CAPTURE_QUEUE_SIZE = 64;
+    private static final int EXPLAIN_TIMEOUT_SECONDS = 5;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern FOR_UPDATE = Pattern.compile("\\bfor\\s+update\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final int maxEntries;
+    private final Map<String, SlowQueryEntry> entries = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public SlowQueryLog(DataSource targetDataSource) {
+        this(targetDataSource, DEFAULT_THRESHOLD, DEFAULT_MAX_ENTRIES);
+    }
+
+    public SlowQueryLog(DataSource targetDataSource, Duration threshold, int maxEntries) {
+        super(targetDataSource);
+        this.thresholdNanos = threshold.toNanos();
+        this.maxEntries = maxEntries;
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(CAPTURE_QUEUE_SIZE), r -> {
+            Thread thread = new Thread(r, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    // * 누적 시간 기준 상위 n개
+    public List<SlowQueryEntry> topByTotalTime(int n) {
+        return top(n, Comparator.comparingLong(SlowQueryEntry::getTotalNanos));
+    }
+
+    // * 최대 시간 기준 상위 n개
+    public List<SlowQueryEntry> topByMaxTime(int n) {
+        return top(n, Comparator.comparingLong(SlowQueryEntry::getMaxNanos));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // * 대기 중인 EXPLAIN capture가 모두 끝날 때까지 대기 (테스트, 종료 시 사용)
+    public void awaitCaptures() throws InterruptedException {
+        while (!explainExecutor.getQueue().isEmpty() || explainExecutor.getActiveCount() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    public void report(int n) {
+        for (SlowQueryEntry entry : topByTotalTime(n)) {
+            log.info("slow query = {}\n{}", entry, entry.getPlan());
+        }
+    }
+
+    public static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase();
+    }
+
+    private List<SlowQueryEntry> top(int n, Comparator<SlowQueryEntry> order) {
+        return entries.values().stream()
+                .sorted(order.reversed())
+                .limit(n)
+                .collect(Collectors.toList());
+    }
+
+    private Connection wrap(Connection con) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(con, method, args);
+                    if (result instanceof Statement statement) {
+                        // prepareStatement(sql, ...) / prepareCall(sql, ...)은 첫 인자가 SQL
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                        return wrap(statement, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        TreeMap<Integer, Object> parameters = new TreeMap<>();
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameters.put(index, name.equals("setNull") ? null : args[1]);
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    } else if (name.startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        return execute(statement, method, args, sql, parameters);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private Object execute(Statement statement, Method method, Object[] args,
+                           String sql, Map<Integer, Object> parameters) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invoke(statement, method, args);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos && sql != null) {
+                record(sql, new ArrayList<>(parameters.values()), elapsed);
+            }
+        }
+    }
+
+    private void record(String sql, List<Object> parameters, long elapsedNanos) {
+        List<String> shapes = parameters.stream()
+                .map(value -> value == null ? "Null" : value.getClass().getSimpleName())
+                .collect(Collectors.toList());
+        String key = normalize(sql) + " " + shapes;
+
+        boolean[] created = new boolean[1];
+        SlowQueryEntry entry = entries.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return new SlowQueryEntry(normalize(sql), List.copyOf(shapes));
+        });
+        entry.record(elapsedNanos);
+        log.debug("slow query {}ms : {}", elapsedNanos / 1_000_000, entry.getSql());
+
+        if (created[0]) {
+            evictIfFull(key);
+            explainExecutor.execute(() -> entry.plan(explain(sql, parameters)));
+        }
+    }
+
+    private void evictIfFull(String keep) {
+        while (entries.size() > maxEntries) {
+            entries.entrySet().stream()
+                    .filter(e -> !e.getKey().equals(keep))
+                    .min(Comparator.comparingLong(e -> e.getValue().getTotalNanos()))
+                    .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    // * side connection - target DataSource에서 직접 꺼내서 proxy(기록 대상)를 거치지 않음
+    private String explain(String sql, List<Object> parameters) {
+        try (Connection con = obtainTargetDataSource().getConnection()) {
+            con.setAutoCommit(false);
+            try (PreparedStatement pstmt = con.prepareStatement(explainPrefix(sql) + sql)) {
+                pstmt.setQueryTimeout(EXPLAIN_TIMEOUT_SECONDS);
+                for (int i = 0; i < parameters.size(); i++) {
+                    pstmt.setObject(i + 1, parameters.get(i));
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString().trim();
+            } finally {
+                con.rollback();
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.warn("explain failed. sql = {}", sql, e);
+            return "explain failed: " + e.getMessage();
+        }
+    }
+
+    // * 실제로 실행해도 되는 건 lock을 잡지 않는 select 뿐
+    // + select ... for update는 느린 요청이 아직 잡고 있는 row lock을 기다리며 capture thread를 점유함
+    static String explainPrefix(String sql) {
+        boolean select = sql.stripLeading().regionMatches(true, 0, "select", 0, "select".length());
+        return select && !FOR_UPDATE.matcher(sql).find() ? "explain analyze " : "explain ";
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package springDB.jdbc.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.repository.ConsistentHashRing;
+import springDB.jdbc.repository.MemberRepository;
+import springDB.jdbc.repository.MemberRepositoryV5;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 계좌 단위 single-writer 이체 실행기 - 요청 thread가 row lock을 두고 경쟁하지 않도록 계좌별 전담 thread에 위임
+ * 1. 계좌는 ConsistentHashRing으로 partition에 배정, partition마다 thread 1개가 자기 계좌만 update
+ *    -> 서로 다른 partition은 같은 row를 쓰지 않으므로 lock 대기 / deadlock 없음
+ * 2. partition thread는 queue에 쌓인 작업을 최대 maxBatch건씩 꺼내서 transaction 1개로 처리
+ *    - 계좌별 잔액을 한 번만 읽고, 변경된 계좌만 batch update 1회 (건수만큼의 commit / update 왕복 제거)
+ * 3. 같은 partition 내 이체는 한 번에 처리, partition을 넘는 이체는 2단계 handoff
+ *    - 출금 partition에서 출금 commit -> 입금 partition queue에 입금 작업 전달 -> 입금 commit 시 완료
+ *    - 입금 실패(없는 계좌 등) 시 출금 partition에 환불 작업 전달 -> 환불 commit 후 실패로 완료
+ *    + 출금과 입금 사이에는 금액이 이동 중(inFlight) -> 전체 합계는 모든 이체가 끝난 시점에 일치
+ * 4. handoff는 memory queue만으로 전달하지 않음 - 출금 transaction에서 pending_transfer row를 함께 기록
+ *    - 입금 / 환불 transaction에서 row 삭제 -> row가 남아있다 = 출금만 commit된 이체
+ *    - 생성 시 남아있는 row를 입금 작업으로 다시 넣어서 정산 (process가 중간에 죽어도 금액이 사라지지 않음)
+ * + 실행 중에는 이 실행기만 member row를 update해야 함 (lock 없이 읽은 잔액을 그대로 씀)
+ * + 대기 중인 이체가 maxPending을 넘으면 submit()이 대기 (partition 간 handoff는 제한하지 않음 -> 서로 막히지 않음)
+ */
+@Slf4j
+public class PartitionedTransferExecutor implements Closeable {
+
+    public static final int DEFAULT_MAX_BATCH = 256;
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    private static final String UPDATE_SQL = "update member set money=? where member_id=?";
+    private static final String INSERT_PENDING_SQL = "insert into pending_transfer(transfer_id, from_id, to_id, money) values(?, ?, ?, ?)";
+    private static final String DELETE_PENDING_SQL = "delete from pending_transfer where transfer_id=?";
+    private static final long POLL_MILLIS = 50;
+
+    private final ConsistentHashRing ring;
+    private final Partition[] partitions;
+    private final int maxBatch;
+    private final int maxPending;
+    private final Semaphore pending;
+    private final MemberRepository memberRepository;
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder commands = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong transferIds;
+    private volatile boolean closed;
+
+    public PartitionedTransferExecutor(DataSource dataSource, int partitionCount) {
+        this(dataSource, partitionCount, DEFAULT_MAX_BATCH, DEFAULT_MAX_PENDING);
+    }
+
+    public PartitionedTransferExecutor(DataSource dataSource, int partitionCount, int maxBatch, int maxPending) {
+        this.ring = new ConsistentHashRing(partitionCount);
+        this.maxBatch = maxBatch;
+        this.maxPending = maxPending;
+        this.pending = new Semaphore(maxPending);
+        this.memberRepository = new MemberRepositoryV5(dataSource);
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.transferIds = new AtomicLong(template.queryForObject(
+                "select coalesce(max(transfer_id), 0) from pending_transfer", Long.class));
+
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+        settlePending();
+    }
+
+    // * 비동기 이체 - 입금까지 commit되면 완료
+    public CompletableFuture<Void> submit(String fromId, String toId, int money) {
+        if (closed) {
+            throw new IllegalStateException("executor closed");
+        }
+        pending.acquireUninterruptibly();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.whenComplete((ignored, e) -> pending.release());
+
+        Partition from = partitionOf(fromId);
+        Partition to = partitionOf(toId);
+        if (from == to) {
+            from.enqueue(new Command(Kind.TRANSFER, 0, fromId, toId, money, result));
+        } else {
+            from.enqueue(new Command(Kind.DEBIT, transferIds.incrementAndGet(), fromId, toId, money, result));
+        }
+        return result;
+    }
+
+    // * 동기 이체 - MemberServiceV4.accountTransfer()와 같은 형태로 사용
+    public void transfer(String fromId, String toId, int money) {
+        try {
+            submit(fromId, toId, money).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public int partitionIndexOf(String accountId) {
+        return ring.shardOf(accountId);
+    }
+
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long commands() {
+        return commands.sum();
+    }
+
+    public double averageBatchSize() {
+        long count = batches();
+        return count == 0 ? 0 : (double) commands() / count;
+    }
+
+    // * 출금은 commit됐지만 입금 / 환불이 아직 commit되지 않은 금액
+    public long inFlight() {
+        return inFlight.get();
+    }
+
+    // * 새 이체는 거절하고, 진행 중인 이체(handoff 포함)가 모두 끝난 뒤 partition thread 종료
+    @Override
+    public void close() {
+        closed = true;
+        pending.acquireUninterruptibly(maxPending);
+        pending.release(maxPending);
+        for (Partition partition : partitions) {
+            partition.stop();
+        }
+    }
+
+    // * 이전 실행에서 출금만 commit된 이체 - 입금부터 다시 진행 (close()가 기다리도록 pending도 점유)
+    private void settlePending() {
+        List<Command> recovered = template.query(
+                "select transfer_id, from_id, to_id, money from pending_transfer order by transfer_id",
+                (rs, rowNum) -> new Command(Kind.CREDIT, rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getInt(4), new CompletableFuture<>()));
+        for (Command command : recovered) {
+            pending.acquireUninterruptibly();
+            command.result.whenComplete((ignored, e) -> pending.release());
+            inFlight.addAndGet(command.money);
+            partitionOf(command.toId).enqueue(command);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("pending transfers recovered = {}", recovered.size());
+        }
+    }
+
+    private Partition partitionOf(String accountId) {
+        return partitions[ring.shardOf(accountId)];
+    }
+
+    private void execute(List<Command> batch) {
+        List<Command> applied = new ArrayList<>(batch.size());
+        try {
+            txTemplate.executeWithoutResult(status -> {
+                Map<String, Integer> balances = new HashMap<>();
+                Set<String> dirty = new LinkedHashSet<>();
+                for (Command command : batch) {
+                    try {
+                        command.apply(balances, dirty);
+                        applied.add(command);
+                    } catch (RuntimeException e) {
+                        // 잔액 조회 단계의 실패 - 이 작업은 아무것도 바꾸지 않음
+                        failed(command, e);
+                    }
+                }
+                if (!dirty.isEmpty()) {
+                    List<Object[]> args = new ArrayList<>(dirty.size());
+                    for (String accountId : dirty) {
+                        args.add(new Object[]{balances.get(accountId), accountId});
+                    }
+                    template.batchUpdate(UPDATE_SQL, args);
+                }
+                recordPending(applied);
+            });
+        } catch (RuntimeException e) {
+            log.warn("partition batch failed. size = {}", batch.size(), e);
+            applied.forEach(command -> failed(command, e));
+            return;
+        }
+
+        batches.increment();
+        commands.add(batch.size());
+        applied.forEach(this::committed);
+    }
+
+    // * 출금 -> pending row 기록, 입금 / 환불 -> 삭제 (잔액 변경과 같은 transaction)
+    private void recordPending(List<Command> applied) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (Command command : applied) {
+            switch (command.kind) {
+                case DEBIT -> inserts.add(new Object[]{command.transferId, command.fromId, command.toId, command.money});
+                case CREDIT, REFUND -> deletes.add(new Object[]{command.transferId});
+                default -> {
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            template.batchUpdate(INSERT_PENDING_SQL, inserts);
+        }
+        if (!deletes.isEmpty()) {
+            template.batchUpdate(DELETE_PENDING_SQL, deletes);
+        }
+    }
+
+    private void committed(Command command) {
+        switch (command.kind) {
+            case TRANSFER -> command.result.complete(null);
+            case DEBIT -> {
+                inFlight.addAndGet(command.money);
+                partitionOf(command.toId).enqueue(command.next(Kind.CREDIT));
+            }
+            case CREDIT -> {
+                inFlight.addAndGet(-command.money);
+                command.result.complete(null);
+            }
+            case REFUND -> {
+                inFlight.addAndGet(-command.money);
+                command.result.completeExceptionally(command.failure);
+            }
+        }
+    }
+
+    private void failed(Command command, RuntimeException e) {
+        switch (command.kind) {
+            case TRANSFER, DEBIT -> command.result.completeExceptionally(e);
+            case CREDIT -> {
+                // 출금은 이미 commit됨 -> 출금 partition에서 되돌린 뒤 실패로 완료
+                log.info("credit failed, refund. from = {}, to = {}, cause = {}", command.fromId, command.toId, e.getMessage());
+                Command refund = command.next(Kind.REFUND);
+                refund.failure = e;
+                partitionOf(command.fromId).enqueue(refund);
+            }
+            case REFUND -> {
+                // 환불 계좌는 출금 시점에 존재했음 -> DB 장애 등 -> 다시 시도
+                log.error("refund failed, retry. from = {}, money = {}", command.fromId, command.money, e);
+                partitionOf(command.fromId).enqueue(command);
+            }
+        }
+    }
+
+    private enum Kind {
+        TRANSFER, DEBIT, CREDIT, REFUND
+    }
+
+    private final class Command {
+
+        private final Kind kind;
+        private final long transferId;
+        private final String fromId;
+        private final String toId;
+        private final int money;
+        private final CompletableFuture<Void> result;
+        private RuntimeException failure;
+
+        private Command(Kind kind, long transferId, String fromId, String toId, int money, CompletableFuture<Void> result) {
+            this.kind = kind;
+            this.transferId = transferId;
+            this.fromId = fromId;
+            this.toId = toId;
+            this.money = money;
+            this.result = result;
+        }
+
+        private Command next(Kind kind) {
+            return new Command(kind, transferId, fromId, toId, money, result);
+        }
+
+        // * 관련 계좌를 모두 읽은 뒤에 변경 -> 조회 실패 시 balances는 그대로
+        private void apply(Map<String, Integer> balances, Set<String> dirty) {
+            switch (kind) {
+                case TRANSFER -> {
+                    int from = balance(balances, fromId);
+                    int to = balance(balances, toId);
+                    if (fromId.equals(toId)) {
+                        return;
+                    }
+                    put(balances, dirty, fromId, from - money);
+                    put(balances, dirty, toId, to + money);
+                }
+                case DEBIT -> put(balances, dirty, fromId, balance(balances, fromId) - money);
+                case CREDIT -> put(balances, dirty, toId, balance(balances, toId) + money);
+                case REFUND -> put(balances, dirty, fromId, balance(balances, fromId) + money);
+            }
+        }
+
+        private int balance(Map<String, Integer> balances, String accountId) {
+            Integer balance = balances.get(accountId);
+            if (balance == null) {
+                try {
+                    balance = memberRepository.findById(accountId).getMoney();
+                } catch (EmptyResultDataAccessException e) {
+                    // 없는 계좌는 다른 Repository(NegativeLookupMemberRepository 등)와 같은 예외로 통일
+                    throw new NoSuchElementException("member not found. memberId = " + accountId);
+                }
+                balances.put(accountId, balance);
+            }
+            return balance;
+        }
+
+        private void put(Map<String, Integer> balances, Set<String> dirty, String accountId, int balance) {
+            balances.put(accountId, balance);
+            dirty.add(accountId);
+        }
+    }
+
+    private final class Partition {
+
+        private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Partition(int index) {
+            thread = new Thread(this::loop, "transfer-partition-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void enqueue(Command command) {
+            queue.add(command);
+        }
+
+        private void loop() {
+            List<Command> batch = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Command first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    execute(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("partition loop error", e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void stop() {
+            running = false;
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
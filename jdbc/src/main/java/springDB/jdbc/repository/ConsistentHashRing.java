@@ -0,0 +1,64 @@
+package springDB.jdbc.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consistent Hashing - memberId를 shard index로 매핑
+ * + shard마다 여러 개의 virtual node를 ring에 배치해서 분포를 고르게 함
+ * + shard 추가 시 전체가 아닌 일부 key만 이동
+ */
+public class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final TreeMap<Integer, Integer> ring = new TreeMap<>();
+    private final int shardCount;
+
+    public ConsistentHashRing(int shardCount) {
+        this(shardCount, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("shardCount, virtualNodes must be positive");
+        }
+        this.shardCount = shardCount;
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring.put(hash("shard-" + shard + "#" + v), shard);
+            }
+        }
+    }
+
+    public int shardOf(String key) {
+        // * 시계 방향으로 가장 가까운 node -> 끝을 넘어가면 처음으로 wrap around
+        Map.Entry<Integer, Integer> entry = ring.ceilingEntry(hash(key));
+        if (entry == null) {
+            entry = ring.firstEntry();
+        }
+        return entry.getValue();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // * FNV-1a + murmur3 finalizer
+    // - String.hashCode()는 비슷한 id끼리 값이 몰리므로 ring에 고르게 퍼지도록 섞어줌
+    static int hash(String key) {
+        int h = 0x811c9dc5;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,30 @@
+package springDB.jdbc.repository;
+
+import springDB.jdbc.domain.Member;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 잔액 구간 조회를 지원하는 Repository
+ * - idx_member_money(money, member_id)가 있는 JdbcTemplate 기반 구현(V5)과 그 Decorator만 구현
+ * + 구간 조회가 필요한 곳은 MemberRepository 대신 이 타입을 의존
+ */
+public interface MemberRangeRepository extends MemberRepository {
+
+    // * 잔액 구간 조회의 정렬 기준 - (money, member_id)
+    Comparator<Member> MONEY_ORDER = Comparator.comparingInt(Member::getMoney).thenComparing(Member::getMemberId);
+
+    // * 잔액 구간 조회 - (money, member_id) 순서의 첫 페이지
+    default List<Member> findByMoneyBetween(int min, int max, int limit) {
+        return findByMoneyBetween(min, max, null, limit);
+    }
+
+    // * keyset 페이징 - after(이전 페이지의 마지막 회원) 다음부터 limit개
+    // + offset 방식과 달리 앞 페이지를 다시 읽지 않음
+    List<Member> findByMoneyBetween(int min, int max, Member after, int limit);
+
+    // * 구간 전체를 heap에 올리지 않고 스트리밍 -> 사용 후 반드시 close (try-with-resources)
+    Stream<Member> streamByMoneyBetween(int min, int max);
+}
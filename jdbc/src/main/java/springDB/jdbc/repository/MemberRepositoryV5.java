@@ -12,14 +12,16 @@ import springDB.jdbc.domain.Member;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 /**
  * JDBCTemplate 사용하기
  */
 
 @Slf4j
-public class MemberRepositoryV5 implements MemberRepository{
+public class MemberRepositoryV5 implements MemberRangeRepository {
 
     // * 기존의 의존성 변경
 
@@ -29,12 +31,20 @@ public class MemberRepositoryV5 implements MemberRepository{
     // 2. ExceptionTranslator -> 예외 변환 또한 tempalte에서 모두 처리해줌
     //private final SQLExceptionTranslator exTranslator;
 
+    // * 스트리밍 조회 시 한 번에 가져올 row 수 - 구간 전체를 한 번에 버퍼링하지 않음
+    public static final int STREAM_FETCH_SIZE = 500;
+
     private final JdbcTemplate template;
 
+    // * 스트리밍 조회 전용 template - fetchSize 설정
+    private final JdbcTemplate streamTemplate;
+
     public MemberRepositoryV5(DataSource dataSource) {
         //this.dataSource = dataSource;
         //this.exTranslator = new SQLErrorCodeSQLExceptionTranslator(dataSource);
         this.template = new JdbcTemplate(dataSource);
+        this.streamTemplate = new JdbcTemplate(dataSource);
+        this.streamTemplate.setFetchSize(STREAM_FETCH_SIZE);
     }
 
     @Override
@@ -112,6 +122,29 @@ public class MemberRepositoryV5 implements MemberRepository{
 
     }
 
+    @Override
+    public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+        // * idx_member_money(money, member_id)를 그대로 타도록 정렬 조건과 index 순서를 맞춤
+        if (after == null) {
+            String sql = "select * from member where money between ? and ? order by money, member_id limit ?";
+            return template.query(sql, memberRowMapper(), min, max, limit);
+        }
+
+        String sql = "select * from member where money between ? and ?" +
+                " and (money > ? or (money = ? and member_id > ?))" +
+                " order by money, member_id limit ?";
+        return template.query(sql, memberRowMapper(),
+                Math.max(min, after.getMoney()), max, after.getMoney(), after.getMoney(), after.getMemberId(), limit);
+    }
+
+    @Override
+    public Stream<Member> streamByMoneyBetween(int min, int max) {
+        String sql = "select * from member where money between ? and ? order by money, member_id";
+
+        // * queryForStream - ResultSet을 열어둔 채로 한 row씩 매핑, con은 Stream close() 시점에 반환
+        return streamTemplate.queryForStream(sql, memberRowMapper(), min, max);
+    }
+
     private RowMapper<Member> memberRowMapper() {
         return (rs, rowNum) -> {
             Member member = new Member();
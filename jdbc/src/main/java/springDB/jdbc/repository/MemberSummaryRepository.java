@@ -0,0 +1,124 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springDB.jdbc.domain.MemberSummary;
+
+import javax.sql.DataSource;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * member_summary 테이블 접근
+ * - 갱신 : 임의의 stripe 하나에 증감분만 더함 -> 동시 갱신이 한 row에 몰리지 않음
+ * - 조회 : stripe를 합산 -> 비용은 회원 수가 아닌 O(stripe x bucket)
+ * - transaction 안의 갱신은 증감분을 bucket별로 모아두었다가 commit 직전에 stripe 하나에 bucket 순서로 반영
+ *   -> 이체 / 수정 1건이 여러 row를 잠가도 모든 transaction이 같은 순서로 잠그므로 deadlock 없음
+ *   -> 같은 transaction 안에서 summary()를 조회하면 아직 반영 전의 값
+ */
+@Slf4j
+public class MemberSummaryRepository {
+
+    // * V3__member_summary.sql 과 동일해야 함
+    public static final int STRIPES = 16;
+    public static final int BUCKETS = 16;
+    public static final int BUCKET_WIDTH = 5000;
+
+    private final JdbcTemplate template;
+
+    public MemberSummaryRepository(DataSource dataSource) {
+        this.template = new JdbcTemplate(dataSource);
+    }
+
+    public static int bucketOf(int money) {
+        return Math.min(Math.max(money / BUCKET_WIDTH, 0), BUCKETS - 1);
+    }
+
+    public void add(int money) {
+        apply(bucketOf(money), 1, money);
+    }
+
+    public void remove(int money) {
+        apply(bucketOf(money), -1, -money);
+    }
+
+    public void change(int oldMoney, int newMoney) {
+        int oldBucket = bucketOf(oldMoney);
+        int newBucket = bucketOf(newMoney);
+
+        if (oldBucket == newBucket) {
+            apply(oldBucket, 0, newMoney - oldMoney);
+            return;
+        }
+        apply(oldBucket, -1, -oldMoney);
+        apply(newBucket, 1, newMoney);
+    }
+
+    public MemberSummary summary() {
+        long[] histogram = new long[BUCKETS];
+        long[] totals = new long[2];
+
+        template.query("select bucket, sum(member_count), sum(total_money) from member_summary group by bucket", rs -> {
+            histogram[rs.getInt(1)] = rs.getLong(2);
+            totals[0] += rs.getLong(2);
+            totals[1] += rs.getLong(3);
+        });
+        return new MemberSummary(totals[0], totals[1], histogram);
+    }
+
+    private void apply(int bucket, long countDelta, long moneyDelta) {
+        if (countDelta == 0 && moneyDelta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingDeltas().add(bucket, countDelta, moneyDelta);
+            return;
+        }
+        update(ThreadLocalRandom.current().nextInt(STRIPES), bucket, countDelta, moneyDelta);
+    }
+
+    // * transaction마다 하나 - 첫 갱신 시 등록, 완료(commit / rollback) 시 해제
+    private PendingDeltas pendingDeltas() {
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    private void update(int stripe, int bucket, long countDelta, long moneyDelta) {
+        String sql = "update member_summary set member_count = member_count + ?, total_money = total_money + ?" +
+                " where stripe = ? and bucket = ?";
+        template.update(sql, countDelta, moneyDelta, stripe, bucket);
+    }
+
+    private class PendingDeltas implements TransactionSynchronization {
+
+        private final TreeMap<Integer, long[]> deltas = new TreeMap<>(); // bucket -> {count, money}
+
+        void add(int bucket, long countDelta, long moneyDelta) {
+            long[] delta = deltas.computeIfAbsent(bucket, b -> new long[2]);
+            delta[0] += countDelta;
+            delta[1] += moneyDelta;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+            deltas.forEach((bucket, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0) {
+                    update(stripe, bucket, delta[0], delta[1]);
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemberSummaryRepository.this);
+        }
+    }
+}
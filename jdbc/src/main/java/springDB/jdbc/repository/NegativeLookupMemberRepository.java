@@ -0,0 +1,272 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springDB.jdbc.domain.Member;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 없는 member_id 조회를 DB까지 보내지 않는 Repository (Decorator)
+ * 1. Bloom filter - 시작 시 member_id 전체를 streaming scan해서 생성, save 시 추가
+ *    - filter에 없으면 확실히 없는 회원 -> con 획득 없이 바로 NoSuchElementException
+ * 2. negative cache - filter를 통과했지만(오탐, 삭제된 회원) DB에 없었던 id를 negativeTtl 동안 기억
+ *    - 최대 negativeCacheSize개, 가득 차면 임의의 항목을 하나 밀어냄 + negativeTtl마다 만료된 항목 정리
+ * 3. save / delete 시 negative cache에서 제거, save는 delegate보다 먼저 filter에 추가
+ *    (commit 직후의 조회가 filter에 막히지 않도록, rollback되면 오탐이 하나 늘 뿐)
+ *    - save 중에 동시에 실패한 조회가 다시 cache할 수 있으므로 delegate.save 이후, transaction이면 commit 이후에도 제거
+ *    - 조회 시작 이후에 제거가 있었으면 그 조회의 실패는 cache하지 않음 (commit 전에 DB를 읽은 조회)
+ * + 없는 회원은 delegate 종류와 상관없이 NoSuchElementException으로 통일
+ * + 다른 node에서 save한 회원은 이 filter에 없음 -> 여러 node가 쓰는 경우 change feed로 onSaved() 호출
+ * + 삭제된 id는 filter에서 지울 수 없으므로 오탐률이 올라가면 rebuild()
+ *   - scan 이후에 commit되는 save를 놓치지 않도록 이전 filter도 REBUILD_GRACE 동안 함께 확인
+ */
+@Slf4j
+public class NegativeLookupMemberRepository implements MemberRangeRepository {
+
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(10);
+    public static final int DEFAULT_NEGATIVE_CACHE_SIZE = 100_000;
+
+    private static final int SCAN_FETCH_SIZE = 1000;
+    // * 가장 긴 transaction보다 길게
+    private static final long REBUILD_GRACE_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final MemberRangeRepository delegate;
+    private final JdbcTemplate scanTemplate;
+    private final long expectedMembers;
+    private final double falsePositiveRate;
+    private final long negativeTtlNanos;
+    private final int negativeCacheSize;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    // * filter와 만료 시각을 하나의 불변 객체로 교체 -> 읽는 쪽이 이전 만료 시각과 새 filter를 섞어 보지 않음
+    private volatile Retired retired;
+    private final Map<String, Long> negativeCache = new ConcurrentHashMap<>(); // memberId -> 만료 시각(nanoTime)
+    private volatile long nextSweep;
+    // * negative cache 제거 횟수 - 조회 도중에 바뀌었으면 그 조회 결과는 cache하지 않음
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder filterRejects = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    public NegativeLookupMemberRepository(DataSource dataSource, long expectedMembers) {
+        this(new MemberRepositoryV5(dataSource), dataSource, expectedMembers,
+                DEFAULT_FALSE_POSITIVE_RATE, DEFAULT_NEGATIVE_TTL);
+    }
+
+    public NegativeLookupMemberRepository(MemberRangeRepository delegate, DataSource dataSource, long expectedMembers,
+                                          double falsePositiveRate, Duration negativeTtl) {
+        this(delegate, dataSource, expectedMembers, falsePositiveRate, negativeTtl, DEFAULT_NEGATIVE_CACHE_SIZE);
+    }
+
+    public NegativeLookupMemberRepository(MemberRangeRepository delegate, DataSource dataSource, long expectedMembers,
+                                          double falsePositiveRate, Duration negativeTtl, int negativeCacheSize) {
+        this.delegate = delegate;
+        this.scanTemplate = new JdbcTemplate(dataSource);
+        this.scanTemplate.setFetchSize(SCAN_FETCH_SIZE);
+        this.expectedMembers = expectedMembers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.negativeCacheSize = negativeCacheSize;
+        this.nextSweep = System.nanoTime() + negativeTtlNanos;
+        rebuild();
+    }
+
+    // * member_id 전체를 다시 읽어서 filter 교체 - 생성 중에 save된 id는 onSaved()가 새 filter에도 기록
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        BloomFilter next = new BloomFilter(expectedMembers, falsePositiveRate);
+        building = next;
+
+        long[] count = new long[1];
+        try {
+            scanTemplate.query("select member_id from member", rs -> {
+                next.put(rs.getString(1));
+                count[0]++;
+            });
+        } finally {
+            building = null;
+        }
+
+        BloomFilter previous = filter;
+        if (previous != null) {
+            retired = new Retired(previous, System.nanoTime() + REBUILD_GRACE_NANOS);
+        }
+        filter = next;
+        negativeCache.clear();
+        log.info("member bloom filter built. members = {}, bits = {}, hashes = {}, memory = {}bytes, time = {}ms",
+                count[0], next.bitSize(), next.hashFunctions(), next.memoryBytes(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public Member save(Member member) {
+        String memberId = member.getMemberId();
+        onSaved(memberId);
+        Member saved = delegate.save(member);
+        invalidate(memberId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(memberId);
+                }
+            });
+        }
+        return saved;
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        lookups.increment();
+        if (!mightContain(memberId)) {
+            filterRejects.increment();
+            throw notFound(memberId);
+        }
+
+        Long expiresAt = negativeCache.get(memberId);
+        if (expiresAt != null) {
+            if (System.nanoTime() - expiresAt < 0) {
+                negativeHits.increment();
+                throw notFound(memberId);
+            }
+            negativeCache.remove(memberId, expiresAt);
+        }
+
+        long version = invalidations.get();
+        try {
+            return delegate.findById(memberId);
+        } catch (EmptyResultDataAccessException | NoSuchElementException e) {
+            falsePositives.increment();
+            if (invalidations.get() == version) {
+                cacheNegative(memberId);
+            }
+            throw notFound(memberId);
+        }
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        delegate.update(memberId, money);
+    }
+
+    @Override
+    public void delete(String memberId) {
+        delegate.delete(memberId);
+        invalidate(memberId);
+    }
+
+    @Override
+    public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+        return delegate.findByMoneyBetween(min, max, after, limit);
+    }
+
+    @Override
+    public Stream<Member> streamByMoneyBetween(int min, int max) {
+        return delegate.streamByMoneyBetween(min, max);
+    }
+
+    // * 다른 경로(다른 node, bulk import 등)로 추가된 회원을 알려줌
+    public void onSaved(String memberId) {
+        filter.put(memberId);
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(memberId);
+        }
+        invalidate(memberId);
+    }
+
+    private void invalidate(String memberId) {
+        invalidations.incrementAndGet();
+        negativeCache.remove(memberId);
+    }
+
+    private boolean mightContain(String memberId) {
+        if (filter.mightContain(memberId)) {
+            return true;
+        }
+        Retired previous = retired;
+        if (previous == null) {
+            return false;
+        }
+        if (System.nanoTime() - previous.until() >= 0) {
+            retired = null;
+            return false;
+        }
+        return previous.filter().mightContain(memberId);
+    }
+
+    private void cacheNegative(String memberId) {
+        long now = System.nanoTime();
+        if (now - nextSweep >= 0) {
+            // 조회되지 않고 남아있는 만료 항목 정리 - negativeTtl에 한 번
+            nextSweep = now + negativeTtlNanos;
+            negativeCache.values().removeIf(expiresAt -> now - expiresAt >= 0);
+        }
+        if (negativeCache.size() >= negativeCacheSize) {
+            Iterator<String> victims = negativeCache.keySet().iterator();
+            if (victims.hasNext()) {
+                victims.next();
+                victims.remove();
+            }
+        }
+        negativeCache.put(memberId, now + negativeTtlNanos);
+    }
+
+    // ==== metrics ====
+
+    public long lookups() {
+        return lookups.sum();
+    }
+
+    // * filter에서 바로 걸러진 조회 수 (con 획득 없음)
+    public long filterRejects() {
+        return filterRejects.sum();
+    }
+
+    // * negative cache로 응답한 조회 수 (con 획득 없음)
+    public long negativeHits() {
+        return negativeHits.sum();
+    }
+
+    // * filter를 통과했지만 DB에 없었던 조회 수 (오탐 + 삭제된 회원)
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    public int negativeCacheSize() {
+        return negativeCache.size();
+    }
+
+    public double estimatedFalsePositiveRate() {
+        return filter.estimatedFalsePositiveRate();
+    }
+
+    public long filterMemoryBytes() {
+        return filter.memoryBytes();
+    }
+
+    private static NoSuchElementException notFound(String memberId) {
+        return new NoSuchElementException("member not found. memberId = " + memberId);
+    }
+
+    // rebuild 직전까지 쓰던 filter - until(nanoTime)까지만 함께 확인
+    private record Retired(BloomFilter filter, long until) {
+    }
+}
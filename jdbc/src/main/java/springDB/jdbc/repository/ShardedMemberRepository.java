@@ -0,0 +1,131 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import springDB.jdbc.domain.Member;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sharding - memberId를 Consistent Hashing으로 N개의 DataSource 중 하나에 매핑
+ * + 각 shard는 JdbcTemplate 기반의 MemberRepositoryV5가 담당
+ * -> shard별 transaction은 해당 shard의 DataSource로 만든 TransactionManager를 사용
+ */
+@Slf4j
+public class ShardedMemberRepository implements MemberRangeRepository {
+
+    private final List<DataSource> dataSources;
+    private final List<MemberRangeRepository> repositories = new ArrayList<>();
+    private final ConsistentHashRing ring;
+
+    public ShardedMemberRepository(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+        this.ring = new ConsistentHashRing(dataSources.size());
+
+        for (DataSource dataSource : this.dataSources) {
+            repositories.add(new MemberRepositoryV5(dataSource));
+        }
+    }
+
+    @Override
+    public Member save(Member member) {
+        return repositoryOf(member.getMemberId()).save(member);
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        return repositoryOf(memberId).findById(memberId);
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        repositoryOf(memberId).update(memberId, money);
+    }
+
+    @Override
+    public void delete(String memberId) {
+        repositoryOf(memberId).delete(memberId);
+    }
+
+    // * 각 shard에서 같은 keyset 조건으로 limit개씩 가져온 뒤 합쳐서 limit개만 반환
+    @Override
+    public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+        List<Member> merged = new ArrayList<>();
+        for (MemberRangeRepository repository : repositories) {
+            merged.addAll(repository.findByMoneyBetween(min, max, after, limit));
+        }
+        merged.sort(MONEY_ORDER);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // * 각 shard의 stream(이미 정렬됨)을 k-way merge -> shard 수만큼의 row만 메모리에 유지
+    @Override
+    public Stream<Member> streamByMoneyBetween(int min, int max) {
+        List<Stream<Member>> streams = new ArrayList<>();
+        try {
+            for (MemberRangeRepository repository : repositories) {
+                streams.add(repository.streamByMoneyBetween(min, max));
+            }
+        } catch (RuntimeException e) {
+            streams.forEach(Stream::close);
+            throw e;
+        }
+
+        Iterator<Member> merged = new MergeIterator(streams.stream().map(Stream::iterator).toList());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    public int shardOf(String memberId) {
+        return ring.shardOf(memberId);
+    }
+
+    public int shardCount() {
+        return dataSources.size();
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    private MemberRangeRepository repositoryOf(String memberId) {
+        int shard = shardOf(memberId);
+        log.debug("memberId = {} -> shard = {}", memberId, shard);
+        return repositories.get(shard);
+    }
+
+    private static class MergeIterator implements Iterator<Member> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> MONEY_ORDER.compare(a.member, b.member));
+
+        MergeIterator(List<Iterator<Member>> iterators) {
+            for (Iterator<Member> iterator : iterators) {
+                if (iterator.hasNext()) {
+                    heads.add(new Head(iterator.next(), iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Member next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            if (head.iterator.hasNext()) {
+                heads.add(new Head(head.iterator.next(), head.iterator));
+            }
+            return head.member;
+        }
+
+        private record Head(Member member, Iterator<Member> iterator) {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * member_summary를 함께 갱신하는 Repository (Decorator)
+ * - save / update / delete 시 member 변경과 summary 증감을 같은 transaction에서 처리
+ * - 이미 transaction이 있으면 참여(이체 등), 없으면 메서드 단위로 새 transaction 시작
+ * - update / delete는 변경 전 잔액을 select ... for update로 읽음 -> 동시 변경에도 증감분이 정확
+ * + delegate와 summary는 같은 DataSource를 사용해야 같은 con(transaction)을 공유
+ */
+@Slf4j
+public class SummarizingMemberRepository implements MemberRangeRepository {
+
+    private final MemberRangeRepository delegate;
+    private final MemberSummaryRepository summaryRepository;
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+
+    public SummarizingMemberRepository(DataSource dataSource) {
+        this(new MemberRepositoryV5(dataSource), dataSource);
+    }
+
+    public SummarizingMemberRepository(MemberRangeRepository delegate, DataSource dataSource) {
+        this.delegate = delegate;
+        this.summaryRepository = new MemberSummaryRepository(dataSource);
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public Member save(Member member) {
+        return txTemplate.execute(status -> {
+            Member saved = delegate.save(member);
+            summaryRepository.add(member.getMoney());
+            return saved;
+        });
+    }
+
+    @Override
+    public Member findById(String memberId) {
+        return delegate.findById(memberId);
+    }
+
+    @Override
+    public void update(String memberId, int money) {
+        txTemplate.executeWithoutResult(status -> {
+            Integer before = lockMoney(memberId);
+            if (before == null) {
+                // 없는 회원 수정 -> 기존 Repository처럼 아무 일도 하지 않음
+                return;
+            }
+            delegate.update(memberId, money);
+            summaryRepository.change(before, money);
+        });
+    }
+
+    @Override
+    public void delete(String memberId) {
+        txTemplate.executeWithoutResult(status -> {
+            Integer before = lockMoney(memberId);
+            if (before == null) {
+                // 없는 회원 삭제 -> 기존 Repository처럼 아무 일도 하지 않음
+                return;
+            }
+            delegate.delete(memberId);
+            summaryRepository.remove(before);
+        });
+    }
+
+    @Override
+    public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+        return delegate.findByMoneyBetween(min, max, after, limit);
+    }
+
+    @Override
+    public Stream<Member> streamByMoneyBetween(int min, int max) {
+        return delegate.streamByMoneyBetween(min, max);
+    }
+
+    // * 변경 전 잔액을 row lock과 함께 읽음 -> commit 전까지 다른 transaction이 바꿀 수 없으므로 증감분이 어긋나지 않음
+    // + 없는 회원이면 null
+    private Integer lockMoney(String memberId) {
+        List<Integer> money = template.query("select money from member where member_id=? for update",
+                (rs, rowNum) -> rs.getInt(1), memberId);
+        return money.isEmpty() ? null : money.get(0);
+    }
+
+    public MemberSummaryRepository summaryRepository() {
+        return summaryRepository;
+    }
+}
@@ -0,0 +1,100 @@
+package springDB.jdbc.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Repository 쿼리의 실행 계획(EXPLAIN) 확인
+ * - H2 실행 계획에 tableScan이 있으면 index를 타지 못하는 쿼리
+ * -> 시작 시점에 확인해서 index 누락으로 인한 full scan을 바로 발견
+ * + EXPLAIN은 bind parameter 대신 예시 값(literal)을 넣은 쿼리로 실행
+ * + 테이블 전체를 읽는 것이 목적인 쿼리(시작 시 복구, 작은 집계 테이블)는 fullScan으로 등록 -> 계획만 기록하고 보고하지 않음
+ */
+@Slf4j
+public class QueryPlanVerifier {
+
+    public static final String TABLE_SCAN = "tableScan";
+
+    // * Repository, change feed, journal / ledger, 이체 실행기가 사용하는 쿼리 -> 새 쿼리가 추가되면 여기에도 추가
+    private final Map<String, String> queries = new LinkedHashMap<>();
+    private final Set<String> fullScans = new HashSet<>();
+
+    private final JdbcTemplate template;
+
+    public QueryPlanVerifier(DataSource dataSource) {
+        this.template = new JdbcTemplate(dataSource);
+
+        queries.put("findById", "select * from member where member_id = 'x'");
+        queries.put("update", "update member set money=0 where member_id='x'");
+        queries.put("delete", "delete from member where member_id='x'");
+        queries.put("findByMoneyBetween", "select * from member where money between 0 and 100 order by money, member_id limit 10");
+        queries.put("insert", "insert into member(member_id, money) values('x', 0)");
+        queries.put("lockMoney", "select money from member where member_id='x' for update");
+
+        // member_summary
+        queries.put("summaryUpdate", "update member_summary set member_count = member_count + 1 where stripe = 0 and bucket = 0");
+        addFullScan("summarySelect", "select bucket, sum(member_count), sum(total_money) from member_summary group by bucket");
+
+        // member_changes (ChangeCapturingMemberRepository, MemberChangePoller)
+        queries.put("changeInsert", "insert into member_changes(member_id, op, money, changed_at) values('x', 'U', 0, 0)");
+        queries.put("changePoll", "select seq, member_id, op, money, changed_at from member_changes where seq > 0 order by seq limit 500");
+        queries.put("changeGapRetry", "select seq, member_id, op, money, changed_at from member_changes where seq in (1, 2) order by seq");
+        queries.put("changePurge", "delete from member_changes where seq <= 0");
+
+        // pending_transfer (PartitionedTransferExecutor)
+        queries.put("pendingTransferInsert", "insert into pending_transfer(transfer_id, from_id, to_id, money) values(1, 'a', 'b', 1)");
+        queries.put("pendingTransferDelete", "delete from pending_transfer where transfer_id=1");
+        addFullScan("pendingTransferMaxId", "select coalesce(max(transfer_id), 0) from pending_transfer");
+        addFullScan("pendingTransferSettle", "select transfer_id, from_id, to_id, money from pending_transfer order by transfer_id");
+
+        // saga_transfer (MemberServiceV4_1)
+        queries.put("sagaInsert", "insert into saga_transfer(transfer_id, from_id, to_id, money, step) values('t', 'a', 'b', 1, 'DEBITED')");
+        queries.put("sagaDelete", "delete from saga_transfer where transfer_id='t' and step='DEBITED'");
+        queries.put("sagaCredited", "select count(*) from saga_transfer where transfer_id = 't' and step = 'CREDITED'");
+        addFullScan("sagaSettle", "select transfer_id, from_id, to_id, money from saga_transfer where step = 'DEBITED' order by transfer_id");
+
+        // replay_checkpoint, member_snapshot (BalanceRebuilder), ledger_snapshot (LedgerSnapshot)
+        queries.put("checkpointRead", "select sequence from replay_checkpoint where id = 1");
+        queries.put("checkpointMerge", "merge into replay_checkpoint(id, sequence) key(id) values(1, 0)");
+        addFullScan("memberSnapshotLoad", "select member_id, money from member_snapshot");
+        queries.put("ledgerSnapshotInsert", "insert into ledger_snapshot(member_id, money) values('x', 0)");
+        addFullScan("ledgerSnapshotLoad", "select member_id, money from ledger_snapshot");
+        addFullScan("ledgerSnapshotClear", "delete from ledger_snapshot");
+    }
+
+    public QueryPlanVerifier addQuery(String name, String explainableSql) {
+        queries.put(name, explainableSql);
+        return this;
+    }
+
+    // * 전체를 읽는 것이 의도인 쿼리 - 계획은 기록하지만 verify() 결과에는 포함하지 않음
+    public QueryPlanVerifier addFullScan(String name, String explainableSql) {
+        queries.put(name, explainableSql);
+        fullScans.add(name);
+        return this;
+    }
+
+    // * full scan하는 쿼리 이름 목록 반환
+    public List<String> verify() {
+        List<String> scans = new ArrayList<>();
+
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            String plan = template.queryForObject("explain " + query.getValue(), String.class);
+            log.info("[{}] plan = {}", query.getKey(), plan);
+
+            if (plan != null && plan.contains(TABLE_SCAN) && !fullScans.contains(query.getKey())) {
+                log.warn("[{}] index를 사용하지 않는 쿼리 - {}", query.getKey(), query.getValue());
+                scans.add(query.getKey());
+            }
+        }
+        return scans;
+    }
+}
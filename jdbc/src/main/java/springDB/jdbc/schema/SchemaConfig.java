@@ -0,0 +1,32 @@
+package springDB.jdbc.schema;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * 시작 시점(테스트 포함)에 Schema 초기화 + 실행 계획 확인
+ * - springdb.schema.init.enabled=false 로 끌 수 있음
+ * - springdb.schema.explain.fail-on-scan=true 이면 full scan 쿼리가 있을 때 시작 실패
+ */
+@Configuration
+@ConditionalOnProperty(name = "springdb.schema.init.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaConfig {
+
+    @Bean
+    SchemaInitializer schemaInitializer(DataSource dataSource,
+                                        @Value("${springdb.schema.explain.fail-on-scan:false}") boolean failOnScan) {
+        SchemaInitializer initializer = new SchemaInitializer(dataSource);
+        initializer.initialize();
+
+        List<String> scans = new QueryPlanVerifier(dataSource).verify();
+        if (failOnScan && !scans.isEmpty()) {
+            throw new IllegalStateException("index를 사용하지 않는 쿼리 = " + scans);
+        }
+        return initializer;
+    }
+}
@@ -0,0 +1,87 @@
+package springDB.jdbc.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned Schema 초기화
+ * 1. classpath:sql/V{version}__{name}.sql 스크립트를 version 순서대로 실행
+ * 2. 실행한 version은 schema_version 테이블에 기록 -> 이미 적용된 version은 건너뜀
+ * + 스크립트는 if not exists로 작성 -> 기록이 없는 기존 DB에 다시 실행되어도 안전
+ */
+@Slf4j
+public class SchemaInitializer {
+
+    public static final String SCRIPT_LOCATION = "classpath:sql/V*__*.sql";
+    private static final Pattern VERSION_PATTERN = Pattern.compile("V(\\d+)__.+\\.sql");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate template;
+    private final TransactionTemplate txTemplate;
+
+    public SchemaInitializer(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.template = new JdbcTemplate(dataSource);
+        this.txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    public int initialize() {
+        template.execute("create table if not exists schema_version (" +
+                "version integer primary key, " +
+                "script varchar(255) not null, " +
+                "installed_on timestamp default current_timestamp)");
+
+        Integer current = template.queryForObject("select coalesce(max(version), 0) from schema_version", Integer.class);
+
+        int applied = 0;
+        for (var entry : scripts().entrySet()) {
+            int version = entry.getKey();
+            Resource script = entry.getValue();
+            if (version <= current) {
+                continue;
+            }
+
+            // * 스크립트 실행과 version 기록을 하나의 transaction으로
+            txTemplate.executeWithoutResult(status -> {
+                new ResourceDatabasePopulator(script).execute(dataSource);
+                template.update("insert into schema_version(version, script) values(?, ?)", version, script.getFilename());
+            });
+            log.info("schema version {} applied - {}", version, script.getFilename());
+            applied++;
+        }
+        return applied;
+    }
+
+    public int currentVersion() {
+        return template.queryForObject("select coalesce(max(version), 0) from schema_version", Integer.class);
+    }
+
+    private TreeMap<Integer, Resource> scripts() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SCRIPT_LOCATION);
+            TreeMap<Integer, Resource> scripts = new TreeMap<>(Comparator.naturalOrder());
+            for (Resource resource : List.of(resources)) {
+                Matcher matcher = VERSION_PATTERN.matcher(resource.getFilename());
+                if (matcher.matches()) {
+                    scripts.put(Integer.parseInt(matcher.group(1)), resource);
+                }
+            }
+            return scripts;
+        } catch (IOException e) {
+            throw new IllegalStateException("schema script 조회 실패", e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package springDB.jdbc.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+/**
+ * batch 이체 결과 - 성공 건수, 실패한 요청의 index와 원인
+ */
+@Getter
+@ToString
+public class BatchTransferResult {
+
+    private final int succeeded;
+    private final Map<Integer, RuntimeException> failures;
+
+    public BatchTransferResult(int succeeded, Map<Integer, RuntimeException> failures) {
+        this.succeeded = succeeded;
+        this.failures = failures;
+    }
+
+    public boolean isFailed(int index) {
+        return failures.containsKey(index);
+    }
+}
@@ -0,0 +1,52 @@
+package springDB.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRangeRepository;
+
+import java.util.List;
+
+/**
+ * 조회 전용 Service - 모든 메서드가 readOnly transaction
+ * - readOnly -> con.setReadOnly(true) 전달, 쓰기 lock 없이 조회, replica 라우팅 가능
+ * - 격리수준은 지정하지 않음(DEFAULT) -> 낮출 필요가 있을 때만 ReadOnlyAwareTransactionManager가 조정
+ * + 여러 건의 조회를 하나의 transaction(같은 con)에서 처리 -> con 획득은 한 번
+ *   - 단, READ_COMMITTED에서는 statement마다 그 시점에 commit된 값을 읽으므로 조회끼리 시점이 다를 수 있음
+ *   - 여러 회원의 합계처럼 같은 시점이 필요한 조회(totalBalance)만 REPEATABLE_READ
+ */
+@Slf4j
+public class MemberQueryService {
+
+    private final MemberRangeRepository memberRepository;
+
+    public MemberQueryService(MemberRangeRepository memberRepository) {
+        this.memberRepository = memberRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Member findMember(String memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Transactional(readOnly = true)
+    public int balanceOf(String memberId) {
+        return memberRepository.findById(memberId).getMoney();
+    }
+
+    // * 합산 도중에 commit된 이체가 절반만 반영되지 않도록 - 첫 조회 시점의 snapshot으로 읽음
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long totalBalance(List<String> memberIds) {
+        long total = 0;
+        for (String memberId : memberIds) {
+            total += memberRepository.findById(memberId).getMoney();
+        }
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Member> findByMoneyBetween(int min, int max, int limit) {
+        return memberRepository.findByMoneyBetween(min, max, limit);
+    }
+}
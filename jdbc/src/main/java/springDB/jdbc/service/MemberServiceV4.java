@@ -2,9 +2,16 @@ package springDB.jdbc.service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import springDB.jdbc.domain.Member;
+import springDB.jdbc.journal.TransferJournal;
 import springDB.jdbc.repository.MemberRepository;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * 예외 누수 문제 해결
  * MemberRepository 인터페이스에 의존
@@ -18,14 +25,62 @@ public class MemberServiceV4 {
     //private final MemberRepositoryV3 memberRepository;
     private final MemberRepository memberRepository;
 
+    // * 이체 기록용 journal - 없으면 기록하지 않음
+    private final TransferJournal journal;
+
     // * 주입 또한 interface
     public MemberServiceV4(MemberRepository memberRepository) {
+        this(memberRepository, null);
+    }
+
+    public MemberServiceV4(MemberRepository memberRepository, TransferJournal journal) {
         this.memberRepository = memberRepository;
+        this.journal = journal;
     }
 
     @Transactional
     public void accountTransfer(String fromId, String toId, int money) {
         bizLogic(fromId, toId, money);
+        record(fromId, toId, money);
+    }
+
+    // * 여러 건을 하나의 transaction으로 처리 - 건마다 savepoint를 잡고, 실패한 건만 rollback 후 계속 진행
+    // - 건마다 transaction을 여는 것보다 commit(fsync) 횟수가 적고, 한 건 실패로 batch 전체를 잃지 않음
+    @Transactional
+    public BatchTransferResult accountTransferBatch(List<TransferRequest> requests) {
+        int succeeded = 0;
+        Map<Integer, RuntimeException> failures = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            try {
+                SavepointTemplate.execute(() ->
+                        bizLogic(request.getFromId(), request.getToId(), request.getMoney()));
+            } catch (RuntimeException e) {
+                log.info("transfer failed, rollback to savepoint. request = {}, cause = {}", request, e.getMessage());
+                failures.put(i, e);
+                continue;
+            }
+            record(request.getFromId(), request.getToId(), request.getMoney());
+            succeeded++;
+        }
+        return new BatchTransferResult(succeeded, failures);
+    }
+
+    // * commit된 이체만 journal에 기록 -> rollback된 이체는 남지 않음
+    private void record(String fromId, String toId, int money) {
+        if (journal == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            journal.append(fromId, toId, money);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                journal.append(fromId, toId, money);
+            }
+        });
     }
 
     // * interface에 의존하면서 SQLException 생략 가능해짐
@@ -0,0 +1,206 @@
+package springDB.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.ShardedMemberRepository;
+import springDB.jdbc.service.ex.TransferCompensationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sharding 적용
+ * 1. 같은 shard 간의 이체 -> 해당 shard 하나의 transaction으로 처리 (기존 V4와 동일)
+ * 2. 다른 shard 간의 이체 -> Saga
+ *    - 출금 transaction commit 후 입금 transaction 실행
+ *    - 입금 실패 시, 출금 shard에 보상(compensation) transaction으로 금액 복구
+ * 3. Saga 진행 상태는 saga_transfer에 기록 - memory에만 두면 출금 commit 이후 장애 시 금액 유실
+ *    - 출금과 같은 transaction에 DEBITED, 입금과 같은 transaction에 CREDITED 기록
+ *    - 보상은 입금 shard에 CREDITED가 없음을 확인한 뒤에만 실행, DEBITED 삭제와 같은 transaction
+ *    - 생성 시 남아있는 DEBITED를 정산 -> CREDITED가 있으면 정리만, 없으면 입금부터 다시 진행
+ *    - 입금 여부를 확인할 수 없거나 보상이 실패하면 TransferCompensationException (재시작 시 정산)
+ * + @Transactional은 하나의 TransactionManager만 사용하므로, shard별 TransactionTemplate을 직접 사용
+ */
+@Slf4j
+public class MemberServiceV4_1 {
+
+    private static final String DEBITED = "DEBITED";
+    private static final String CREDITED = "CREDITED";
+    private static final String INSERT_SQL = "insert into saga_transfer(transfer_id, from_id, to_id, money, step) values(?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "delete from saga_transfer where transfer_id=? and step=?";
+
+    private final ShardedMemberRepository memberRepository;
+    private final List<TransactionTemplate> txTemplates = new ArrayList<>();
+    private final List<JdbcTemplate> templates = new ArrayList<>();
+
+    public MemberServiceV4_1(ShardedMemberRepository memberRepository) {
+        this.memberRepository = memberRepository;
+
+        for (int shard = 0; shard < memberRepository.shardCount(); shard++) {
+            txTemplates.add(new TransactionTemplate(new DataSourceTransactionManager(memberRepository.dataSource(shard))));
+            templates.add(new JdbcTemplate(memberRepository.dataSource(shard)));
+        }
+        settlePending();
+    }
+
+    public void accountTransfer(String fromId, String toId, int money) {
+        int fromShard = memberRepository.shardOf(fromId);
+        int toShard = memberRepository.shardOf(toId);
+
+        if (fromShard == toShard) {
+            txTemplates.get(fromShard).executeWithoutResult(status -> bizLogic(fromId, toId, money));
+            return;
+        }
+
+        crossShardTransfer(fromShard, toShard, fromId, toId, money);
+    }
+
+    // * 남아있는 saga 수 (모든 shard의 DEBITED)
+    public int pendingTransfers() {
+        int count = 0;
+        for (JdbcTemplate template : templates) {
+            count += template.queryForObject("select count(*) from saga_transfer where step = ?", Integer.class, DEBITED);
+        }
+        return count;
+    }
+
+    private void bizLogic(String fromId, String toId, int money) {
+        Member fromMember = memberRepository.findById(fromId);
+        Member toMember = memberRepository.findById(toId);
+
+        memberRepository.update(fromId, fromMember.getMoney() - money);
+        validation(toMember);
+        memberRepository.update(toId, toMember.getMoney() + money);
+    }
+
+    private void crossShardTransfer(int fromShard, int toShard, String fromId, String toId, int money) {
+        log.info("cross shard transfer {}({}) -> {}({})", fromId, fromShard, toId, toShard);
+        Saga saga = new Saga(UUID.randomUUID().toString(), fromId, toId, money);
+
+        // * 1. 출금 - from shard의 transaction, saga 상태를 함께 기록
+        txTemplates.get(fromShard).executeWithoutResult(status -> {
+            Member fromMember = memberRepository.findById(fromId);
+            memberRepository.update(fromId, fromMember.getMoney() - money);
+            templates.get(fromShard).update(INSERT_SQL, saga.transferId(), fromId, toId, money, DEBITED);
+        });
+
+        // * 2. 입금, 실패 시 3. 보상
+        settle(saga);
+    }
+
+    private void settle(Saga saga) {
+        try {
+            credit(saga);
+        } catch (RuntimeException e) {
+            compensate(saga, e);
+            throw e;
+        }
+        finish(saga);
+    }
+
+    // * 입금 - to shard의 transaction, CREDITED가 이미 있으면 이전에 commit된 입금이므로 다시 하지 않음
+    private void credit(Saga saga) {
+        int toShard = memberRepository.shardOf(saga.toId());
+        txTemplates.get(toShard).executeWithoutResult(status -> {
+            if (credited(saga)) {
+                return;
+            }
+            Member toMember = memberRepository.findById(saga.toId());
+            validation(toMember);
+            memberRepository.update(saga.toId(), toMember.getMoney() + saga.money());
+            templates.get(toShard).update(INSERT_SQL, saga.transferId(), saga.fromId(), saga.toId(), saga.money(), CREDITED);
+        });
+    }
+
+    // * 보상 - 이미 commit된 출금을 되돌림, 입금되지 않았음을 확인한 뒤에만
+    private void compensate(Saga saga, RuntimeException cause) {
+        log.info("compensate withdraw. transferId = {}, memberId = {}, money = {}", saga.transferId(), saga.fromId(), saga.money());
+        int fromShard = memberRepository.shardOf(saga.fromId());
+        try {
+            if (credited(saga)) {
+                // 입금 commit 이후에 실패가 보고된 경우 - 보상하면 금액이 두 번 생김
+                finish(saga);
+                return;
+            }
+            txTemplates.get(fromShard).executeWithoutResult(status -> {
+                if (templates.get(fromShard).update(DELETE_SQL, saga.transferId(), DEBITED) == 0) {
+                    return;
+                }
+                Member fromMember = memberRepository.findById(saga.fromId());
+                memberRepository.update(saga.fromId(), fromMember.getMoney() + saga.money());
+            });
+        } catch (RuntimeException e) {
+            // *** 입금도 보상도 확정하지 못함 - saga_transfer에 남아 재시작 시 정산
+            log.error("compensation failed. transferId = {}, memberId = {}, money = {}",
+                    saga.transferId(), saga.fromId(), saga.money(), e);
+            TransferCompensationException unresolved =
+                    new TransferCompensationException(saga.transferId(), "compensation failed.", e);
+            unresolved.addSuppressed(cause);
+            throw unresolved;
+        }
+    }
+
+    // * 입금 확정 이후 정리 - 실패해도 이체는 끝난 것이므로 다음 정산에 맡김
+    private void finish(Saga saga) {
+        try {
+            templates.get(memberRepository.shardOf(saga.fromId())).update(DELETE_SQL, saga.transferId(), DEBITED);
+            templates.get(memberRepository.shardOf(saga.toId())).update(DELETE_SQL, saga.transferId(), CREDITED);
+        } catch (RuntimeException e) {
+            log.warn("saga cleanup failed. transferId = {}", saga.transferId(), e);
+        }
+    }
+
+    private boolean credited(Saga saga) {
+        return templates.get(memberRepository.shardOf(saga.toId())).queryForObject(
+                "select count(*) from saga_transfer where transfer_id = ? and step = ?",
+                Integer.class, saga.transferId(), CREDITED) > 0;
+    }
+
+    // * 이전 실행에서 끝나지 않은 saga - 입금부터 다시 진행, 짝이 없는 CREDITED는 삭제
+    private void settlePending() {
+        int settled = 0;
+        for (JdbcTemplate template : templates) {
+            List<Saga> pending = template.query(
+                    "select transfer_id, from_id, to_id, money from saga_transfer where step = ? order by transfer_id",
+                    (rs, rowNum) -> new Saga(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4)), DEBITED);
+            for (Saga saga : pending) {
+                try {
+                    settle(saga);
+                } catch (RuntimeException e) {
+                    log.error("pending transfer not settled. transferId = {}", saga.transferId(), e);
+                }
+                settled++;
+            }
+        }
+        for (JdbcTemplate template : templates) {
+            List<Saga> credited = template.query(
+                    "select transfer_id, from_id, to_id, money from saga_transfer where step = ?",
+                    (rs, rowNum) -> new Saga(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4)), CREDITED);
+            for (Saga saga : credited) {
+                JdbcTemplate fromTemplate = templates.get(memberRepository.shardOf(saga.fromId()));
+                if (fromTemplate.queryForObject("select count(*) from saga_transfer where transfer_id = ?",
+                        Integer.class, saga.transferId()) == 0) {
+                    template.update(DELETE_SQL, saga.transferId(), CREDITED);
+                }
+            }
+        }
+        if (settled > 0) {
+            log.info("pending transfers recovered = {}", settled);
+        }
+    }
+
+    private void validation(Member toMember) {
+        //예시를 위한 고의적인 예외 발생
+        if (toMember.getMemberId().equals("ex")) {
+            log.info("validation error");
+            throw new IllegalStateException("이체중 예외 발생");
+        }
+    }
+
+    private record Saga(String transferId, String fromId, String toId, int money) {
+    }
+}
@@ -0,0 +1,59 @@
+package springDB.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.function.Supplier;
+
+/**
+ * transaction 안의 부분 작업(sub-unit)을 savepoint로 감싸서 실행
+ * 1. 시작 전 createSavepoint()
+ * 2. 성공 -> releaseSavepoint(), 실패 -> rollbackToSavepoint() 후 예외를 그대로 던짐
+ *    -> 실패한 부분의 변경만 취소되고 바깥 transaction은 계속 진행 가능 (commit 여부는 호출자가 결정)
+ * + 실패 시 rollback-only로 표시되지 않으려면 sub-unit 안에서 @Transactional(REQUIRED) 프록시를 거치지 않아야 함
+ *   (참여한 transaction에서 예외가 나면 전체가 rollback-only로 표시됨)
+ * + savepoint 비용 - 생성 / 해제 각각 con에 대한 호출 1회 (SavepointBenchmark 참고)
+ */
+@Slf4j
+public class SavepointTemplate {
+
+    private SavepointTemplate() {
+    }
+
+    // * @Transactional 메서드 안에서 현재 transaction에 대해 실행
+    public static <T> T execute(Supplier<T> action) {
+        return execute(TransactionAspectSupport.currentTransactionStatus(), action);
+    }
+
+    public static void execute(Runnable action) {
+        execute(TransactionAspectSupport.currentTransactionStatus(), action);
+    }
+
+    public static void execute(TransactionStatus status, Runnable action) {
+        execute(status, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static <T> T execute(TransactionStatus status, Supplier<T> action) {
+        if (status.isCompleted()) {
+            throw new IllegalTransactionStateException("transaction already completed");
+        }
+        Object savepoint = status.createSavepoint();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException | Error e) {
+            log.debug("rollback to savepoint. cause = {}", e.toString());
+            status.rollbackToSavepoint(savepoint);
+            // rollbackToSavepoint는 해제까지 하지 않음 -> 쌓이지 않도록 해제
+            status.releaseSavepoint(savepoint);
+            throw e;
+        }
+        status.releaseSavepoint(savepoint);
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package springDB.jdbc.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 이체 요청 - batch 이체의 한 건
+ */
+@Getter
+@ToString
+public class TransferRequest {
+
+    private final String fromId;
+    private final String toId;
+    private final int money;
+
+    public TransferRequest(String fromId, String toId, int money) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.money = money;
+    }
+}
@@ -0,0 +1,19 @@
+package springDB.jdbc.service.ex;
+
+/**
+ * 출금은 commit되었지만 입금도 보상도 확정하지 못한 이체
+ * - 금액은 saga_transfer에 남아 있고 재시작 시 정산됨, 그 전까지 호출자는 이체 결과를 알 수 없음
+ */
+public class TransferCompensationException extends RuntimeException {
+
+    private final String transferId;
+
+    public TransferCompensationException(String transferId, String message, Throwable cause) {
+        super(message + " transferId = " + transferId, cause);
+        this.transferId = transferId;
+    }
+
+    public String getTransferId() {
+        return transferId;
+    }
+}
@@ -0,0 +1,6 @@
+-- member - 조회 / 수정 / 삭제 모두 member_id 기준 -> primary key
+create table if not exists member (
+    member_id varchar(10),
+    money integer not null default 0,
+    primary key (member_id)
+);
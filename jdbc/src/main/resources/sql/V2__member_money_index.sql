@@ -0,0 +1,2 @@
+-- 잔액 구간 조회, 잔액 순 정렬(leaderboard) - (money, member_id) 순서로 정렬된 결과를 index만으로 제공
+create index if not exists idx_member_money on member (money, member_id);
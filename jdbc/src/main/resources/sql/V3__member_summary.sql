@@ -0,0 +1,21 @@
+-- member_summary - 회원 수 / 잔액 합계 / 잔액 구간별(bucket) 회원 수
+-- 하나의 row에 갱신이 몰리지 않도록 stripe(16)개로 나눠서 누적하고, 조회 시 stripe를 합산
+-- stripe, bucket 수와 bucket 폭(5000)은 MemberSummaryRepository의 상수와 동일해야 함
+create table if not exists member_summary (
+    stripe integer not null,
+    bucket integer not null,
+    member_count bigint not null default 0,
+    total_money bigint not null default 0,
+    primary key (stripe, bucket)
+);
+
+insert into member_summary (stripe, bucket, member_count, total_money)
+select s.x, b.x, 0, 0
+from system_range(0, 15) s cross join system_range(0, 15) b
+where not exists (select 1 from member_summary);
+
+-- 기존 회원은 stripe 0에 반영
+update member_summary ms
+set member_count = (select count(*) from member m where least(greatest(m.money / 5000, 0), 15) = ms.bucket),
+    total_money = (select coalesce(sum(m.money), 0) from member m where least(greatest(m.money / 5000, 0), 15) = ms.bucket)
+where ms.stripe = 0;
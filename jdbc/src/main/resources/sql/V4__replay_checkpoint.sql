@@ -0,0 +1,13 @@
+-- journal 재생(replay)의 기준점 - checkpoint 시점의 잔액 snapshot + 해당 시점까지 반영된 journal sequence
+create table if not exists member_snapshot (
+    member_id varchar(10),
+    money integer not null,
+    primary key (member_id)
+);
+
+create table if not exists replay_checkpoint (
+    id integer,
+    sequence bigint not null,
+    created_on timestamp default current_timestamp,
+    primary key (id)
+);
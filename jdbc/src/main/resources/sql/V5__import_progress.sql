@@ -0,0 +1,8 @@
+-- 대량 import 진행 상황 - chunk 데이터와 같은 transaction으로 기록 -> 재시작 시 commit된 chunk는 건너뜀
+create table if not exists import_progress (
+    file_key varchar(255),
+    chunk_index integer,
+    row_count integer not null,
+    duplicate_count integer not null,
+    primary key (file_key, chunk_index)
+);
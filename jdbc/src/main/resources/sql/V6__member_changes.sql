@@ -0,0 +1,9 @@
+-- member 변경 이력(change feed) - seq 순서대로 poller가 읽어서 cache 무효화 등에 전달
+create table if not exists member_changes (
+    seq bigint generated by default as identity,
+    member_id varchar(10) not null,
+    op char(1) not null,
+    money integer,
+    changed_at bigint not null,
+    primary key (seq)
+);
@@ -0,0 +1,9 @@
+-- partition 간 이체의 출금 ~ 입금 사이 상태 - 출금과 같은 transaction으로 기록, 입금 / 환불과 같은 transaction으로 삭제
+-- 재시작 시 남아있는 row = 출금만 commit된 이체 -> PartitionedTransferExecutor가 입금(또는 환불)으로 정산
+create table if not exists pending_transfer (
+    transfer_id bigint,
+    from_id varchar(10) not null,
+    to_id varchar(10) not null,
+    money integer not null,
+    primary key (transfer_id)
+);
@@ -0,0 +1,7 @@
+-- LedgerEngine 메모리 잔액 snapshot - replay_checkpoint(id = 2)의 sequence까지 반영된 잔액
+-- 재시작 시 snapshot을 읽고 journal은 sequence 이후만 재생
+create table if not exists ledger_snapshot (
+    member_id varchar(10),
+    money integer not null,
+    primary key (member_id)
+);
@@ -0,0 +1,12 @@
+-- shard 간 이체(MemberServiceV4_1 Saga)의 진행 상태 - 각 shard에 존재
+-- DEBITED  : 출금 shard에 출금과 같은 transaction으로 기록, 입금 확인 후 또는 보상과 같은 transaction으로 삭제
+-- CREDITED : 입금 shard에 입금과 같은 transaction으로 기록 -> 재시도 시 중복 입금 방지, 출금 shard 정리 후 삭제
+-- 재시작 시 남아있는 DEBITED row = 입금 여부가 확정되지 않은 이체 -> 입금(또는 보상)으로 정산
+create table if not exists saga_transfer (
+    transfer_id varchar(36),
+    from_id varchar(10) not null,
+    to_id varchar(10) not null,
+    money integer not null,
+    step varchar(10) not null,
+    primary key (transfer_id)
+);
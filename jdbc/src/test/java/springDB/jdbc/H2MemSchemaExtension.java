@@ -0,0 +1,40 @@
+package springDB.jdbc;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.connection.ConnectionConst;
+import springDB.jdbc.schema.SchemaInitializer;
+
+/**
+ * mem 모드에서 테스트 클래스마다 별도의 in-memory DB 사용
+ * - DB 이름은 테스트 클래스 이름 -> 테스트는 ConnectionConst.url(getClass())로 접근
+ *   + thread에 바인딩하지 않음 (병렬 실행 시 ForkJoin work-stealing으로 다른 클래스의 작업이 같은 thread에서 실행될 수 있음)
+ * - 클래스를 지정하지 않는 url() / DBConnectionUtil용 기본 DB는 한 번만 초기화
+ */
+public class H2MemSchemaExtension implements BeforeAllCallback {
+
+    private static final Object DEFAULT_SCHEMA_LOCK = new Object();
+    private static boolean defaultSchemaInitialized;
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        if (!ConnectionConst.isMemMode()) {
+            return;
+        }
+
+        // * Spring Context 없이 url(Class)로 직접 접근하는 테스트를 위한 schema 생성
+        initialize(ConnectionConst.url(context.getRequiredTestClass()));
+
+        synchronized (DEFAULT_SCHEMA_LOCK) {
+            if (!defaultSchemaInitialized) {
+                initialize(ConnectionConst.url());
+                defaultSchemaInitialized = true;
+            }
+        }
+    }
+
+    private void initialize(String url) {
+        new SchemaInitializer(new DriverManagerDataSource(url, ConnectionConst.USERNAME, ConnectionConst.PASSWORD)).initialize();
+    }
+}
@@ -0,0 +1,98 @@
+package springDB.jdbc.bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class MemberExporterTest {
+
+    public static final int ROWS = 20_000;
+
+    @TempDir
+    Path directory;
+
+    DataSource source;
+    DataSource target;
+
+    @BeforeEach
+    void before() {
+        source = dataSource("exportSource");
+        target = dataSource("exportTarget");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{"e" + i, i % 2 == 0 ? i : -i});
+        }
+        new JdbcTemplate(source).batchUpdate("insert into member(member_id, money) values(?, ?)", rows);
+    }
+
+    @Test
+    void exportCsvAndImportBack() throws IOException, InterruptedException {
+        Path file = directory.resolve("members.csv");
+
+        ExportReport report = new MemberExporter(source).export(file, MemberImporter.Format.CSV);
+
+        assertThat(report.getRows()).isEqualTo(ROWS);
+        assertThat(report.getBytes()).isEqualTo(Files.size(file));
+        assertThat(Files.readAllLines(file)).first().isEqualTo("member_id,money");
+        assertThat(Files.readAllLines(file)).contains("e3,-3", "e4,4");
+
+        assertRoundTrip(file, MemberImporter.Format.CSV);
+    }
+
+    @Test
+    void exportBinaryAndImportBack() throws IOException, InterruptedException {
+        Path file = directory.resolve("members.bin");
+
+        ExportReport report = new MemberExporter(source).export(file, MemberImporter.Format.BINARY);
+
+        assertThat(Files.size(file)).isEqualTo((long) ROWS * MemberImporter.BINARY_RECORD_SIZE);
+        log.info("allocated bytes/row = {}", report.allocatedBytesPerRow());
+
+        assertRoundTrip(file, MemberImporter.Format.BINARY);
+    }
+
+    @Test
+    void buffersAreReturnedToPool() throws IOException, InterruptedException {
+        DirectBufferPool pool = new DirectBufferPool(MemberExporter.GATHER_BUFFERS + 1, 1024);
+        MemberExporter exporter = new MemberExporter(source, pool);
+
+        // 버퍼가 반환되지 않으면 두 번째 export에서 acquire()가 대기
+        exporter.export(directory.resolve("first.csv"), MemberImporter.Format.CSV);
+        exporter.export(directory.resolve("second.csv"), MemberImporter.Format.CSV);
+
+        assertThat(Files.mismatch(directory.resolve("first.csv"), directory.resolve("second.csv"))).isEqualTo(-1);
+    }
+
+    private void assertRoundTrip(Path file, MemberImporter.Format format) throws IOException, InterruptedException {
+        new MemberImporter(target, 2).importFile(file, format);
+
+        String aggregate = "select count(*) || ':' || sum(money) || ':' || min(member_id) || ':' || max(member_id) from member";
+        assertThat(new JdbcTemplate(target).queryForObject(aggregate, String.class))
+                .isEqualTo(new JdbcTemplate(source).queryForObject(aggregate, String.class));
+    }
+
+    private DataSource dataSource(String name) {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + name + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("delete from import_progress");
+        return dataSource;
+    }
+}
@@ -0,0 +1,115 @@
+package springDB.jdbc.bulk;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springDB.jdbc.repository.ex.MyDbException;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class MemberImporterTest {
+
+    @TempDir
+    Path directory;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+    MemberImporter importer;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(MEM_URL_PREFIX + "memberImport" + MEM_URL_OPTIONS);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(4);
+
+        new SchemaInitializer(dataSource).initialize();
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("delete from import_progress");
+
+        // 작은 chunk로 여러 chunk가 병렬로 처리되도록
+        importer = new MemberImporter(dataSource, 4, 4096, 100);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+    }
+
+    @Test
+    void importCsvSkippingDuplicates() throws IOException, InterruptedException {
+        template.update("insert into member(member_id, money) values('m5', 1)");
+
+        StringBuilder csv = new StringBuilder("member_id,money\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append("m").append(i).append(',').append(i).append('\n');
+        }
+        csv.append("m10,999\r\n"); // 파일 안에서의 중복
+        Path file = Files.writeString(directory.resolve("members.csv"), csv);
+
+        ImportReport report = importer.importFile(file, MemberImporter.Format.CSV);
+
+        assertThat(report.getRows()).isEqualTo(4999);
+        assertThat(report.getDuplicates()).isEqualTo(2);
+        assertThat(report.getChunks()).isGreaterThan(1);
+        assertThat(template.queryForObject("select count(*) from member", Long.class)).isEqualTo(5000);
+        assertThat(template.queryForObject("select money from member where member_id = 'm4999'", Integer.class)).isEqualTo(4999);
+    }
+
+    @Test
+    void resumeFromLastCommittedChunk() throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            csv.append("m").append(i).append(',').append(i == 2999 ? "abcd" : String.format("%04d", i)).append('\n');
+        }
+        Path file = Files.writeString(directory.resolve("broken.csv"), csv);
+
+        // * 마지막 chunk의 잘못된 줄 때문에 실패 -> 나머지 chunk는 commit
+        assertThatThrownBy(() -> importer.importFile(file, MemberImporter.Format.CSV))
+                .isInstanceOf(MyDbException.class);
+        long committed = template.queryForObject("select count(*) from member", Long.class);
+        assertThat(committed).isLessThan(3000);
+
+        // 같은 크기로 수정 -> 같은 파일로 간주되어 실패한 chunk부터 이어서 진행
+        Files.writeString(file, csv.toString().replace("m2999,abcd", "m2999,2999"));
+        ImportReport report = importer.importFile(file, MemberImporter.Format.CSV);
+
+        assertThat(report.getResumedChunks()).isPositive();
+        assertThat(report.getRows()).isEqualTo(3000 - committed);
+        assertThat(template.queryForObject("select count(*) from member", Long.class)).isEqualTo(3000);
+    }
+
+    @Test
+    void importBinary() throws IOException, InterruptedException {
+        ByteBuffer buffer = ByteBuffer.allocate(1000 * MemberImporter.BINARY_RECORD_SIZE);
+        for (int i = 0; i < 1000; i++) {
+            byte[] id = ("b" + i).getBytes(StandardCharsets.US_ASCII);
+            int offset = i * MemberImporter.BINARY_RECORD_SIZE;
+            buffer.put(offset, (byte) id.length);
+            buffer.put(offset + 1, id);
+            buffer.putInt(offset + 11, i * 10);
+        }
+        Path file = Files.write(directory.resolve("members.bin"), buffer.array());
+
+        ImportReport report = importer.importFile(file, MemberImporter.Format.BINARY);
+
+        assertThat(report.getRows()).isEqualTo(1000);
+        assertThat(template.queryForObject("select money from member where member_id = 'b999'", Integer.class)).isEqualTo(9990);
+    }
+}
@@ -0,0 +1,212 @@
+package springDB.jdbc.change;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * change feed - 변경 기록, gap 처리, cache 무효화 / 지연 측정
+ */
+@Slf4j
+class MemberChangePollerTest {
+
+    DataSource dataSource;
+    JdbcTemplate template;
+    ChangeCapturingMemberRepository repository;
+    MemberChangePoller poller;
+
+    @BeforeEach
+    void before() {
+        dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "memberChanges" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("delete from member_changes");
+
+        repository = new ChangeCapturingMemberRepository(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        if (poller != null) {
+            poller.close();
+        }
+    }
+
+    @Test
+    void captureAndDeliverInBatches() {
+        poller = new MemberChangePoller(dataSource, Duration.ofMillis(10), 2, 16, Duration.ofSeconds(5));
+        CollectingSubscriber subscriber = new CollectingSubscriber();
+        poller.subscribe(subscriber);
+        poller.startFromLatest();
+
+        repository.save(new Member("memberA", 10000));
+        repository.update("memberA", 5000);
+        repository.delete("memberA");
+
+        await(() -> subscriber.changes().size() == 3);
+        List<MemberChange> changes = subscriber.changes();
+        assertThat(changes).extracting(MemberChange::getOp)
+                .containsExactly(MemberChange.INSERT, MemberChange.UPDATE, MemberChange.DELETE);
+        assertThat(changes.get(1).getMoney()).isEqualTo(5000);
+        assertThat(changes.get(2).getMoney()).isNull();
+        // batchSize = 2 -> 한 번에 최대 2건
+        assertThat(subscriber.batches).allMatch(batch -> batch.size() <= 2);
+    }
+
+    @Test
+    void rollbackLeavesNoChange() {
+        poller = new MemberChangePoller(dataSource);
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        txTemplate.executeWithoutResult(status -> {
+            repository.save(new Member("memberA", 10000));
+            status.setRollbackOnly();
+        });
+
+        assertThat(poller.poll()).isZero();
+        assertThat(template.queryForObject("select count(*) from member_changes", Integer.class)).isZero();
+    }
+
+    @Test
+    void lateCommitFillsGap() {
+        poller = new MemberChangePoller(dataSource, Duration.ofMillis(10), 100, 16, Duration.ofMinutes(1));
+        insertChange(1, "memberA");
+        insertChange(3, "memberC");
+
+        assertThat(poller.poll()).isEqualTo(2);
+        assertThat(poller.watermark()).isEqualTo(1);
+
+        // seq 2를 가진 transaction이 늦게 commit
+        insertChange(2, "memberB");
+        assertThat(poller.poll()).isEqualTo(1);
+        assertThat(poller.watermark()).isEqualTo(3);
+        assertThat(poller.skippedGaps()).isZero();
+    }
+
+    @Test
+    void expiredGapIsSkipped() {
+        poller = new MemberChangePoller(dataSource, Duration.ofMillis(10), 100, 16, Duration.ZERO);
+        insertChange(1, "memberA");
+        insertChange(3, "memberC");
+
+        poller.poll();
+        poller.poll();
+
+        assertThat(poller.watermark()).isEqualTo(3);
+        assertThat(poller.skippedGaps()).isEqualTo(1);
+        assertThat(poller.purge(Long.MAX_VALUE)).isEqualTo(2);
+    }
+
+    @Test
+    void changeCommittedAfterGapTimeoutIsStillDelivered() throws InterruptedException {
+        poller = new MemberChangePoller(dataSource, Duration.ofMillis(10), 100, 16, Duration.ofMillis(50));
+        insertChange(1, "memberA");
+        insertChange(3, "memberC");
+        assertThat(poller.poll()).isEqualTo(2);
+
+        Thread.sleep(60);
+        poller.poll();
+        assertThat(poller.skippedGaps()).isEqualTo(1);
+        // 늦은 commit을 기다리는 seq는 purge하지 않음
+        assertThat(poller.purge(Long.MAX_VALUE)).isEqualTo(1);
+
+        // gapTimeout보다 느린 transaction이 commit
+        insertChange(2, "memberB");
+        assertThat(poller.poll()).isEqualTo(1);
+        assertThat(poller.lateChanges()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheInvalidation() {
+        poller = new MemberChangePoller(dataSource, Duration.ofMillis(5), 500, 16, Duration.ofSeconds(5));
+        InvalidatingMemberCache cache = new InvalidatingMemberCache(repository);
+        poller.subscribe(cache);
+        poller.startFromLatest();
+
+        int members = 50;
+        for (int i = 0; i < members; i++) {
+            repository.save(new Member("m" + i, 1000));
+        }
+        await(() -> cache.invalidations() == members);
+
+        for (int i = 0; i < members; i++) {
+            assertThat(cache.findById("m" + i).getMoney()).isEqualTo(1000);
+        }
+
+        // 다른 node가 잔고를 바꿨다고 가정 -> feed를 통해 무효화된 후에는 최신 값
+        repository.update("m0", 7000);
+        await(() -> !cache.isCached("m0"));
+        assertThat(cache.findById("m0").getMoney()).isEqualTo(7000);
+        assertThat(cache.isCached("m1")).isTrue();
+
+        log.info("invalidation lag p50 = {}ms, p99 = {}ms, p999 = {}ms",
+                cache.lagPercentileMillis(0.50), cache.lagPercentileMillis(0.99), cache.lagPercentileMillis(0.999));
+        assertThat(cache.lagPercentileMillis(0.50)).isLessThanOrEqualTo(cache.lagPercentileMillis(0.99));
+    }
+
+    private void insertChange(long seq, String memberId) {
+        template.update("insert into member_changes(seq, member_id, op, money, changed_at) values(?, ?, 'U', 0, ?)",
+                seq, memberId, System.currentTimeMillis());
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("timeout");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    static class CollectingSubscriber implements Flow.Subscriber<List<MemberChange>> {
+
+        final List<List<MemberChange>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<MemberChange> item) {
+            batches.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<MemberChange> changes() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+}
@@ -18,8 +18,8 @@ class ConnectionTest {
     @Test
     void dirveManager() throws SQLException {
         //DriverManger를 통해 Connection을 2번 획득했을 때의 정보 확인
-        Connection con1 = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-        Connection con2 = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        Connection con1 = DriverManager.getConnection(url(getClass()), USERNAME, PASSWORD);
+        Connection con2 = DriverManager.getConnection(url(getClass()), USERNAME, PASSWORD);
 
         log.info("connection = {}, class = {}", con1, con1.getClass());
         log.info("connection = {}, class = {}", con2, con2.getClass());
@@ -31,7 +31,7 @@ class ConnectionTest {
         // *** DriveMangerDataSource는 항상 새로운 connection을 획득
         // + 부모 클래스를 따라가다보면 DataSource를 implements하고 있으므로 DataSource 자료형으로도 사용 가능
 
-        DriverManagerDataSource dataSource =  new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource =  new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         // *** '설정'과 '사용'의 분리
         // + '생성'하는 시점에만 URL, USERNAME, PASSWORD의 정보 입력 - 향후 변경에 더 유연하게 대처
         // + '사용'(Con 획득) 시점에는 그냥 사용 - 향후 변경에도 getConnection()만 호출해서 사용 가능
@@ -48,7 +48,7 @@ class ConnectionTest {
         //HikariDataSource - 이 또한 DataSource를 구현
         HikariDataSource dataSource = new HikariDataSource();
 
-        dataSource.setJdbcUrl(URL);
+        dataSource.setJdbcUrl(url(getClass()));
         dataSource.setUsername(USERNAME);
         dataSource.setPassword(PASSWORD);
         dataSource.setMaximumPoolSize(10);
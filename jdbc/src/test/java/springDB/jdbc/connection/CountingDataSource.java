@@ -0,0 +1,53 @@
+package springDB.jdbc.connection;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용 DataSource - 실제 con 획득과 con 메서드 호출 횟수 집계
+ * + lazy proxy / 상태 cache가 불필요한 호출을 줄였는지 확인할 때 사용
+ */
+class CountingDataSource extends DelegatingDataSource {
+
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+    CountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        increment("getConnection");
+        Connection con = super.getConnection();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    increment(method.getName());
+                    try {
+                        return method.invoke(con, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    int count(String name) {
+        AtomicInteger count = counts.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    void reset() {
+        counts.clear();
+    }
+
+    private void increment(String name) {
+        counts.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+    }
+}
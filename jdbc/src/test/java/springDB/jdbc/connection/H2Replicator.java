@@ -0,0 +1,35 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 테스트용 Replicator - primary의 member 테이블을 replica에 그대로 복사
+ * + 실제 복제 지연을 흉내내기 위해 sync()를 호출할 때만 반영
+ */
+@Slf4j
+public class H2Replicator {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+
+    public H2Replicator(DataSource primary, DataSource replica) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+    }
+
+    public void sync() {
+        List<Map<String, Object>> rows = primary.queryForList("select member_id, money from member");
+
+        replica.update("delete from member");
+        for (Map<String, Object> row : rows) {
+            replica.update("insert into member(member_id, money) values(?, ?)",
+                    row.get("MEMBER_ID"), row.get("MONEY"));
+        }
+        log.info("replicated rows = {}", rows.size());
+    }
+}
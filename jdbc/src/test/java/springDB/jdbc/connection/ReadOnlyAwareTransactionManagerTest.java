@@ -0,0 +1,93 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * readOnly transaction - 필요할 때만 con 획득 / flag 전달이 일어나는지 실제 con 호출 횟수로 확인
+ */
+@Slf4j
+class ReadOnlyAwareTransactionManagerTest {
+
+    CountingDataSource counting;
+    DataSource lazy;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        DataSource target = new DriverManagerDataSource(MEM_URL_PREFIX + "readOnlyTx" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(target).initialize();
+        new JdbcTemplate(target).update("delete from member");
+        new JdbcTemplate(target).update("insert into member(member_id, money) values('memberA', 10000)");
+
+        counting = new CountingDataSource(target);
+        lazy = new LazyConnectionDataSourceProxy(counting);
+        template = new JdbcTemplate(lazy);
+    }
+
+    @Test
+    void readOnlyWithoutStatementTakesNoConnection() {
+        TransactionTemplate readOnly = readOnly(new ReadOnlyAwareTransactionManager(lazy));
+        warmUp(readOnly);
+
+        readOnly.executeWithoutResult(status -> {
+            // cache hit 등으로 DB에 가지 않는 경우
+        });
+
+        assertThat(counting.count("getConnection")).isZero();
+    }
+
+    @Test
+    void noRedundantIsolationWhenDefaultIsLowEnough() {
+        // H2 기본 격리수준 = READ_COMMITTED -> 낮출 필요 없음
+        TransactionTemplate readOnly = readOnly(new ReadOnlyAwareTransactionManager(lazy, Connection.TRANSACTION_READ_COMMITTED));
+        warmUp(readOnly);
+
+        Integer money = readOnly.execute(status ->
+                template.queryForObject("select money from member where member_id = 'memberA'", Integer.class));
+
+        assertThat(money).isEqualTo(10000);
+        assertThat(counting.count("getConnection")).isEqualTo(1);
+        assertThat(counting.count("setTransactionIsolation")).isZero();
+        assertThat(counting.count("setReadOnly")).isPositive();
+    }
+
+    @Test
+    void lowerIsolationOnlyForReadOnly() {
+        ReadOnlyAwareTransactionManager txManager = new ReadOnlyAwareTransactionManager(lazy, Connection.TRANSACTION_READ_UNCOMMITTED);
+        TransactionTemplate readOnly = readOnly(txManager);
+        TransactionTemplate readWrite = new TransactionTemplate(txManager);
+        warmUp(readOnly);
+
+        readWrite.executeWithoutResult(status -> template.update("update member set money = 9000 where member_id = 'memberA'"));
+        assertThat(counting.count("setTransactionIsolation")).isZero();
+
+        readOnly.executeWithoutResult(status -> template.queryForObject("select count(*) from member", Integer.class));
+        // 적용 + transaction 종료 후 원복
+        assertThat(counting.count("setTransactionIsolation")).isPositive();
+    }
+
+    private void warmUp(TransactionTemplate txTemplate) {
+        // 기본 격리수준 확인, lazy proxy의 기본값 확인은 최초 1회만
+        txTemplate.executeWithoutResult(status -> template.queryForObject("select 1", Integer.class));
+        counting.reset();
+    }
+
+    private static TransactionTemplate readOnly(ReadOnlyAwareTransactionManager txManager) {
+        TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+        txTemplate.setReadOnly(true);
+        return txTemplate;
+    }
+}
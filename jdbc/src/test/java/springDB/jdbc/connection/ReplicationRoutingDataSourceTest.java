@@ -0,0 +1,98 @@
+package springDB.jdbc.connection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * Read / Write 분리 확인
+ * - primary, replica를 각각의 in-memory H2로 구성하고 H2Replicator로 동기화
+ */
+@Slf4j
+class ReplicationRoutingDataSourceTest {
+
+    public static final String MEMBER_A = "memberA";
+
+    ReplicationRoutingDataSource routingDataSource;
+    H2Replicator replicator;
+    MemberRepositoryV5 repository;
+    TransactionTemplate txTemplate;
+
+    @BeforeEach
+    void init() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", USERNAME, PASSWORD);
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", USERNAME, PASSWORD);
+        createTable(primary);
+        createTable(replica);
+
+        routingDataSource = new ReplicationRoutingDataSource(primary, replica);
+        replicator = new H2Replicator(primary, replica);
+
+        // * TransactionManager, Repository 모두 lazy proxy를 사용해야 readOnly 라우팅이 동작
+        DataSource dataSource = routingDataSource.lazy();
+        repository = new MemberRepositoryV5(dataSource);
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransactionRoutesToReplica() {
+        repository.save(new Member(MEMBER_A, 10000));
+
+        // * 아직 복제되지 않았으므로 replica에는 존재하지 않음
+        txTemplate.setReadOnly(true);
+        assertThatThrownBy(() -> txTemplate.executeWithoutResult(status -> repository.findById(MEMBER_A)))
+                .isInstanceOf(EmptyResultDataAccessException.class);
+
+        replicator.sync();
+
+        Member findMember = txTemplate.execute(status -> repository.findById(MEMBER_A));
+        assertThat(findMember.getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    void writeTransactionRoutesToPrimary() {
+        repository.save(new Member(MEMBER_A, 10000));
+
+        // * read-write transaction 안의 조회는 방금 쓴 값을 primary에서 읽어야 함
+        txTemplate.setReadOnly(false);
+        Member findMember = txTemplate.execute(status -> {
+            repository.update(MEMBER_A, 20000);
+            return repository.findById(MEMBER_A);
+        });
+
+        assertThat(findMember.getMoney()).isEqualTo(20000);
+    }
+
+    @Test
+    void nonTransactionalAccessRoutesToPrimary() {
+        repository.save(new Member(MEMBER_A, 10000));
+        replicator.sync();
+        repository.update(MEMBER_A, 30000);
+
+        // * transaction 밖의 조회는 primary -> 복제 전의 변경도 보임
+        assertThat(repository.findById(MEMBER_A).getMoney()).isEqualTo(30000);
+
+        // * replica에서 읽으려면 readOnly transaction
+        txTemplate.setReadOnly(true);
+        assertThat(txTemplate.execute(status -> repository.findById(MEMBER_A)).getMoney()).isEqualTo(10000);
+    }
+
+    private void createTable(DataSource dataSource) {
+        new SchemaInitializer(dataSource).initialize();
+        new JdbcTemplate(dataSource).update("delete from member");
+    }
+}
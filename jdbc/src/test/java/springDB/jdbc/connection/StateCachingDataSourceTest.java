@@ -0,0 +1,140 @@
+package springDB.jdbc.connection;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.repository.MemberRepositoryV2;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV2;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * con 상태 캐시 - 같은 값의 설정 / 조회는 driver까지 가지 않아야 함
+ */
+@Slf4j
+class StateCachingDataSourceTest {
+
+    public static final String URL = MEM_URL_PREFIX + "stateCaching" + MEM_URL_OPTIONS;
+
+    CountingDataSource driver;
+
+    @BeforeEach
+    void before() {
+        DataSource target = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        new SchemaInitializer(target).initialize();
+        JdbcTemplate template = new JdbcTemplate(target);
+        template.update("delete from member");
+        template.update("insert into member(member_id, money) values('memberA', 10000), ('memberB', 10000)");
+
+        driver = new CountingDataSource(target);
+    }
+
+    @Test
+    void skipRedundantCalls() throws SQLException {
+        StateCachingDataSource dataSource = new StateCachingDataSource(driver);
+
+        try (Connection con = dataSource.getConnection()) {
+            // 새 con의 autoCommit은 driver에서 한 번 조회한 뒤로 기억
+            assertThat(con.getAutoCommit()).isTrue();
+            con.setAutoCommit(true);
+            con.setAutoCommit(false);
+            con.setAutoCommit(false);
+            assertThat(con.getAutoCommit()).isFalse();
+
+            int isolation = con.getTransactionIsolation();
+            con.setTransactionIsolation(isolation);
+            assertThat(con.getTransactionIsolation()).isEqualTo(isolation);
+            con.commit();
+            con.setAutoCommit(true);
+        }
+
+        assertThat(driver.count("getAutoCommit")).isEqualTo(1);
+        assertThat(driver.count("setAutoCommit")).isEqualTo(2);
+        assertThat(driver.count("getTransactionIsolation")).isEqualTo(1);
+        assertThat(driver.count("setTransactionIsolation")).isZero();
+        assertThat(dataSource.saved()).isEqualTo(5);
+        assertThat(dataSource.transactions()).isEqualTo(1);
+    }
+
+    @Test
+    void autoCommitIsNotAssumed() throws SQLException {
+        // pool이 auto-commit=false로 설정해서 넘겨준 con과 같은 상황
+        try (Connection target = driver.getConnection()) {
+            target.setAutoCommit(false);
+            StateCachingDataSource dataSource = new StateCachingDataSource(new SingleConnectionDataSource(target, true));
+
+            Connection con = dataSource.getConnection();
+            assertThat(con.getAutoCommit()).isFalse();
+            target.setAutoCommit(true);
+        }
+    }
+
+    @Test
+    void setStatementInvalidatesCache() throws SQLException {
+        StateCachingDataSource dataSource = new StateCachingDataSource(driver);
+
+        try (Connection con = dataSource.getConnection()) {
+            con.getTransactionIsolation();
+            try (Statement stmt = con.createStatement()) {
+                stmt.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SERIALIZABLE");
+            }
+            assertThat(con.getTransactionIsolation()).isEqualTo(Connection.TRANSACTION_SERIALIZABLE);
+        }
+        assertThat(driver.count("getTransactionIsolation")).isEqualTo(2);
+    }
+
+    @Test
+    void manualTransactionService() throws SQLException {
+        StateCachingDataSource dataSource = new StateCachingDataSource(driver);
+        MemberServiceV2 memberService = new MemberServiceV2(dataSource, new MemberRepositoryV2(dataSource));
+
+        memberService.accountTransfer("memberA", "memberB", 1000);
+
+        // setAutoCommit(false) -> commit -> release의 setAutoCommit(true), 모두 실제 변경이라 전달
+        assertThat(driver.count("setAutoCommit")).isEqualTo(2);
+        assertThat(dataSource.transactions()).isEqualTo(1);
+    }
+
+    @Test
+    void underHikariPool() {
+        StateCachingDataSource stateCaching = new StateCachingDataSource(driver);
+        HikariDataSource pool = new HikariDataSource();
+        pool.setDataSource(stateCaching);
+        pool.setMaximumPoolSize(2);
+
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(pool));
+            readOnly.setReadOnly(true);
+            readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+            JdbcTemplate template = new JdbcTemplate(pool);
+
+            int transactions = 100;
+            for (int i = 0; i < transactions; i++) {
+                readOnly.execute(status -> template.queryForObject("select money from member where member_id = 'memberA'", Integer.class));
+            }
+
+            log.info("forwarded = {}, saved = {}, transactions = {}, savedPerTransaction = {}",
+                    stateCaching.forwarded(), stateCaching.saved(), stateCaching.transactions(), stateCaching.savedPerTransaction());
+            assertThat(stateCaching.transactions()).isEqualTo(transactions);
+            assertThat(stateCaching.saved()).isGreaterThanOrEqualTo(transactions);
+            // 격리수준은 기본값(READ_COMMITTED)과 같아서 물리 con마다 최대 1번 조회 외에는 전달되지 않음
+            assertThat(driver.count("setTransactionIsolation")).isZero();
+        } finally {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package springDB.jdbc.context;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * transaction context 모드별 동작 - 두 모드 모두 같은 commit / rollback 결과
+ * + EXPLICIT 모드는 thread에 자원을 묶지 않고, 다른 thread의 하위 작업도 같은 transaction에 참여
+ */
+@Slf4j
+class TxContextTemplateTest {
+
+    public static final String MEMBER_A = "memberA";
+    public static final String MEMBER_B = "memberB";
+    public static final String MEMBER_EX = "ex";
+
+    HikariDataSource dataSource;
+    ContextMemberRepository memberRepository;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(MEM_URL_PREFIX + "txContext" + MEM_URL_OPTIONS);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(4);
+
+        new SchemaInitializer(dataSource).initialize();
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("insert into member(member_id, money) values(?, 10000), (?, 10000), (?, 10000)",
+                MEMBER_A, MEMBER_B, MEMBER_EX);
+
+        memberRepository = new ContextMemberRepository(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(TxContextMode.class)
+    void transferCommits(TxContextMode mode) {
+        ContextMemberService memberService = new ContextMemberService(memberRepository, new TxContextTemplate(dataSource, mode));
+
+        memberService.accountTransfer(MEMBER_A, MEMBER_B, 2000);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+        assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @ParameterizedTest
+    @EnumSource(TxContextMode.class)
+    void transferRollsBack(TxContextMode mode) {
+        ContextMemberService memberService = new ContextMemberService(memberRepository, new TxContextTemplate(dataSource, mode));
+
+        assertThatThrownBy(() -> memberService.accountTransfer(MEMBER_A, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+        assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    @Test
+    void explicitModeBindsNothingToThread() {
+        TxContextTemplate txTemplate = new TxContextTemplate(dataSource, TxContextMode.EXPLICIT);
+
+        txTemplate.executeWithoutResult(tx -> {
+            memberRepository.update(tx, MEMBER_A, 9000);
+            assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+            // context 없이 조회하면 별도 con -> commit 전의 변경은 보이지 않음
+            assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+            tx.setRollbackOnly();
+        });
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(10000);
+    }
+
+    @Test
+    void subtaskOnAnotherThreadJoinsTransaction() {
+        TxContextTemplate txTemplate = new TxContextTemplate(dataSource, TxContextMode.EXPLICIT);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            txTemplate.executeWithoutResult(tx -> {
+                memberRepository.update(tx, MEMBER_A, 7000);
+
+                // 다른 thread에서도 tx를 넘기면 같은 con -> commit 전의 변경이 보임
+                Member seen = CompletableFuture.supplyAsync(() -> memberRepository.findById(tx, MEMBER_A), executor).join();
+                assertThat(seen.getMoney()).isEqualTo(7000);
+                CompletableFuture.runAsync(() -> memberRepository.update(tx, MEMBER_B, 13000), executor).join();
+
+                assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isOne();
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(7000);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(13000);
+    }
+}
@@ -0,0 +1,125 @@
+package springDB.jdbc.deadline;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * deadline - con 획득 전 실패, statement 취소, transaction timeout 변환
+ */
+@Slf4j
+class DeadlineDataSourceTest {
+
+    // * 오래 걸리는 query 대용 - 취소되지 않으면 수십 초 이상 걸림
+    public static final String SLOW_QUERY = "select sum(x) from system_range(1, 10000000000)";
+
+    AtomicInteger physicalConnections;
+    DeadlineDataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        DataSource target = new DriverManagerDataSource(MEM_URL_PREFIX + "deadline" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(target).initialize();
+        new JdbcTemplate(target).update("delete from member");
+
+        physicalConnections = new AtomicInteger();
+        dataSource = new DeadlineDataSource(new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                physicalConnections.incrementAndGet();
+                return super.getConnection();
+            }
+        });
+        template = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void failFastBeforeConnection() {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        repository.save(new Member("memberA", 10000));
+        physicalConnections.set(0);
+
+        assertThatThrownBy(() -> DeadlineContext.run(Deadline.after(Duration.ofMillis(20)), () -> {
+            sleep(50);
+            repository.findById("memberA");
+        })).isInstanceOf(DeadlineExceededException.class);
+
+        assertThat(physicalConnections.get()).isZero();
+        assertThat(dataSource.fastFails()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelSlowQueryAtDeadline() {
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(() -> DeadlineContext.run(Deadline.after(Duration.ofMillis(200)),
+                () -> template.queryForObject(SLOW_QUERY, Long.class)))
+                .isInstanceOf(DeadlineExceededException.class);
+        long elapsed = System.currentTimeMillis() - start;
+
+        log.info("cancelled after {}ms", elapsed);
+        // query timeout(초 단위)보다 먼저 cancel로 중단
+        assertThat(elapsed).isLessThan(1000);
+        assertThat(dataSource.cancels()).isEqualTo(1);
+    }
+
+    @Test
+    void deadlineBecomesTransactionTimeout() {
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        repository.save(new Member("memberA", 10000));
+        repository.save(new Member("memberB", 10000));
+
+        DeadlineTransactionManager txManager = new DeadlineTransactionManager(dataSource);
+        TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+        MemberServiceV4 memberService = new MemberServiceV4(repository);
+
+        // 여유 있는 deadline -> 정상 이체
+        DeadlineContext.run(Deadline.after(Duration.ofSeconds(5)), () -> txTemplate.executeWithoutResult(status -> {
+            assertThat(status.isNewTransaction()).isTrue();
+            memberService.accountTransfer("memberA", "memberB", 1000);
+        }));
+        assertThat(repository.findById("memberB").getMoney()).isEqualTo(11000);
+
+        // transaction 도중 deadline 초과 -> rollback
+        assertThatThrownBy(() -> DeadlineContext.run(Deadline.after(Duration.ofMillis(100)),
+                () -> txTemplate.executeWithoutResult(status -> {
+                    memberService.accountTransfer("memberA", "memberB", 1000);
+                    template.queryForObject(SLOW_QUERY, Long.class);
+                }))).isInstanceOf(DeadlineExceededException.class);
+        assertThat(repository.findById("memberB").getMoney()).isEqualTo(11000);
+    }
+
+    @Test
+    void nestedDeadlineUsesEarlier() {
+        Deadline outer = Deadline.after(Duration.ofMillis(100));
+        DeadlineContext.run(outer, () -> DeadlineContext.run(Deadline.after(Duration.ofSeconds(10)),
+                () -> assertThat(DeadlineContext.current()).isSameAs(outer)));
+        assertThat(DeadlineContext.current()).isNull();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -27,7 +27,7 @@ class ExTranslatorV1Test {
 
     @BeforeEach
     void init() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         repository = new Repository(dataSource);
         service = new Service(repository);
     }
@@ -32,7 +32,7 @@ class SpringExceptionTranslatorTest {
 
     @BeforeEach
     void init() {
-        dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
     }
 
     @Test
@@ -0,0 +1,146 @@
+package springDB.jdbc.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class BalanceReplayEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parallelReplayEqualsSerialReplay() throws IOException {
+        Map<String, Long> base = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            base.put("m" + i, 10000L);
+        }
+
+        Random random = new Random(1);
+        try (TransferJournal journal = TransferJournal.open(directory, 1000, 1)) {
+            for (int i = 0; i < 5000; i++) {
+                // 같은 계좌 사이의 이체도 포함
+                journal.append("m" + random.nextInt(50), "m" + random.nextInt(50), random.nextInt(100) + 1);
+            }
+        }
+
+        TransferJournalReader reader = new TransferJournalReader(directory);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // * foldBatch를 이벤트 수보다 작게 -> 여러 번에 나눠 fold 해도 결과가 같아야 함
+            Map<String, Long> parallel = new BalanceReplayEngine(16, pool, 700).replay(base, reader, 1);
+
+            assertThat(parallel).isEqualTo(serialReplay(base, reader, 1));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rebuildFromCheckpointPlusDelta() throws IOException {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "balanceRebuild" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+
+        MemberRepositoryV5 memberRepository = new MemberRepositoryV5(dataSource);
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("m" + i, 10000));
+        }
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        BalanceRebuilder rebuilder = new BalanceRebuilder(dataSource, new TransferJournalReader(directory), new BalanceReplayEngine());
+
+        Random random = new Random(2);
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            MemberServiceV4 memberService = new MemberServiceV4(memberRepository, journal);
+
+            for (int i = 0; i < 300; i++) {
+                if (i == 150) {
+                    // * 이체가 멈춘 시점에 checkpoint -> 이후 이벤트만 재생
+                    rebuilder.checkpoint(journal.lastSequence());
+                }
+                String fromId = "m" + random.nextInt(10);
+                String toId = "m" + random.nextInt(10);
+                int money = random.nextInt(100) + 1;
+                txTemplate.executeWithoutResult(status -> memberService.accountTransfer(fromId, toId, money));
+            }
+        }
+
+        List<Member> expected = memberRepository.findByMoneyBetween(Integer.MIN_VALUE, Integer.MAX_VALUE, 100);
+
+        // * 복구 상황 가정 - 잔액 유실
+        template.update("update member set money = 0");
+
+        assertThat(rebuilder.checkpointSequence()).isEqualTo(150);
+        assertThat(rebuilder.rebuild()).isEqualTo(10);
+        assertThat(memberRepository.findByMoneyBetween(Integer.MIN_VALUE, Integer.MAX_VALUE, 100)).isEqualTo(expected);
+    }
+
+    @Test
+    void rebuildOnlyMembersOfCheckpoint() throws IOException {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "balanceRebuild" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+
+        MemberRepositoryV5 memberRepository = new MemberRepositoryV5(dataSource);
+        for (int i = 0; i < 3; i++) {
+            memberRepository.save(new Member("m" + i, 10000));
+        }
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        BalanceRebuilder rebuilder = new BalanceRebuilder(dataSource, new TransferJournalReader(directory), new BalanceReplayEngine());
+
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            MemberServiceV4 memberService = new MemberServiceV4(memberRepository, journal);
+            rebuilder.checkpoint(journal.lastSequence());
+
+            // * checkpoint 이후의 save / delete는 journal에 없음
+            memberRepository.save(new Member("newMember", 5000));
+            txTemplate.executeWithoutResult(status -> memberService.accountTransfer("m0", "newMember", 100));
+            txTemplate.executeWithoutResult(status -> memberService.accountTransfer("m1", "m2", 200));
+            memberRepository.delete("m1");
+        }
+
+        template.update("update member set money = 0 where member_id in ('m0', 'm2')");
+
+        assertThat(rebuilder.rebuild()).isEqualTo(2);
+        assertThat(memberRepository.findById("m0").getMoney()).isEqualTo(9900);
+        assertThat(memberRepository.findById("m2").getMoney()).isEqualTo(10200);
+        // 이체 증감만으로 잔액을 덮어쓰지 않고, 삭제된 회원을 다시 만들지 않음
+        assertThat(memberRepository.findById("newMember").getMoney()).isEqualTo(5100);
+        assertThat(template.queryForObject("select count(*) from member where member_id = 'm1'", Integer.class)).isZero();
+    }
+
+    // * MemberServiceV4.accountTransfer를 순서대로 실행한 것과 같은 결과 - 두 회원을 먼저 조회한 뒤 각각 update
+    private Map<String, Long> serialReplay(Map<String, Long> base, TransferJournalReader reader, long fromSequence) {
+        Map<String, Long> balances = new HashMap<>(base);
+        reader.forEach(fromSequence, event -> {
+            long fromMoney = balances.getOrDefault(event.getFromId(), 0L);
+            long toMoney = balances.getOrDefault(event.getToId(), 0L);
+            balances.put(event.getFromId(), fromMoney - event.getMoney());
+            balances.put(event.getToId(), toMoney + event.getMoney());
+        });
+        return balances;
+    }
+}
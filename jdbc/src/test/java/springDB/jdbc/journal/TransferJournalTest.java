@@ -0,0 +1,148 @@
+package springDB.jdbc.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class TransferJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void appendRollAndReadBack() throws IOException, InterruptedException {
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            for (int i = 0; i < 350; i++) {
+                assertThat(journal.append("from" + i, "to" + i, i)).isEqualTo(i + 1);
+            }
+            assertThat(journal.rolls()).isEqualTo(3);
+        }
+
+        List<TransferEvent> events = new ArrayList<>();
+        new TransferJournalReader(directory).forEach(events::add);
+
+        assertThat(events).hasSize(350);
+        assertThat(events.get(349).getFromId()).isEqualTo("from349");
+        assertThat(events.get(349).getMoney()).isEqualTo(349);
+        assertThat(events).extracting(TransferEvent::getSequence).isSorted();
+
+        // * 가득 찬 segment는 압축
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(p -> p.toString().endsWith(".seg.gz")).count()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void reopenContinuesSequence() throws IOException {
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            for (int i = 0; i < 150; i++) {
+                journal.append("a", "b", 1);
+            }
+        }
+
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            assertThat(journal.lastSequence()).isEqualTo(150);
+            assertThat(journal.append("a", "b", 1)).isEqualTo(151);
+        }
+
+        assertThat(new TransferJournalReader(directory).forEach(140, event -> {})).isEqualTo(12);
+    }
+
+    @Test
+    void reopenAfterAllSegmentsCompressedReadsOnlyLastSegment() throws IOException, InterruptedException {
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            for (int i = 0; i < 300; i++) {
+                journal.append("a", "b", 1);
+            }
+        }
+        List<Path> compressed;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> all = files.sorted().toList();
+            for (Path path : all) {
+                if (path.toString().endsWith(".seg")) {
+                    Files.delete(path);
+                }
+            }
+            compressed = all.stream().filter(p -> p.toString().endsWith(".seg.gz")).toList();
+        }
+        assertThat(compressed).hasSize(3);
+
+        // * 앞쪽 segment는 열지 않음 - 손상되어 있어도 시작 가능
+        Files.write(compressed.get(0), new byte[]{1, 2, 3});
+
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            assertThat(journal.lastSequence()).isEqualTo(300);
+            assertThat(journal.append("a", "b", 1)).isEqualTo(301);
+        }
+    }
+
+    @Test
+    void groupFlushAdvancesDurableSequence() throws IOException, InterruptedException {
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            long sequence = journal.append("a", "b", 1);
+
+            long deadline = System.currentTimeMillis() + 1000;
+            while (journal.durableSequence() < sequence && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(journal.durableSequence()).isGreaterThanOrEqualTo(sequence);
+        }
+    }
+
+    @Test
+    void rejectsIdLongerThanRecord() throws IOException {
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            assertThatThrownBy(() -> journal.append("memberIdTooLong", "b", 1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void onlyCommittedTransfersAreJournaled() throws IOException {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "journal" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        new JdbcTemplate(dataSource).update("delete from member");
+
+        MemberRepositoryV5 memberRepository = new MemberRepositoryV5(dataSource);
+        memberRepository.save(new Member("memberA", 10000));
+        memberRepository.save(new Member("memberB", 10000));
+        memberRepository.save(new Member("ex", 10000));
+
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        try (TransferJournal journal = TransferJournal.open(directory, 100, 1)) {
+            MemberServiceV4 memberService = new MemberServiceV4(memberRepository, journal);
+
+            txTemplate.executeWithoutResult(status -> memberService.accountTransfer("memberA", "memberB", 2000));
+            assertThatThrownBy(() -> txTemplate.executeWithoutResult(status -> memberService.accountTransfer("memberA", "ex", 2000)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+
+        List<TransferEvent> events = new ArrayList<>();
+        new TransferJournalReader(directory).forEach(events::add);
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getToId()).isEqualTo("memberB");
+    }
+}
@@ -0,0 +1,192 @@
+package springDB.jdbc.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * ring buffer 원장 - MemberRepository 동작, 이체, H2 projection, journal 재생 / snapshot 복구
+ */
+@Slf4j
+class LedgerEngineTest {
+
+    public static final String MEMBER_A = "memberA";
+    public static final String MEMBER_B = "memberB";
+
+    @TempDir
+    Path directory;
+
+    DataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "ledgerEngine" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("delete from ledger_snapshot");
+        template.update("delete from replay_checkpoint where id = ?", LedgerSnapshot.CHECKPOINT_ID);
+        template.update("insert into member(member_id, money) values(?, 10000), (?, 10000)", MEMBER_A, MEMBER_B);
+    }
+
+    @Test
+    void memberRepositoryOperations() throws Exception {
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            // journal이 비어 있으면 member 테이블에서 초기 잔액을 가져옴
+            assertThat(ledger.findById(MEMBER_A)).isEqualTo(new Member(MEMBER_A, 10000));
+
+            ledger.save(new Member("memberC", 500));
+            assertThatThrownBy(() -> ledger.save(new Member("memberC", 1)))
+                    .isInstanceOf(DuplicateKeyException.class);
+
+            ledger.update("memberC", 700);
+            assertThat(ledger.findById("memberC").getMoney()).isEqualTo(700);
+
+            ledger.delete("memberC");
+            assertThatThrownBy(() -> ledger.findById("memberC"))
+                    .isInstanceOf(NoSuchElementException.class);
+
+            ledger.awaitProjection();
+            assertThat(template.queryForObject("select count(*) from member where member_id = 'memberC'", Integer.class)).isZero();
+        }
+    }
+
+    @Test
+    void transfer() throws Exception {
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            ledger.transfer(MEMBER_A, MEMBER_B, 2000);
+
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+            assertThat(ledger.findById(MEMBER_B).getMoney()).isEqualTo(12000);
+
+            assertThatThrownBy(() -> ledger.transfer(MEMBER_A, "unknown", 100))
+                    .isInstanceOf(NoSuchElementException.class);
+            assertThatThrownBy(() -> ledger.transfer(MEMBER_A, MEMBER_A, 100))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(8000);
+
+            // 완료된 이체는 fsync 이후 -> durable sequence가 따라와 있어야 함
+            assertThat(ledger.durableSequence()).isGreaterThanOrEqualTo(3);
+
+            ledger.awaitProjection();
+            assertThat(money(MEMBER_A)).isEqualTo(8000);
+            assertThat(money(MEMBER_B)).isEqualTo(12000);
+        }
+    }
+
+    @Test
+    void concurrentTransfersAreBatched() throws Exception {
+        int count = 100_000;
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource, 1 << 10, LedgerEngine.DEFAULT_PROJECTION_INTERVAL)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                futures.add(i % 2 == 0
+                        ? ledger.submitTransfer(MEMBER_A, MEMBER_B, 1)
+                        : ledger.submitTransfer(MEMBER_B, MEMBER_A, 2));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            long elapsed = System.nanoTime() - start;
+
+            log.info("transfers = {}, tps = {}, avgBatchSize = {}",
+                    count, count * 1_000_000_000L / elapsed, ledger.averageBatchSize());
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(10000 + count / 2);
+            assertThat(ledger.findById(MEMBER_B).getMoney()).isEqualTo(10000 - count / 2);
+
+            ledger.awaitProjection();
+            assertThat(money(MEMBER_A) + money(MEMBER_B)).isEqualTo(20000);
+        }
+    }
+
+    @Test
+    void recoverFromJournal() throws Exception {
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            ledger.transfer(MEMBER_A, MEMBER_B, 3000);
+            ledger.save(new Member("memberC", 100));
+            ledger.delete(MEMBER_B);
+        }
+
+        // H2 사본과 snapshot이 사라져도 journal 전체 재생으로 복구 후 다시 반영
+        template.update("delete from member");
+        template.update("delete from ledger_snapshot");
+        template.update("delete from replay_checkpoint where id = ?", LedgerSnapshot.CHECKPOINT_ID);
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            // 초기 잔액 2건 + 이체, save, delete
+            assertThat(ledger.recoveredEvents()).isEqualTo(5);
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(7000);
+            assertThat(ledger.findById("memberC").getMoney()).isEqualTo(100);
+            assertThatThrownBy(() -> ledger.findById(MEMBER_B)).isInstanceOf(NoSuchElementException.class);
+
+            ledger.awaitProjection();
+            assertThat(money(MEMBER_A)).isEqualTo(7000);
+            assertThat(money("memberC")).isEqualTo(100);
+        }
+    }
+
+    @Test
+    void recoverFromSnapshot() throws Exception {
+        try (LedgerEngine ledger = LedgerEngine.open(
+                directory, dataSource, 1 << 10, LedgerEngine.DEFAULT_PROJECTION_INTERVAL, 10)) {
+            for (int i = 0; i < 100; i++) {
+                ledger.transfer(MEMBER_A, MEMBER_B, 10);
+            }
+
+            // 실행 중 snapshot - checkpoint는 fsync가 끝난 기록까지만 가리킴
+            long checkpoint = awaitCheckpoint(10);
+            assertThat(checkpoint).isLessThanOrEqualTo(ledger.durableSequence());
+        }
+
+        // 종료 시 마지막 snapshot -> 재생할 journal 없음
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            assertThat(ledger.recoveredEvents()).isZero();
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(9000);
+            assertThat(ledger.findById(MEMBER_B).getMoney()).isEqualTo(11000);
+            ledger.transfer(MEMBER_B, MEMBER_A, 500);
+        }
+
+        // 종료 snapshot이 없으면 checkpoint 이후의 기록만 재생
+        template.update("update replay_checkpoint set sequence = sequence - 1 where id = ?", LedgerSnapshot.CHECKPOINT_ID);
+        template.update("update ledger_snapshot set money = money + 500 where member_id = ?", MEMBER_B);
+        template.update("update ledger_snapshot set money = money - 500 where member_id = ?", MEMBER_A);
+        try (LedgerEngine ledger = LedgerEngine.open(directory, dataSource)) {
+            assertThat(ledger.recoveredEvents()).isEqualTo(1);
+            assertThat(ledger.findById(MEMBER_A).getMoney()).isEqualTo(9500);
+            assertThat(ledger.findById(MEMBER_B).getMoney()).isEqualTo(10500);
+        }
+    }
+
+    private long awaitCheckpoint(long minimum) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            List<Long> sequences = template.queryForList(
+                    "select sequence from replay_checkpoint where id = ?", Long.class, LedgerSnapshot.CHECKPOINT_ID);
+            if (!sequences.isEmpty() && sequences.get(0) >= minimum) {
+                return sequences.get(0);
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("ledger snapshot not written");
+    }
+
+    private int money(String memberId) {
+        return template.queryForObject("select money from member where member_id = ?", Integer.class, memberId);
+    }
+}
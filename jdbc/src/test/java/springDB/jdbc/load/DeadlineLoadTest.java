@@ -0,0 +1,89 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.deadline.Deadline;
+import springDB.jdbc.deadline.DeadlineContext;
+import springDB.jdbc.deadline.DeadlineDataSource;
+import springDB.jdbc.deadline.DeadlineTransactionManager;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.service.MemberServiceV4;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.load.LoadFixture.*;
+
+/**
+ * 느린 query가 섞인 이체 부하 - deadline 유무에 따른 지연시간 꼬리(p99, max)와 pool 점유 비교
+ * - 이체의 SLOW_RATIO 비율로 transaction 안에서 느린 query(대용)를 실행
+ * - deadline이 없으면 느린 query가 끝날 때까지 con을 붙잡고, 나머지 요청은 pool 대기
+ * - deadline이 있으면 DEADLINE에 cancel -> con이 빨리 반환됨
+ */
+@Slf4j
+class DeadlineLoadTest {
+
+    public static final int POOL_SIZE = 4;
+    public static final int THREADS = 16;
+    public static final double SLOW_RATIO = 0.05;
+    public static final String SLOW_QUERY = "select sum(x) from system_range(1, 2000000)";
+    public static final Duration DEADLINE = Duration.ofMillis(50);
+
+    HikariDataSource pool;
+    DeadlineDataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        pool = pool("deadlineLoad", POOL_SIZE);
+        dataSource = new DeadlineDataSource(pool);
+        template = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void after() {
+        pool.close();
+    }
+
+    @Test
+    void tailLatencyWithAndWithoutDeadline() throws InterruptedException {
+        MemberServiceV4 memberService = new MemberServiceV4(new MemberRepositoryV5(dataSource));
+        TransactionTemplate txTemplate = serializable(new DeadlineTransactionManager(dataSource));
+
+        TransferLoadGenerator.MemberTransfer transfer = (fromId, toId, money) -> txTemplate.executeWithoutResult(status -> {
+            if (ThreadLocalRandom.current().nextDouble() < SLOW_RATIO) {
+                template.queryForObject(SLOW_QUERY, Long.class);
+            }
+            memberService.accountTransfer(fromId, toId, money);
+        });
+
+        PoolSampler withoutSampler = new PoolSampler(pool.getHikariPoolMXBean(), POOL_SIZE);
+        TransferLoadReport without = generator(THREADS).run(transfer, () -> totalMoney(pool));
+        withoutSampler.stop();
+
+        PoolSampler withSampler = new PoolSampler(pool.getHikariPoolMXBean(), POOL_SIZE);
+        TransferLoadReport with = generator(THREADS).run(
+                (fromId, toId, money) -> DeadlineContext.run(Deadline.after(DEADLINE),
+                        () -> transfer.transfer(fromId, toId, money)),
+                () -> totalMoney(pool));
+        withSampler.stop();
+
+        log.info("without deadline : p50 = {}us, p99 = {}us, max = {}us, tps = {}, pool = {}",
+                without.getP50Micros(), without.getP99Micros(), without.getMaxMicros(),
+                (long) without.throughputPerSecond(), withoutSampler);
+        log.info("with deadline({}ms) : p50 = {}us, p99 = {}us, max = {}us, tps = {}, pool = {}, cancels = {}, fastFails = {}",
+                DEADLINE.toMillis(), with.getP50Micros(), with.getP99Micros(), with.getMaxMicros(),
+                (long) with.throughputPerSecond(), withSampler, dataSource.cancels(), dataSource.fastFails());
+
+        assertThat(without.invariantHolds()).isTrue();
+        assertThat(with.invariantHolds()).isTrue();
+        assertThat(with.getCommitted()).isPositive();
+        assertThat(dataSource.cancels() + dataSource.fastFails()).isPositive();
+    }
+}
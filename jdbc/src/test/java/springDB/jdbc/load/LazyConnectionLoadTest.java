@@ -0,0 +1,110 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.repository.NegativeLookupMemberRepository;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.load.LoadFixture.*;
+
+/**
+ * transaction 시작 시점에 con을 꺼내는 방식(eager)과 첫 SQL 시점에 꺼내는 방식(lazy)의 pool 점유 비교
+ * - 모든 이체는 transaction 안에서 VALIDATION_TIME 동안 DB와 무관한 검증을 먼저 수행
+ * - REJECT_RATIO 비율은 없는 계좌 -> NegativeLookupMemberRepository가 SQL 없이 거절 (cache hit 대용)
+ * - eager는 검증 / 거절되는 동안에도 con을 점유, lazy는 SQL을 실행하는 구간만 점유
+ */
+@Slf4j
+class LazyConnectionLoadTest {
+
+    public static final int POOL_SIZE = 4;
+    public static final int THREADS = 16;
+    public static final double REJECT_RATIO = 0.3;
+    public static final long VALIDATION_TIME = TimeUnit.MILLISECONDS.toNanos(1);
+
+    HikariDataSource pool;
+
+    @BeforeEach
+    void before() {
+        pool = pool("lazyConnectionLoad", POOL_SIZE);
+    }
+
+    @AfterEach
+    void after() {
+        pool.close();
+    }
+
+    @Test
+    void rejectedTransferNeverChecksOutConnection() {
+        DataSource lazy = new LazyConnectionDataSourceProxy(pool);
+        MemberServiceV4 memberService = new MemberServiceV4(new NegativeLookupMemberRepository(lazy, ACCOUNT_COUNT * 2));
+        TransactionTemplate txTemplate = serializable(new DataSourceTransactionManager(lazy));
+
+        assertThatThrownBy(() -> txTemplate.executeWithoutResult(status -> {
+            // transaction은 시작됐지만 아직 SQL이 없으므로 pool에서 꺼낸 con이 없음
+            assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+            memberService.accountTransfer("unknown", TransferLoadGenerator.accountId(0), 100);
+        })).isInstanceOf(NoSuchElementException.class);
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+
+        // SQL을 실행하는 transaction은 첫 SQL 시점에 꺼내고 commit 후 반환
+        txTemplate.executeWithoutResult(status -> {
+            memberService.accountTransfer(TransferLoadGenerator.accountId(0), TransferLoadGenerator.accountId(1), 100);
+            assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isOne();
+        });
+        assertThat(pool.getHikariPoolMXBean().getActiveConnections()).isZero();
+        assertThat(totalMoney(pool)).isEqualTo(TOTAL_MONEY);
+    }
+
+    @Test
+    void poolOccupancyEagerVsLazy() throws InterruptedException {
+        PoolSampler eagerSampler = new PoolSampler(pool.getHikariPoolMXBean(), POOL_SIZE);
+        TransferLoadReport eager = generator(THREADS).run(transfer(pool), () -> totalMoney(pool));
+        eagerSampler.stop();
+
+        PoolSampler lazySampler = new PoolSampler(pool.getHikariPoolMXBean(), POOL_SIZE);
+        TransferLoadReport lazy = generator(THREADS).run(transfer(new LazyConnectionDataSourceProxy(pool)), () -> totalMoney(pool));
+        lazySampler.stop();
+
+        log.info("eager : p50 = {}us, p99 = {}us, tps = {}, pool = {}",
+                eager.getP50Micros(), eager.getP99Micros(), (long) eager.throughputPerSecond(), eagerSampler);
+        log.info("lazy : p50 = {}us, p99 = {}us, tps = {}, pool = {}",
+                lazy.getP50Micros(), lazy.getP99Micros(), (long) lazy.throughputPerSecond(), lazySampler);
+
+        assertThat(eager.invariantHolds()).isTrue();
+        assertThat(lazy.invariantHolds()).isTrue();
+        assertThat(lazy.getCommitted()).isPositive();
+        assertThat(lazySampler.avgActive()).isLessThan(eagerSampler.avgActive());
+    }
+
+    // * transaction manager와 repository가 같은 DataSource를 써야 같은 con을 공유
+    private TransferLoadGenerator.MemberTransfer transfer(DataSource dataSource) {
+        MemberServiceV4 memberService = new MemberServiceV4(
+                new NegativeLookupMemberRepository(dataSource, ACCOUNT_COUNT * 2));
+        TransactionTemplate txTemplate = serializable(new DataSourceTransactionManager(dataSource));
+
+        return (fromId, toId, money) -> txTemplate.executeWithoutResult(status -> {
+            validate();
+            String from = ThreadLocalRandom.current().nextDouble() < REJECT_RATIO ? "unknown-" + fromId : fromId;
+            memberService.accountTransfer(from, toId, money);
+        });
+    }
+
+    // * DB와 무관한 검증 (외부 호출, 계산 등) 대용
+    private void validate() {
+        LockSupport.parkNanos(VALIDATION_TIME);
+    }
+}
@@ -0,0 +1,71 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 부하 테스트 공통 준비
+ * - 테스트 클래스마다 별도 mem DB + Hikari pool
+ * - ACCOUNT_COUNT개 계좌를 INITIAL_MONEY로 초기화 -> 전체 금액 불변식의 기준
+ */
+final class LoadFixture {
+
+    static final int ACCOUNT_COUNT = 100;
+    static final int INITIAL_MONEY = 10000;
+    static final long TOTAL_MONEY = (long) ACCOUNT_COUNT * INITIAL_MONEY;
+    static final Duration DURATION = Duration.ofSeconds(2);
+
+    private LoadFixture() {
+    }
+
+    // * schema 적용 + 계좌 초기화까지 끝난 pool
+    static HikariDataSource pool(String dbName, int poolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(MEM_URL_PREFIX + dbName + MEM_URL_OPTIONS);
+        pool.setUsername(USERNAME);
+        pool.setPassword(PASSWORD);
+        pool.setMaximumPoolSize(poolSize);
+
+        new SchemaInitializer(pool).initialize();
+        resetAccounts(pool);
+        return pool;
+    }
+
+    static void resetAccounts(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+
+        List<Object[]> accounts = new ArrayList<>(ACCOUNT_COUNT);
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            accounts.add(new Object[]{TransferLoadGenerator.accountId(i), INITIAL_MONEY});
+        }
+        template.batchUpdate("insert into member(member_id, money) values(?, ?)", accounts);
+    }
+
+    static long totalMoney(DataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select sum(money) from member", Long.class);
+    }
+
+    // * Zipf(1.0) 분포, 이체 금액 1 ~ 100
+    static TransferLoadGenerator generator(int threads) {
+        return new TransferLoadGenerator(threads, DURATION, ACCOUNT_COUNT, 1.0, 100);
+    }
+
+    // * 이체는 findById 후 update -> SERIALIZABLE이어야 lost update 없이 불변식 유지
+    static TransactionTemplate serializable(PlatformTransactionManager txManager) {
+        TransactionTemplate txTemplate = new TransactionTemplate(txManager);
+        txTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        return txTemplate;
+    }
+}
@@ -0,0 +1,70 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.partition.PartitionedTransferExecutor;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.service.MemberServiceV4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.load.LoadFixture.*;
+
+/**
+ * 요청 thread가 직접 이체(MemberServiceV4 + SERIALIZABLE)하는 방식과 partition 실행기 비교
+ * - 같은 Zipf 분포 -> 인기 계좌에 몰리는 이체가 직접 방식에서는 rollback / lock 대기로 이어짐
+ * - partition 실행기는 partition 수(1, 2, 4, 8)별 처리량과 평균 batch 크기를 기록
+ */
+@Slf4j
+class PartitionedTransferLoadTest {
+
+    public static final int THREADS = 32;
+    public static final int POOL_SIZE = 10;
+    public static final int[] PARTITION_COUNTS = {1, 2, 4, 8};
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        dataSource = pool("partitionedTransferLoad", POOL_SIZE);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+    }
+
+    @Test
+    void throughputByPartitionCount() throws InterruptedException {
+        MemberServiceV4 memberService = new MemberServiceV4(new MemberRepositoryV5(dataSource));
+        TransactionTemplate txTemplate = serializable(new DataSourceTransactionManager(dataSource));
+
+        TransferLoadReport direct = generator(THREADS).run(
+                (fromId, toId, money) -> txTemplate.executeWithoutResult(
+                        status -> memberService.accountTransfer(fromId, toId, money)),
+                () -> totalMoney(dataSource));
+        log.info("direct : tps = {}, rollbackRate = {}, deadlocks = {}, lockTimeouts = {}",
+                (long) direct.throughputPerSecond(), direct.rollbackRate(), direct.getDeadlocks(), direct.getLockTimeouts());
+        assertThat(direct.invariantHolds()).isTrue();
+
+        for (int partitions : PARTITION_COUNTS) {
+            TransferLoadReport report;
+            PartitionedTransferExecutor executor = new PartitionedTransferExecutor(dataSource, partitions);
+            try {
+                report = generator(THREADS).run(executor::transfer, () -> totalMoney(dataSource));
+            } finally {
+                executor.close();
+            }
+            log.info("partitions = {} : tps = {}, p99 = {}us, avgBatchSize = {}",
+                    partitions, (long) report.throughputPerSecond(), report.getP99Micros(), executor.averageBatchSize());
+
+            assertThat(report.invariantHolds()).isTrue();
+            assertThat(report.getRolledBack()).isZero();
+            assertThat(executor.inFlight()).isZero();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * 부하 중 pool 점유 측정 - 10ms마다 사용 중인 con 수 / con 대기 thread 수를 기록
+ */
+class PoolSampler {
+
+    private final Thread thread;
+    private final int poolSize;
+    private volatile boolean running = true;
+    private long samples;
+    private long activeSum;
+    private int maxWaiting;
+
+    PoolSampler(HikariPoolMXBean mxBean, int poolSize) {
+        this.poolSize = poolSize;
+        thread = new Thread(() -> {
+            while (running) {
+                synchronized (this) {
+                    samples++;
+                    activeSum += mxBean.getActiveConnections();
+                    maxWaiting = Math.max(maxWaiting, mxBean.getThreadsAwaitingConnection());
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "pool-sampler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    synchronized double avgActive() {
+        return samples == 0 ? 0 : (double) activeSum / samples;
+    }
+
+    synchronized int maxWaiting() {
+        return maxWaiting;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("avgActive = %.2f/%d, maxWaiting = %d", avgActive(), poolSize, maxWaiting);
+    }
+}
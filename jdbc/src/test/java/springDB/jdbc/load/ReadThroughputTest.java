@@ -0,0 +1,148 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.connection.ReadOnlyAwareTransactionManager;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.service.MemberQueryService;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.load.LoadFixture.*;
+
+/**
+ * 이체가 진행되는 동안의 조회 처리량 비교
+ * - readWrite : 지금처럼 조회도 read-write transaction (이체와 같은 SERIALIZABLE)
+ * - readOnly : MemberQueryService (readOnly transaction, lazy con, totalBalance는 REPEATABLE_READ)
+ * + 두 경우 모두 이체 부하는 TransferLoadGenerator로 동일하게 생성
+ */
+@Slf4j
+class ReadThroughputTest {
+
+    public static final int READERS = 4;
+    public static final int ACCOUNTS_PER_READ = 5;
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        dataSource = pool("readThroughput", READERS + 4);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyVersusReadWrite() throws InterruptedException {
+        // readWrite - 조회도 이체와 같은 SERIALIZABLE read-write transaction
+        MemberRepositoryV5 repository = new MemberRepositoryV5(dataSource);
+        TransactionTemplate readWriteTx = serializable(new DataSourceTransactionManager(dataSource));
+        ReadResult readWrite = measure(ids -> readWriteTx.execute(status -> {
+            long total = 0;
+            for (String id : ids) {
+                total += repository.findById(id).getMoney();
+            }
+            return total;
+        }));
+
+        // readOnly - MemberQueryService, @Transactional(readOnly = true)
+        DataSource lazy = new LazyConnectionDataSourceProxy(dataSource);
+        MemberQueryService queryService = transactional(
+                new MemberQueryService(new MemberRepositoryV5(lazy)), new ReadOnlyAwareTransactionManager(lazy));
+        ReadResult readOnly = measure(queryService::totalBalance);
+
+        log.info("readWrite = {}, readOnly = {}", readWrite, readOnly);
+        assertThat(readWrite.reads).isPositive();
+        assertThat(readOnly.reads).isPositive();
+        assertThat(readOnly.report.invariantHolds()).isTrue();
+    }
+
+    private ReadResult measure(Function<List<String>, Long> reader) throws InterruptedException {
+        MemberServiceV4 memberService = new MemberServiceV4(new MemberRepositoryV5(dataSource));
+        TransactionTemplate transferTx = serializable(new DataSourceTransactionManager(dataSource));
+        TransferLoadGenerator generator = generator(4);
+
+        AtomicLong reads = new AtomicLong();
+        AtomicLong failures = new AtomicLong();
+        long deadline = System.nanoTime() + DURATION.toNanos();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        reader.apply(randomIds());
+                        reads.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }, "reader-" + r);
+            readers.add(thread);
+            thread.start();
+        }
+
+        TransferLoadReport report = generator.run(
+                (fromId, toId, money) -> transferTx.executeWithoutResult(
+                        status -> memberService.accountTransfer(fromId, toId, money)),
+                () -> totalMoney(dataSource));
+        for (Thread thread : readers) {
+            thread.join();
+        }
+        return new ReadResult(reads.get(), failures.get(), report);
+    }
+
+    private static List<String> randomIds() {
+        List<String> ids = new ArrayList<>(ACCOUNTS_PER_READ);
+        for (int i = 0; i < ACCOUNTS_PER_READ; i++) {
+            ids.add(TransferLoadGenerator.accountId(ThreadLocalRandom.current().nextInt(ACCOUNT_COUNT)));
+        }
+        return ids;
+    }
+
+    // * Spring 컨테이너 없이 @Transactional 적용
+    private static MemberQueryService transactional(MemberQueryService target, DataSourceTransactionManager txManager) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new TransactionInterceptor(txManager, new AnnotationTransactionAttributeSource()));
+        return (MemberQueryService) proxyFactory.getProxy();
+    }
+
+    private static class ReadResult {
+
+        final long reads;
+        final long failures;
+        final TransferLoadReport report;
+
+        ReadResult(long reads, long failures, TransferLoadReport report) {
+            this.reads = reads;
+            this.failures = failures;
+            this.report = report;
+        }
+
+        @Override
+        public String toString() {
+            return "reads/s = " + reads * 1000 / DURATION.toMillis()
+                    + ", readFailures = " + failures
+                    + ", transfers/s = " + (long) report.throughputPerSecond()
+                    + ", transferRollbackRate = " + report.rollbackRate();
+        }
+    }
+}
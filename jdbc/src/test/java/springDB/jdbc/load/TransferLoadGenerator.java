@@ -0,0 +1,173 @@
+package springDB.jdbc.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 동시 이체 부하 생성기
+ * 1. N개의 thread가 정해진 시간 동안 Zipf 분포로 고른 두 계좌 사이에서 이체 실행
+ * 2. 처리량, 지연시간 백분위, rollback / deadlock / lock timeout 집계
+ * 3. 종료 후 전체 금액이 변하지 않았는지(불변식) 확인할 수 있도록 전후 합계를 리포트에 담음
+ * + 이체 방식은 MemberTransfer로 주입 -> MemberServiceV4 외의 다른 구현도 같은 조건으로 비교 가능
+ */
+@Slf4j
+public class TransferLoadGenerator {
+
+    public static final String ACCOUNT_PREFIX = "acc";
+
+    // H2 error code
+    private static final int H2_DEADLOCK = 40001;
+    private static final int H2_LOCK_TIMEOUT = 50200;
+
+    @FunctionalInterface
+    public interface MemberTransfer {
+        void transfer(String fromId, String toId, int money);
+    }
+
+    private final int threads;
+    private final Duration duration;
+    private final ZipfGenerator accounts;
+    private final int maxAmount;
+
+    public TransferLoadGenerator(int threads, Duration duration, int accountCount, double skew, int maxAmount) {
+        this.threads = threads;
+        this.duration = duration;
+        this.accounts = new ZipfGenerator(accountCount, skew);
+        this.maxAmount = maxAmount;
+    }
+
+    public static String accountId(int index) {
+        return ACCOUNT_PREFIX + index;
+    }
+
+    public TransferLoadReport run(MemberTransfer transfer, LongSupplier totalMoney) throws InterruptedException {
+        long totalBefore = totalMoney.getAsLong();
+
+        AtomicLong committed = new AtomicLong();
+        AtomicLong rolledBack = new AtomicLong();
+        AtomicLong deadlocks = new AtomicLong();
+        AtomicLong lockTimeouts = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        int[] latencyCounts = new int[threads];
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        for (int t = 0; t < threads; t++) {
+            int threadIndex = t;
+            long[] initial = new long[1024];
+            latencies.add(initial);
+
+            Thread worker = new Thread(() -> {
+                long[] samples = initial;
+                int count = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        String fromId = accountId(accounts.next());
+                        String toId = nextToId(fromId);
+                        int money = ThreadLocalRandom.current().nextInt(1, maxAmount + 1);
+
+                        long begin = System.nanoTime();
+                        try {
+                            transfer.transfer(fromId, toId, money);
+                            committed.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            rolledBack.incrementAndGet();
+                            classify(e, deadlocks, lockTimeouts);
+                        }
+
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies.set(threadIndex, samples);
+                    latencyCounts[threadIndex] = count;
+                    done.countDown();
+                }
+            }, "transfer-load-" + t);
+            worker.start();
+        }
+
+        long startedAt = System.currentTimeMillis();
+        start.countDown();
+        done.await();
+        long elapsed = System.currentTimeMillis() - startedAt;
+
+        TransferLoadReport report = new TransferLoadReport(threads, elapsed, committed.get(), rolledBack.get(),
+                deadlocks.get(), lockTimeouts.get(), merge(latencies, latencyCounts),
+                totalBefore, totalMoney.getAsLong());
+        log.info("load report = {}, tps = {}, rollbackRate = {}",
+                report, report.throughputPerSecond(), report.rollbackRate());
+        return report;
+    }
+
+    private String nextToId(String fromId) {
+        // * 자기 자신에게 이체하는 경우는 제외
+        while (true) {
+            String toId = accountId(accounts.next());
+            if (!toId.equals(fromId) || accounts.size() == 1) {
+                return toId;
+            }
+        }
+    }
+
+    private void classify(RuntimeException e, AtomicLong deadlocks, AtomicLong lockTimeouts) {
+        if (e instanceof DeadlockLoserDataAccessException) {
+            deadlocks.incrementAndGet();
+            return;
+        }
+        if (e instanceof CannotAcquireLockException) {
+            lockTimeouts.incrementAndGet();
+            return;
+        }
+
+        // * Spring 예외 변환을 거치지 않은 경우 - 원인 SQLException의 error code로 판단
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                if (sqlException.getErrorCode() == H2_DEADLOCK) {
+                    deadlocks.incrementAndGet();
+                } else if (sqlException.getErrorCode() == H2_LOCK_TIMEOUT) {
+                    lockTimeouts.incrementAndGet();
+                }
+                return;
+            }
+        }
+        if (e instanceof PessimisticLockingFailureException) {
+            lockTimeouts.incrementAndGet();
+        }
+    }
+
+    private long[] merge(List<long[]> latencies, int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+
+        long[] merged = new long[total];
+        int offset = 0;
+        for (int t = 0; t < counts.length; t++) {
+            System.arraycopy(latencies.get(t), 0, merged, offset, counts[t]);
+            offset += counts[t];
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+}
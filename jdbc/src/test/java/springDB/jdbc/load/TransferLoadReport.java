@@ -0,0 +1,65 @@
+package springDB.jdbc.load;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 부하 테스트 결과
+ * - 처리량, 지연시간 백분위, rollback / deadlock / lock timeout 횟수
+ * - 실행 전후의 전체 금액 (불변식 검증)
+ */
+@Getter
+@ToString
+public class TransferLoadReport {
+
+    private final int threads;
+    private final long elapsedMillis;
+    private final long committed;
+    private final long rolledBack;
+    private final long deadlocks;
+    private final long lockTimeouts;
+    private final long p50Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+    private final long maxMicros;
+    private final long totalMoneyBefore;
+    private final long totalMoneyAfter;
+
+    public TransferLoadReport(int threads, long elapsedMillis, long committed, long rolledBack,
+                              long deadlocks, long lockTimeouts, long[] sortedLatencyNanos,
+                              long totalMoneyBefore, long totalMoneyAfter) {
+        this.threads = threads;
+        this.elapsedMillis = elapsedMillis;
+        this.committed = committed;
+        this.rolledBack = rolledBack;
+        this.deadlocks = deadlocks;
+        this.lockTimeouts = lockTimeouts;
+        this.p50Micros = percentile(sortedLatencyNanos, 0.50);
+        this.p99Micros = percentile(sortedLatencyNanos, 0.99);
+        this.p999Micros = percentile(sortedLatencyNanos, 0.999);
+        this.maxMicros = sortedLatencyNanos.length == 0 ? 0 : sortedLatencyNanos[sortedLatencyNanos.length - 1] / 1000;
+        this.totalMoneyBefore = totalMoneyBefore;
+        this.totalMoneyAfter = totalMoneyAfter;
+    }
+
+    public double throughputPerSecond() {
+        return elapsedMillis == 0 ? 0 : committed * 1000.0 / elapsedMillis;
+    }
+
+    public double rollbackRate() {
+        long total = committed + rolledBack;
+        return total == 0 ? 0 : (double) rolledBack / total;
+    }
+
+    public boolean invariantHolds() {
+        return totalMoneyBefore == totalMoneyAfter;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000;
+    }
+}
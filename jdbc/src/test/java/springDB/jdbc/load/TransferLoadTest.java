@@ -0,0 +1,51 @@
+package springDB.jdbc.load;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.service.MemberServiceV4;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.load.LoadFixture.*;
+
+/**
+ * MemberServiceV4 동시 이체 부하 + 전체 금액 불변식 검증
+ * - findById 후 update하는 구조이므로, 격리수준이 낮으면 lost update로 전체 금액이 변할 수 있음
+ * -> SERIALIZABLE로 충돌하는 transaction을 rollback 시켜 불변식 유지
+ */
+@Slf4j
+class TransferLoadTest {
+
+    HikariDataSource dataSource;
+
+    @BeforeEach
+    void before() {
+        dataSource = pool("transferLoad", 8);
+    }
+
+    @AfterEach
+    void after() {
+        dataSource.close();
+    }
+
+    @Test
+    void concurrentTransferKeepsTotalMoney() throws InterruptedException {
+        MemberServiceV4 memberService = new MemberServiceV4(new MemberRepositoryV5(dataSource));
+
+        TransactionTemplate txTemplate = serializable(new DataSourceTransactionManager(dataSource));
+
+        TransferLoadReport report = generator(8).run(
+                (fromId, toId, money) -> txTemplate.executeWithoutResult(
+                        status -> memberService.accountTransfer(fromId, toId, money)),
+                () -> totalMoney(dataSource));
+
+        assertThat(report.getCommitted()).isPositive();
+        assertThat(report.invariantHolds()).isTrue();
+        assertThat(report.getTotalMoneyAfter()).isEqualTo(TOTAL_MONEY);
+    }
+}
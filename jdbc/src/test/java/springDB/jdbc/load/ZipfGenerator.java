@@ -0,0 +1,50 @@
+package springDB.jdbc.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Zipf 분포 - 소수의 계좌에 요청이 몰리는 상황(hot account) 재현
+ * + rank k의 확률 ∝ 1 / k^skew, skew = 0 이면 균등 분포
+ * + 누적분포(CDF)를 미리 계산해두고 이진탐색으로 샘플링
+ */
+public class ZipfGenerator {
+
+    private final double[] cdf;
+
+    public ZipfGenerator(int size, double skew) {
+        if (size <= 0 || skew < 0) {
+            throw new IllegalArgumentException("size must be positive, skew must not be negative");
+        }
+        cdf = new double[size];
+
+        double sum = 0;
+        for (int k = 1; k <= size; k++) {
+            sum += 1.0 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+    }
+
+    // 0 ~ size-1 의 index 반환 (0이 가장 자주 선택됨)
+    public int next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+
+        int low = 0;
+        int high = cdf.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cdf[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+}
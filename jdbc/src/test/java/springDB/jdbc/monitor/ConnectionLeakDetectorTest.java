@@ -0,0 +1,119 @@
+package springDB.jdbc.monitor;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.repository.MemberRepositoryV2;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV2;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * con 누수 / 장기 점유 감지 - Hikari, DriverManagerDataSource 모두 동작해야 함
+ */
+@Slf4j
+class ConnectionLeakDetectorTest {
+
+    public static final String URL = MEM_URL_PREFIX + "connectionLeak" + MEM_URL_OPTIONS;
+
+    HikariDataSource pool;
+    ConnectionLeakDetector detector;
+
+    @BeforeEach
+    void before() {
+        DriverManagerDataSource setup = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        new SchemaInitializer(setup).initialize();
+        JdbcTemplate template = new JdbcTemplate(setup);
+        template.update("delete from member");
+        template.update("insert into member(member_id, money) values('memberA', 10000), ('memberB', 10000)");
+
+        pool = new HikariDataSource();
+        pool.setJdbcUrl(URL);
+        pool.setUsername(USERNAME);
+        pool.setPassword(PASSWORD);
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(1000);
+    }
+
+    @AfterEach
+    void after() {
+        if (detector != null) {
+            detector.close();
+        }
+        pool.close();
+    }
+
+    @Test
+    void manualTransactionReleases() throws SQLException {
+        detector = new ConnectionLeakDetector(pool, Duration.ofSeconds(1), 1);
+        MemberServiceV2 memberService = new MemberServiceV2(detector, new MemberRepositoryV2(detector));
+
+        memberService.accountTransfer("memberA", "memberB", 1000);
+
+        assertThat(detector.outstanding()).isZero();
+        assertThat(detector.leaksBySite()).isEmpty();
+        assertThat(detector.longHoldsBySite()).isEmpty();
+    }
+
+    @Test
+    void longHoldDetectedBeforeReturn() throws Exception {
+        detector = new ConnectionLeakDetector(new DriverManagerDataSource(URL, USERNAME, PASSWORD), Duration.ofMillis(50), 1);
+
+        try (Connection con = detector.getConnection()) {
+            await(() -> !detector.longHoldsBySite().isEmpty());
+            assertThat(detector.outstanding()).isEqualTo(1);
+        }
+
+        assertThat(detector.outstanding()).isZero();
+        assertThat(detector.longHoldsBySite()).hasSize(1);
+        String site = detector.longHoldsBySite().keySet().iterator().next();
+        assertThat(site).startsWith(getClass().getName() + ".longHoldDetectedBeforeReturn");
+        assertThat(detector.site(site).orElseThrow().getSampledStack()).contains("longHoldDetectedBeforeReturn");
+    }
+
+    @Test
+    void leakedConnectionIsCountedAndReturnedToPool() throws Exception {
+        detector = new ConnectionLeakDetector(pool, Duration.ofSeconds(10), 1);
+
+        leak();
+        // pool 크기 1 - 누수된 con이 회수되어야 다음 con 획득 가능
+        await(() -> {
+            System.gc();
+            return !detector.leaksBySite().isEmpty();
+        });
+
+        assertThat(detector.leaksBySite().values()).containsExactly(1L);
+        assertThat(detector.leaksBySite().keySet().iterator().next()).contains(".leak:");
+        try (Connection con = detector.getConnection()) {
+            assertThat(con.isValid(1)).isTrue();
+        }
+        detector.report();
+    }
+
+    // * close()를 호출하지 않고 참조를 버림
+    private void leak() throws SQLException {
+        Connection con = detector.getConnection();
+        assertThat(con.isValid(1)).isTrue();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("timeout");
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package springDB.jdbc.monitor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.repository.MemberRepositoryV4_2;
+import springDB.jdbc.repository.MemberRepositoryV5;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 느린 query 기록 - 정규화 / 중복 제거 / 비동기 EXPLAIN / 항목 수 제한
+ */
+@Slf4j
+class SlowQueryLogTest {
+
+    DataSource target;
+
+    @BeforeEach
+    void before() {
+        target = new DriverManagerDataSource(MEM_URL_PREFIX + "slowQuery" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(target).initialize();
+        new JdbcTemplate(target).update("delete from member");
+    }
+
+    @Test
+    void normalize() {
+        assertThat(SlowQueryLog.normalize("select *  from member\n where member_id = 'memberA' and money > 1000"))
+                .isEqualTo("select * from member where member_id = ? and money > ?");
+        assertThat(SlowQueryLog.normalize("select * from member_v2 where money = 'it''s'"))
+                .isEqualTo("select * from member_v2 where money = ?");
+    }
+
+    @Test
+    void explainAnalyzeOnlyForPlainSelect() {
+        assertThat(SlowQueryLog.explainPrefix(" select * from member")).isEqualTo("explain analyze ");
+        // row lock을 잡는 select는 실행하지 않음
+        assertThat(SlowQueryLog.explainPrefix("select money from member where member_id=? FOR\n UPDATE")).isEqualTo("explain ");
+        assertThat(SlowQueryLog.explainPrefix("update member set money=? where member_id=?")).isEqualTo("explain ");
+    }
+
+    @Test
+    void captureSlowQueryWithPlan() throws InterruptedException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(target, Duration.ofMillis(20), 16);
+        JdbcTemplate template = new JdbcTemplate(slowQueryLog);
+
+        template.queryForObject("select sum(x) from system_range(1, ?)", Long.class, 3_000_000);
+        template.queryForObject("select sum(x) from system_range(1, ?)", Long.class, 3_000_001);
+        // threshold 미만
+        template.queryForObject("select 1", Integer.class);
+
+        slowQueryLog.awaitCaptures();
+        List<SlowQueryEntry> top = slowQueryLog.topByTotalTime(10);
+        slowQueryLog.report(10);
+
+        assertThat(top).hasSize(1);
+        SlowQueryEntry entry = top.get(0);
+        assertThat(entry.getSql()).isEqualTo("select sum(x) from system_range(?, ?)");
+        assertThat(entry.getParameterShapes()).containsExactly("Integer");
+        assertThat(entry.getCount()).isEqualTo(2);
+        assertThat(entry.getPlan()).isNotBlank().doesNotStartWith("explain failed");
+    }
+
+    @Test
+    void explainOfUpdateIsRolledBack() throws InterruptedException {
+        // threshold 0 -> 모든 statement 기록
+        SlowQueryLog slowQueryLog = new SlowQueryLog(target, Duration.ZERO, 16);
+        MemberRepositoryV5 v5 = new MemberRepositoryV5(slowQueryLog);
+        MemberRepositoryV4_2 v4_2 = new MemberRepositoryV4_2(slowQueryLog);
+
+        v5.save(new Member("memberA", 10000));
+        v4_2.update("memberA", 20000);
+        slowQueryLog.awaitCaptures();
+
+        // update는 EXPLAIN만 -> 다시 실행되지 않음
+        assertThat(v5.findById("memberA").getMoney()).isEqualTo(20000);
+        SlowQueryEntry update = slowQueryLog.topByMaxTime(10).stream()
+                .filter(e -> e.getSql().equals("update member set money=? where member_id=?"))
+                .findFirst().orElseThrow();
+        assertThat(update.getPlan()).isNotBlank().doesNotStartWith("explain failed");
+    }
+
+    @Test
+    void boundedEntries() throws InterruptedException {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(target, Duration.ZERO, 2);
+        JdbcTemplate template = new JdbcTemplate(slowQueryLog);
+
+        template.queryForObject("select count(*) from member", Integer.class);
+        template.queryForObject("select count(*) from member where money > 0", Integer.class);
+        template.queryForObject("select count(*) from member where member_id like 'a%'", Integer.class);
+        slowQueryLog.awaitCaptures();
+
+        assertThat(slowQueryLog.size()).isEqualTo(2);
+    }
+}
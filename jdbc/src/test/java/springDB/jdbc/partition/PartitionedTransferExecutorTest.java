@@ -0,0 +1,170 @@
+package springDB.jdbc.partition;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * partition 실행기 - 같은 partition / partition 간 이체, 실패 시 환불, batch 처리
+ */
+@Slf4j
+class PartitionedTransferExecutorTest {
+
+    public static final int PARTITIONS = 4;
+    public static final int ACCOUNT_COUNT = 40;
+    public static final int INITIAL_MONEY = 10000;
+
+    HikariDataSource dataSource;
+    JdbcTemplate template;
+    PartitionedTransferExecutor executor;
+
+    @BeforeEach
+    void before() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(MEM_URL_PREFIX + "partitionedTransfer" + MEM_URL_OPTIONS);
+        dataSource.setUsername(USERNAME);
+        dataSource.setPassword(PASSWORD);
+        dataSource.setMaximumPoolSize(PARTITIONS + 1);
+
+        new SchemaInitializer(dataSource).initialize();
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("delete from pending_transfer");
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            template.update("insert into member(member_id, money) values(?, ?)", account(i), INITIAL_MONEY);
+        }
+
+        executor = new PartitionedTransferExecutor(dataSource, PARTITIONS);
+    }
+
+    @AfterEach
+    void after() {
+        executor.close();
+        dataSource.close();
+    }
+
+    @Test
+    void samePartitionTransfer() {
+        String[] pair = pair(true);
+
+        executor.transfer(pair[0], pair[1], 2000);
+
+        assertThat(money(pair[0])).isEqualTo(8000);
+        assertThat(money(pair[1])).isEqualTo(12000);
+    }
+
+    @Test
+    void crossPartitionTransfer() {
+        String[] pair = pair(false);
+
+        executor.transfer(pair[0], pair[1], 2000);
+
+        assertThat(money(pair[0])).isEqualTo(8000);
+        assertThat(money(pair[1])).isEqualTo(12000);
+        assertThat(executor.inFlight()).isZero();
+    }
+
+    @Test
+    void unknownFromAccountChangesNothing() {
+        assertThatThrownBy(() -> executor.transfer("unknown", account(0), 2000))
+                .isInstanceOf(NoSuchElementException.class);
+
+        assertThat(totalMoney()).isEqualTo((long) ACCOUNT_COUNT * INITIAL_MONEY);
+    }
+
+    @Test
+    void unknownToAccountRefundsDebit() {
+        String unknown = "unknown";
+        String fromId = null;
+        for (int i = 0; i < ACCOUNT_COUNT && fromId == null; i++) {
+            if (executor.partitionIndexOf(account(i)) != executor.partitionIndexOf(unknown)) {
+                fromId = account(i);
+            }
+        }
+
+        String from = fromId;
+        assertThatThrownBy(() -> executor.transfer(from, unknown, 2000))
+                .isInstanceOf(NoSuchElementException.class);
+
+        // 출금 commit 후 입금 실패 -> 환불까지 끝난 뒤 실패로 완료
+        assertThat(money(from)).isEqualTo(INITIAL_MONEY);
+        assertThat(executor.inFlight()).isZero();
+        assertThat(pendingTransfers()).isZero();
+    }
+
+    @Test
+    void pendingCreditIsSettledOnRestart() {
+        executor.close();
+
+        // * 출금만 commit되고 process가 죽은 상태 - 입금 대상이 있는 이체 / 없는 이체
+        template.update("update member set money = money - 2000 where member_id = ?", account(0));
+        template.update("insert into pending_transfer(transfer_id, from_id, to_id, money) values(?, ?, ?, ?)",
+                1, account(0), account(1), 2000);
+        template.update("update member set money = money - 500 where member_id = ?", account(2));
+        template.update("insert into pending_transfer(transfer_id, from_id, to_id, money) values(?, ?, ?, ?)",
+                2, account(2), "unknown", 500);
+
+        // 재시작 -> 생성 시 정산 시작, close()는 정산이 끝날 때까지 대기
+        executor = new PartitionedTransferExecutor(dataSource, PARTITIONS);
+        executor.close();
+
+        assertThat(money(account(0))).isEqualTo(INITIAL_MONEY - 2000);
+        assertThat(money(account(1))).isEqualTo(INITIAL_MONEY + 2000);
+        assertThat(money(account(2))).isEqualTo(INITIAL_MONEY);
+        assertThat(pendingTransfers()).isZero();
+        assertThat(totalMoney()).isEqualTo((long) ACCOUNT_COUNT * INITIAL_MONEY);
+    }
+
+    @Test
+    void queuedTransfersAreBatched() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int n = 0; n < 2000; n++) {
+            futures.add(executor.submit(account(n % ACCOUNT_COUNT), account((n * 7 + 1) % ACCOUNT_COUNT), 1));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        log.info("batches = {}, commands = {}, avgBatchSize = {}",
+                executor.batches(), executor.commands(), executor.averageBatchSize());
+        assertThat(executor.averageBatchSize()).isGreaterThan(1);
+        assertThat(totalMoney()).isEqualTo((long) ACCOUNT_COUNT * INITIAL_MONEY);
+    }
+
+    private String[] pair(boolean samePartition) {
+        for (int i = 1; i < ACCOUNT_COUNT; i++) {
+            boolean same = executor.partitionIndexOf(account(0)) == executor.partitionIndexOf(account(i));
+            if (same == samePartition) {
+                return new String[]{account(0), account(i)};
+            }
+        }
+        throw new IllegalStateException("no matching pair");
+    }
+
+    private static String account(int index) {
+        return "acc" + index;
+    }
+
+    private int money(String memberId) {
+        return template.queryForObject("select money from member where member_id = ?", Integer.class, memberId);
+    }
+
+    private int pendingTransfers() {
+        return template.queryForObject("select count(*) from pending_transfer", Integer.class);
+    }
+
+    private long totalMoney() {
+        return template.queryForObject("select sum(money) from member", Long.class);
+    }
+}
@@ -29,7 +29,7 @@ class MemberRepositoryV1Test {
         // *** 계속 생성되고 제거되는 HikariProxyConnection의 객체에 담아서 들어오므로 인스턴스 주소는 다를 수 있으나, 1개의 커넥션을 사용, 반환, 대기하는 사이클은 동일
         HikariDataSource dataSource = new HikariDataSource();
         //DataSource 자료형으로 받을 수도 있지만, 인터페이스므로 아래의 set메서드들 사용 불가능하므로 구체화된 클래스 사용
-        dataSource.setJdbcUrl(URL);
+        dataSource.setJdbcUrl(url(getClass()));
         dataSource.setUsername(USERNAME);
         dataSource.setPassword(PASSWORD);
 
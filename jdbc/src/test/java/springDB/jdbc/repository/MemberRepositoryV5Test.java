@@ -0,0 +1,73 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * 잔액 구간 조회 - keyset 페이징, 스트리밍
+ */
+@Slf4j
+class MemberRepositoryV5Test {
+
+    MemberRepositoryV5 repository;
+
+    @BeforeEach
+    void beforeEach() {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "repositoryV5" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+        new JdbcTemplate(dataSource).update("delete from member");
+
+        repository = new MemberRepositoryV5(dataSource);
+
+        // money가 같은 회원이 여러 명 -> member_id로 순서 결정
+        for (int i = 0; i < 30; i++) {
+            repository.save(new Member(String.format("m%02d", i), (i % 10) * 1000));
+        }
+    }
+
+    @Test
+    void findByMoneyBetweenOrdersByMoneyThenId() {
+        List<Member> members = repository.findByMoneyBetween(2000, 3000, 100);
+
+        assertThat(members).extracting(Member::getMemberId)
+                .containsExactly("m02", "m12", "m22", "m03", "m13", "m23");
+    }
+
+    @Test
+    void keysetPagingVisitsEveryRowOnce() {
+        List<Member> all = new ArrayList<>();
+
+        List<Member> page = repository.findByMoneyBetween(1000, 8000, 4);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = repository.findByMoneyBetween(1000, 8000, page.get(page.size() - 1), 4);
+        }
+
+        assertThat(all).hasSize(24);
+        assertThat(all).isSortedAccordingTo(MemberRangeRepository.MONEY_ORDER);
+        assertThat(all).extracting(Member::getMemberId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void streamByMoneyBetween() {
+        try (Stream<Member> stream = repository.streamByMoneyBetween(0, 9000)) {
+            List<Member> members = stream.toList();
+
+            assertThat(members).hasSize(30);
+            assertThat(members).isSortedAccordingTo(MemberRangeRepository.MONEY_ORDER);
+        }
+    }
+}
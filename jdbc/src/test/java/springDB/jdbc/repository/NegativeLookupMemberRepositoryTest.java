@@ -0,0 +1,224 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * Bloom filter + negative cache - 없는 회원 조회는 DB까지 가지 않아야 함
+ */
+@Slf4j
+class NegativeLookupMemberRepositoryTest {
+
+    DataSource dataSource;
+    JdbcTemplate template;
+
+    @BeforeEach
+    void before() {
+        dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "negativeLookup" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        for (int i = 0; i < 1000; i++) {
+            template.update("insert into member(member_id, money) values(?, ?)", "m" + i, 1000);
+        }
+    }
+
+    @Test
+    void bloomFilterFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("m" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("m" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("x" + i)) {
+                falsePositives++;
+            }
+        }
+        double rate = falsePositives / 100_000.0;
+        log.info("bits = {}, hashes = {}, memory = {}bytes, measured = {}, estimated = {}",
+                filter.bitSize(), filter.hashFunctions(), filter.memoryBytes(), rate, filter.estimatedFalsePositiveRate());
+        assertThat(rate).isLessThan(0.02);
+    }
+
+    @Test
+    void definiteMissWithoutConnection() {
+        CountingRepository counting = new CountingRepository(new MemberRepositoryV5(dataSource));
+        NegativeLookupMemberRepository repository = new NegativeLookupMemberRepository(
+                counting, dataSource, 10_000, 0.001, Duration.ofSeconds(10));
+
+        assertThat(repository.findById("m1").getMoney()).isEqualTo(1000);
+        for (int i = 0; i < 1000; i++) {
+            String unknown = "x" + i;
+            assertThatThrownBy(() -> repository.findById(unknown)).isInstanceOf(NoSuchElementException.class);
+        }
+
+        // 오탐만 DB까지 감
+        assertThat((long) counting.finds).isEqualTo(1 + repository.falsePositives());
+        assertThat(repository.filterRejects()).isGreaterThan(990);
+    }
+
+    @Test
+    void negativeCacheAndSave() {
+        CountingRepository counting = new CountingRepository(new MemberRepositoryV5(dataSource));
+        NegativeLookupMemberRepository repository = new NegativeLookupMemberRepository(
+                counting, dataSource, 10_000, 0.01, Duration.ofMinutes(1));
+
+        // 삭제된 회원 - filter는 통과, DB에서 한 번 확인 후 negative cache
+        repository.delete("m1");
+        assertThatThrownBy(() -> repository.findById("m1")).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(() -> repository.findById("m1")).isInstanceOf(NoSuchElementException.class);
+        assertThat(counting.finds).isEqualTo(1);
+        assertThat(repository.negativeHits()).isEqualTo(1);
+
+        // 다시 저장하면 바로 조회 가능
+        repository.save(new Member("m1", 500));
+        repository.save(new Member("newMember", 700));
+        assertThat(repository.findById("m1").getMoney()).isEqualTo(500);
+        assertThat(repository.findById("newMember").getMoney()).isEqualTo(700);
+    }
+
+    @Test
+    void concurrentMissDuringSave() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountingRepository blocking = new CountingRepository(new MemberRepositoryV5(dataSource)) {
+            @Override
+            public Member save(Member member) {
+                saving.countDown();
+                await(release);
+                return super.save(member);
+            }
+        };
+        NegativeLookupMemberRepository repository = new NegativeLookupMemberRepository(
+                blocking, dataSource, 10_000, 0.01, Duration.ofMinutes(1));
+
+        // save가 DB에 쓰기 전의 조회 실패 -> negative cache에 남으면 안 됨
+        CompletableFuture<Member> save = CompletableFuture.supplyAsync(() -> repository.save(new Member("newMember", 700)));
+        saving.await(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> repository.findById("newMember")).isInstanceOf(NoSuchElementException.class);
+        release.countDown();
+        save.get(5, TimeUnit.SECONDS);
+        assertThat(repository.findById("newMember").getMoney()).isEqualTo(700);
+
+        // transaction 안의 save - commit 전의 조회 실패도 commit 이후에는 남지 않음
+        TransactionTemplate txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> tx = CompletableFuture.runAsync(() -> txTemplate.executeWithoutResult(status -> {
+            repository.save(new Member("txMember", 300));
+            saved.countDown();
+            await(commit);
+        }));
+        saved.await(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> repository.findById("txMember")).isInstanceOf(NoSuchElementException.class);
+        commit.countDown();
+        tx.get(5, TimeUnit.SECONDS);
+        assertThat(repository.findById("txMember").getMoney()).isEqualTo(300);
+    }
+
+    @Test
+    void negativeCacheIsBounded() {
+        NegativeLookupMemberRepository repository = new NegativeLookupMemberRepository(
+                new MemberRepositoryV5(dataSource), dataSource, 10_000, 0.01, Duration.ofMinutes(1), 50);
+
+        // 삭제된 회원은 filter를 통과 -> 모두 negative cache 대상
+        template.update("delete from member");
+        for (int i = 0; i < 200; i++) {
+            String deleted = "m" + i;
+            assertThatThrownBy(() -> repository.findById(deleted)).isInstanceOf(NoSuchElementException.class);
+        }
+
+        assertThat(repository.falsePositives()).isEqualTo(200);
+        assertThat(repository.negativeCacheSize()).isLessThanOrEqualTo(50);
+    }
+
+    @Test
+    void rebuildKeepsSavedMembers() {
+        NegativeLookupMemberRepository repository = new NegativeLookupMemberRepository(dataSource, 10_000);
+        repository.save(new Member("newMember", 700));
+        // 다른 경로로 추가된 회원
+        template.update("insert into member(member_id, money) values(?, ?)", "imported", 300);
+        repository.onSaved("imported");
+
+        repository.rebuild();
+
+        assertThat(repository.findById("newMember").getMoney()).isEqualTo(700);
+        assertThat(repository.findById("imported").getMoney()).isEqualTo(300);
+        assertThat(repository.filterMemoryBytes()).isPositive();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class CountingRepository implements MemberRangeRepository {
+
+        private final MemberRangeRepository delegate;
+        int finds;
+
+        CountingRepository(MemberRangeRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Member save(Member member) {
+            return delegate.save(member);
+        }
+
+        @Override
+        public Member findById(String memberId) {
+            finds++;
+            return delegate.findById(memberId);
+        }
+
+        @Override
+        public void update(String memberId, int money) {
+            delegate.update(memberId, money);
+        }
+
+        @Override
+        public void delete(String memberId) {
+            delegate.delete(memberId);
+        }
+
+        @Override
+        public List<Member> findByMoneyBetween(int min, int max, Member after, int limit) {
+            return delegate.findByMoneyBetween(min, max, after, limit);
+        }
+
+        @Override
+        public Stream<Member> streamByMoneyBetween(int min, int max) {
+            return delegate.streamByMoneyBetween(min, max);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class ShardedMemberRepositoryTest {
+
+    public static final int SHARD_COUNT = 4;
+
+    List<DataSource> dataSources;
+    ShardedMemberRepository repository;
+
+    @BeforeEach
+    void init() {
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:shard" + i + ";DB_CLOSE_DELAY=-1", USERNAME, PASSWORD);
+            new SchemaInitializer(dataSource).initialize();
+            new JdbcTemplate(dataSource).update("delete from member");
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedMemberRepository(dataSources);
+    }
+
+    @Test
+    void crudRoutesToOwningShard() {
+        Member member = new Member("memberA", 10000);
+        repository.save(member);
+
+        int shard = repository.shardOf(member.getMemberId());
+        Integer money = new JdbcTemplate(dataSources.get(shard))
+                .queryForObject("select money from member where member_id = ?", Integer.class, member.getMemberId());
+        assertThat(money).isEqualTo(10000);
+
+        repository.update(member.getMemberId(), 20000);
+        assertThat(repository.findById(member.getMemberId()).getMoney()).isEqualTo(20000);
+
+        repository.delete(member.getMemberId());
+        assertThatThrownBy(() -> repository.findById(member.getMemberId()))
+                .isInstanceOf(EmptyResultDataAccessException.class);
+    }
+
+    @Test
+    void rangeQueriesMergeShards() {
+        for (int i = 0; i < 40; i++) {
+            repository.save(new Member("member" + i, (i % 8) * 1000));
+        }
+
+        // * keyset 페이징 - 여러 shard의 결과를 합쳐도 순서와 누락 없이 조회
+        List<Member> all = new ArrayList<>();
+        List<Member> page = repository.findByMoneyBetween(1000, 5000, 7);
+        while (!page.isEmpty()) {
+            all.addAll(page);
+            page = repository.findByMoneyBetween(1000, 5000, page.get(page.size() - 1), 7);
+        }
+        assertThat(all).hasSize(25).isSortedAccordingTo(MemberRangeRepository.MONEY_ORDER);
+
+        try (Stream<Member> stream = repository.streamByMoneyBetween(1000, 5000)) {
+            assertThat(stream.toList()).isEqualTo(all);
+        }
+    }
+
+    @Test
+    void keysAreSpreadAcrossShards() {
+        int[] counts = new int[SHARD_COUNT];
+        int total = 10000;
+        for (int i = 0; i < total; i++) {
+            counts[repository.shardOf("member" + i)]++;
+        }
+
+        // * virtual node를 사용하므로 각 shard가 평균(25%)에서 크게 벗어나지 않아야 함
+        for (int count : counts) {
+            log.info("shard count = {}", count);
+            assertThat(count).isBetween(total / SHARD_COUNT / 2, total / SHARD_COUNT * 2);
+        }
+    }
+
+    @Test
+    void addingShardMovesOnlyPartOfKeys() {
+        ConsistentHashRing before = new ConsistentHashRing(SHARD_COUNT);
+        ConsistentHashRing after = new ConsistentHashRing(SHARD_COUNT + 1);
+
+        int moved = 0;
+        int total = 10000;
+        for (int i = 0; i < total; i++) {
+            String key = "member" + i;
+            if (before.shardOf(key) != after.shardOf(key)) {
+                moved++;
+            }
+        }
+
+        // * 이상적으로는 1/(N+1) = 20% 정도만 이동
+        log.info("moved = {}", moved);
+        assertThat(moved).isLessThan(total / 3);
+    }
+}
@@ -0,0 +1,151 @@
+package springDB.jdbc.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.domain.MemberSummary;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.service.MemberServiceV4;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * member_summary 증분 갱신 - 전체 scan으로 구한 집계와 항상 일치해야 함
+ */
+@Slf4j
+class SummarizingMemberRepositoryTest {
+
+    JdbcTemplate template;
+    SummarizingMemberRepository repository;
+    TransactionTemplate txTemplate;
+
+    @BeforeEach
+    void before() {
+        DataSource dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "memberSummary" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new SchemaInitializer(dataSource).initialize();
+
+        template = new JdbcTemplate(dataSource);
+        template.update("delete from member");
+        template.update("update member_summary set member_count = 0, total_money = 0");
+
+        repository = new SummarizingMemberRepository(dataSource);
+        txTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void saveUpdateDelete() {
+        repository.save(new Member("memberA", 10000));
+        repository.save(new Member("memberB", 3000));
+        repository.update("memberA", 27000);
+        repository.delete("memberB");
+        repository.delete("unknown");
+        repository.update("unknown", 5000);
+
+        MemberSummary summary = repository.summaryRepository().summary();
+        assertThat(summary.getMemberCount()).isEqualTo(1);
+        assertThat(summary.getTotalMoney()).isEqualTo(27000);
+        assertThat(summary.getHistogram()[MemberSummaryRepository.bucketOf(27000)]).isEqualTo(1);
+        assertMatchesFullScan(summary);
+    }
+
+    @Test
+    void transferKeepsSummaryInSameTransaction() {
+        repository.save(new Member("memberA", 10000));
+        repository.save(new Member("memberB", 10000));
+        repository.save(new Member("ex", 10000));
+
+        MemberServiceV4 memberService = new MemberServiceV4(repository);
+        txTemplate.executeWithoutResult(status -> memberService.accountTransfer("memberA", "memberB", 6000));
+
+        // * 이체 실패 -> member와 summary 모두 rollback
+        assertThatThrownBy(() -> txTemplate.executeWithoutResult(status -> memberService.accountTransfer("memberA", "ex", 1000)))
+                .isInstanceOf(IllegalStateException.class);
+
+        MemberSummary summary = repository.summaryRepository().summary();
+        assertThat(summary.getTotalMoney()).isEqualTo(30000);
+        assertMatchesFullScan(summary);
+    }
+
+    @Test
+    void concurrentUpdatesKeepSummaryExact() throws Exception {
+        repository.save(new Member("memberA", 10000));
+
+        // * 같은 회원을 동시에 수정 - 변경 전 잔액을 lock 없이 읽으면 증감분이 어긋남
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int base = t * 1000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        repository.update("memberA", base + i * 700);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertMatchesFullScan(repository.summaryRepository().summary());
+    }
+
+    @Test
+    void crossBucketUpdatesDoNotDeadlock() throws Exception {
+        for (int t = 0; t < 4; t++) {
+            repository.save(new Member("member" + t, t % 2 == 0 ? 1000 : 27000));
+        }
+
+        // * 회원은 thread마다 다르지만 bucket 두 개를 서로 반대 방향으로 옮김
+        //   -> summary row를 잠그는 순서가 transaction마다 다르면 deadlock
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                String memberId = "member" + t;
+                int first = t % 2 == 0 ? 27000 : 1000;
+                int second = t % 2 == 0 ? 1000 : 27000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        repository.update(memberId, first);
+                        repository.update(memberId, second);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertMatchesFullScan(repository.summaryRepository().summary());
+    }
+
+    private void assertMatchesFullScan(MemberSummary summary) {
+        assertThat(summary.getMemberCount()).isEqualTo(template.queryForObject("select count(*) from member", Long.class));
+        assertThat(summary.getTotalMoney()).isEqualTo(template.queryForObject("select coalesce(sum(money), 0) from member", Long.class));
+
+        long[] histogram = new long[MemberSummaryRepository.BUCKETS];
+        template.query("select money from member", rs -> {
+            histogram[MemberSummaryRepository.bucketOf(rs.getInt(1))]++;
+        });
+        assertThat(summary.getHistogram()).isEqualTo(histogram);
+    }
+}
@@ -0,0 +1,56 @@
+package springDB.jdbc.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+@Slf4j
+class SchemaInitializerTest {
+
+    DataSource dataSource;
+
+    @BeforeEach
+    void init() {
+        dataSource = new DriverManagerDataSource(MEM_URL_PREFIX + "schemaInit" + MEM_URL_OPTIONS, USERNAME, PASSWORD);
+        new JdbcTemplate(dataSource).execute("drop all objects");
+    }
+
+    @Test
+    void appliesEachVersionOnce() {
+        SchemaInitializer initializer = new SchemaInitializer(dataSource);
+
+        // * sql/V1 ~ V9
+        assertThat(initializer.initialize()).isEqualTo(9);
+        assertThat(initializer.currentVersion()).isEqualTo(9);
+
+        // * 이미 적용된 version은 다시 실행하지 않음
+        assertThat(initializer.initialize()).isZero();
+    }
+
+    @Test
+    void repositoryQueriesUseIndex() {
+        new SchemaInitializer(dataSource).initialize();
+
+        assertThat(new QueryPlanVerifier(dataSource).verify()).isEmpty();
+    }
+
+    @Test
+    void detectsTableScan() {
+        new SchemaInitializer(dataSource).initialize();
+
+        // * 컬럼에 연산을 적용하면 index를 사용할 수 없음
+        QueryPlanVerifier verifier = new QueryPlanVerifier(dataSource)
+                .addQuery("scan", "select * from member where money + 1 = 2")
+                // 전체를 읽는 것이 의도인 쿼리는 보고하지 않음
+                .addFullScan("intended", "select * from member where money + 1 = 3");
+
+        assertThat(verifier.verify()).containsExactly("scan");
+    }
+}
@@ -31,7 +31,7 @@ class MemberServiceV1Test {
     @BeforeEach
     void before() {
         //Repository가 dataSource에 의존하고 있음
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         memberRepository = new MemberRepositoryV1(dataSource);
         memberService = new MemberServiceV1(memberRepository);
     }
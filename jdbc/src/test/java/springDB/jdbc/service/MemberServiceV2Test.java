@@ -35,7 +35,7 @@ class MemberServiceV2Test {
         //Repository가 dataSource에 의존하고 있음
         // + *** V2 Service에서는 Transaction을 위해 Repository에 Conn을 Parameter로 넘기는 메서드도 존재
         // -> 이를 위해 넘겨줄 dataSource 또한 넘겨서 생성
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         memberRepository = new MemberRepositoryV2(dataSource);
         memberService = new MemberServiceV2(dataSource, memberRepository);
     }
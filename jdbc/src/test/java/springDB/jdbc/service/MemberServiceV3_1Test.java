@@ -36,7 +36,7 @@ class MemberServiceV3_1Test {
         // *** V3_1의 Service에서는 더이상 dataSource를 직접 주입하지 않음(getConnection()) -> TransactionManager를 통해 주입
         // -> Service계층에서는 transaction만 구성하도록 PlatformTransactionManager 인터페이스에 의존 + (JDBC용 구체화 주입)
         // + *** but, transactionManager에서 con을 관리 할 때에, 생성 또한 관리하므로 dataSource 넘겨주어야함
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         memberRepository = new MemberRepositoryV3(dataSource);
 
         PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
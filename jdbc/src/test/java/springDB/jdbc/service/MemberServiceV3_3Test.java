@@ -54,7 +54,7 @@ class MemberServiceV3_3Test {
         //dataSource는 transactionManager, Repository에서 사용
         @Bean
         DataSource dataSource() {
-            return new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+            return new DriverManagerDataSource(url(MemberServiceV3_3Test.class), USERNAME, PASSWORD);
         }
 
         //transactionManager 또한 AOP를 위한 Proxy에서 주입받아서 transaction 관련된 처리
@@ -79,7 +79,7 @@ class MemberServiceV3_3Test {
     // * Spring Container에 등록된 Bean 사용을 위해 dataSource, repository, transactionManager에 대한 Before() 설정 X
     @BeforeEach
     void before() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         memberRepository = new MemberRepositoryV3(dataSource);
 
         // *** 이제 V3_3에서 Service는 transaction과 관련된 직접적인 의존 X
@@ -57,7 +57,7 @@ class MemberServiceV3_4Test {
 /*  // 기존의 dataSource Bean 등록
         @Bean
         DataSource dataSource() {
-            return new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+            return new DriverManagerDataSource(url(MemberServiceV3_4Test.class), USERNAME, PASSWORD);
         }
 */
 
@@ -83,7 +83,7 @@ class MemberServiceV3_4Test {
     // * Spring Container에 등록된 Bean 사용을 위해 dataSource, repository, transactionManager에 대한 Before() 설정 X
     @BeforeEach
     void before() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, USERNAME, PASSWORD);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url(getClass()), USERNAME, PASSWORD);
         memberRepository = new MemberRepositoryV3(dataSource);
 
         // *** 이제 V3_3에서 Service는 transaction과 관련된 직접적인 의존 X
@@ -14,6 +14,7 @@ import springDB.jdbc.repository.*;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -126,4 +127,27 @@ class MemberServiceV4Test {
         assertThat(findMemberEx.getMoney()).isEqualTo(10000);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("batch 이체 - 실패한 건만 savepoint까지 rollback")
+    void accountTransferBatch() {
+        //given
+        memberRepository.save(new Member(MEMBER_A, 10000));
+        memberRepository.save(new Member(MEMBER_B, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        //when - 두 번째 건은 validation 예외, from 계좌 차감까지 진행된 후 실패
+        BatchTransferResult result = memberService.accountTransferBatch(List.of(
+                new TransferRequest(MEMBER_A, MEMBER_B, 1000),
+                new TransferRequest(MEMBER_A, MEMBER_EX, 2000),
+                new TransferRequest(MEMBER_B, MEMBER_A, 500)));
+
+        //then - 나머지 두 건은 하나의 transaction으로 commit
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.isFailed(1)).isTrue();
+        assertThat(result.getFailures().get(1)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(memberRepository.findById(MEMBER_A).getMoney()).isEqualTo(9500);
+        assertThat(memberRepository.findById(MEMBER_B).getMoney()).isEqualTo(10500);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+    }
+}
@@ -0,0 +1,162 @@
+package springDB.jdbc.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import springDB.jdbc.domain.Member;
+import springDB.jdbc.schema.SchemaInitializer;
+import springDB.jdbc.repository.ShardedMemberRepository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static springDB.jdbc.connection.ConnectionConst.*;
+
+/**
+ * Sharding 환경의 이체
+ * - 같은 shard: 단일 transaction
+ * - 다른 shard: 출금 -> 입금, 실패 시 보상 transaction
+ * - 출금만 commit된 이체는 재시작 시 saga_transfer로 정산
+ */
+@Slf4j
+class MemberServiceV4_1Test {
+
+    public static final String MEMBER_EX = "ex";
+
+    ShardedMemberRepository memberRepository;
+    MemberServiceV4_1 memberService;
+    List<JdbcTemplate> templates = new ArrayList<>();
+
+    @BeforeEach
+    void before() {
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:txShard" + i + ";DB_CLOSE_DELAY=-1", USERNAME, PASSWORD);
+            new SchemaInitializer(dataSource).initialize();
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.update("delete from member");
+            template.update("delete from saga_transfer");
+            templates.add(template);
+            dataSources.add(dataSource);
+        }
+        memberRepository = new ShardedMemberRepository(dataSources);
+        memberService = new MemberServiceV4_1(memberRepository);
+    }
+
+    @Test
+    @DisplayName("같은 shard 정상이체")
+    void sameShardTransfer() {
+        String fromId = "memberA";
+        String toId = findId(memberRepository.shardOf(fromId), true);
+        memberRepository.save(new Member(fromId, 10000));
+        memberRepository.save(new Member(toId, 10000));
+
+        memberService.accountTransfer(fromId, toId, 2000);
+
+        assertThat(memberRepository.findById(fromId).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(toId).getMoney()).isEqualTo(12000);
+    }
+
+    @Test
+    @DisplayName("다른 shard 정상이체")
+    void crossShardTransfer() {
+        String fromId = "memberA";
+        String toId = findId(memberRepository.shardOf(fromId), false);
+        memberRepository.save(new Member(fromId, 10000));
+        memberRepository.save(new Member(toId, 10000));
+
+        memberService.accountTransfer(fromId, toId, 2000);
+
+        assertThat(memberRepository.findById(fromId).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(toId).getMoney()).isEqualTo(12000);
+        assertThat(memberService.pendingTransfers()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 shard 이체중 예외 발생 - 보상 transaction")
+    void crossShardTransferEx() {
+        String fromId = findId(memberRepository.shardOf(MEMBER_EX), false);
+        memberRepository.save(new Member(fromId, 10000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+
+        assertThatThrownBy(() -> memberService.accountTransfer(fromId, MEMBER_EX, 2000))
+                .isInstanceOf(IllegalStateException.class);
+
+        // * 출금은 이미 commit되었지만 보상으로 원복되어야 함
+        assertThat(memberRepository.findById(fromId).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+        assertThat(memberService.pendingTransfers()).isZero();
+    }
+
+    @Test
+    @DisplayName("출금 commit 직후 장애 - 재시작 시 입금")
+    void debitedTransferIsCreditedOnRestart() {
+        String fromId = "memberA";
+        String toId = findId(memberRepository.shardOf(fromId), false);
+        memberRepository.save(new Member(fromId, 8000));
+        memberRepository.save(new Member(toId, 10000));
+        saga(fromId, toId, 2000, "DEBITED");
+
+        MemberServiceV4_1 restarted = new MemberServiceV4_1(memberRepository);
+
+        assertThat(memberRepository.findById(fromId).getMoney()).isEqualTo(8000);
+        assertThat(memberRepository.findById(toId).getMoney()).isEqualTo(12000);
+        assertThat(restarted.pendingTransfers()).isZero();
+    }
+
+    @Test
+    @DisplayName("입금 commit 후 정리 전 장애 - 재시작 시 중복 입금 없음")
+    void creditedTransferIsNotCreditedTwice() {
+        String fromId = "memberA";
+        String toId = findId(memberRepository.shardOf(fromId), false);
+        memberRepository.save(new Member(fromId, 8000));
+        memberRepository.save(new Member(toId, 12000));
+        saga(fromId, toId, 2000, "DEBITED");
+        saga(fromId, toId, 2000, "CREDITED");
+
+        MemberServiceV4_1 restarted = new MemberServiceV4_1(memberRepository);
+
+        assertThat(memberRepository.findById(toId).getMoney()).isEqualTo(12000);
+        assertThat(restarted.pendingTransfers()).isZero();
+        assertThat(templates.get(memberRepository.shardOf(toId))
+                .queryForObject("select count(*) from saga_transfer", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("출금 commit 직후 장애, 입금 불가 - 재시작 시 보상")
+    void debitedTransferIsCompensatedOnRestart() {
+        String fromId = findId(memberRepository.shardOf(MEMBER_EX), false);
+        memberRepository.save(new Member(fromId, 8000));
+        memberRepository.save(new Member(MEMBER_EX, 10000));
+        saga(fromId, MEMBER_EX, 2000, "DEBITED");
+
+        MemberServiceV4_1 restarted = new MemberServiceV4_1(memberRepository);
+
+        assertThat(memberRepository.findById(fromId).getMoney()).isEqualTo(10000);
+        assertThat(memberRepository.findById(MEMBER_EX).getMoney()).isEqualTo(10000);
+        assertThat(restarted.pendingTransfers()).isZero();
+    }
+
+    // * 장애 시점의 saga_transfer 상태 - DEBITED는 출금 shard, CREDITED는 입금 shard
+    private void saga(String fromId, String toId, int money, String step) {
+        String shardId = step.equals("DEBITED") ? fromId : toId;
+        templates.get(memberRepository.shardOf(shardId)).update(
+                "insert into saga_transfer(transfer_id, from_id, to_id, money, step) values(?, ?, ?, ?, ?)",
+                "t1", fromId, toId, money, step);
+    }
+
+    private String findId(int shard, boolean sameShard) {
+        for (int i = 0; ; i++) {
+            String id = "m" + i;
+            if ((memberRepository.shardOf(id) == shard) == sameShard) {
+                return id;
+            }
+        }
+    }
+}